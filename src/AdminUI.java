@@ -11,6 +11,7 @@ import dataTypes.Student;
 import dataTypes.User;
 import database.Database;
 import enums.Major;
+import enums.UpdateResult;
 
 /**
  * AdminUI Runs the admin type user
@@ -159,10 +160,11 @@ public class AdminUI {
                 username = input.nextLine();
                 search = Database.getInstance().findByUsername(username);
                 if (search != null) {
+                    long version = search.getVersion();
                     System.out.println("Here is that student's information:");
                     System.out.println(search);
                     System.out.println("Deleting student...");
-                    admin.removeUser(search);
+                    printResult(admin.removeUser(search, version), "User deleted!");
 
                 } else
                     System.out.println("A student with that username does not exist!");
@@ -267,10 +269,11 @@ public class AdminUI {
                 username = input.nextLine();
                 search = Database.getInstance().findByUsername(username);
                 if (search != null) {
+                    long version = search.getVersion();
                     System.out.println("Here is that employers's information:");
                     System.out.println(search);
                     System.out.println("Deleting employer...");
-                    admin.removeUser(search);
+                    printResult(admin.removeUser(search, version), "User deleted!");
 
                 } else
                     System.out.println("A employer with that username does not exist!");
@@ -354,10 +357,11 @@ public class AdminUI {
                 username = input.nextLine();
                 search = Database.getInstance().findByUsername(username);
                 if (search != null) {
+                    long version = search.getVersion();
                     System.out.println("Here is that professor's information:");
                     System.out.println(search);
                     System.out.println("Deleting professor...");
-                    admin.removeUser(search);
+                    printResult(admin.removeUser(search, version), "User deleted!");
 
                 } else
                     System.out.println("A professor with that username does not exist!");
@@ -412,6 +416,7 @@ public class AdminUI {
         System.out.println("Enter 'STOP' at any time to quit");
         ArrayList<User> unapprovedUsers = Database.getInstance().getUnapprovedUsers();
         for (User user : unapprovedUsers) {
+            long version = user.getVersion();
             System.out.println("The following user is waiting for approval");
             System.out.println(user);
             System.out.println("Would you like to approve them? Enter (Y) for yes and (N) for no");
@@ -420,8 +425,7 @@ public class AdminUI {
             if (answer.equals("STOP"))
                 return;
             if (answer.equals("Y")) {
-                System.out.println("User approved!");
-                user.setApproved(true);
+                printResult(admin.approveUser(user, version, true), "User approved!");
             } else {
                 System.out.println("User not approved!");
                 System.out.println("Would you like to remove unapproved user? Enter (Y) for yes and (N) for no");
@@ -431,7 +435,7 @@ public class AdminUI {
                     return;
                 if (answer.equals("Y")) {
                     System.out.println("Removing user");
-                    admin.removeUser(user);
+                    printResult(admin.removeUser(user, version), "User removed!");
                 } else {
                     System.out.println("Leaving user as an unapproved user");
                 }
@@ -440,6 +444,25 @@ public class AdminUI {
         }
     }
 
+    /**
+     * Prints how a change to a record the admin was shown went
+     * 
+     * @param result what the Database did with the change
+     * @param done   what to print if the change was made
+     */
+    private void printResult(UpdateResult result, String done) {
+        switch (result) {
+        case APPLIED:
+            System.out.println(done);
+            break;
+        case CONFLICT:
+            System.out.println("That was changed by someone else since it was shown, please look at it again");
+            break;
+        default:
+            System.out.println("That has already been removed");
+        }
+    }
+
     /**
      * This is the job posting access part for the admin
      */
@@ -470,7 +493,7 @@ public class AdminUI {
                 if (employer != null) {
                     ArrayList<JobPosting> postingByUser = Database.getInstance()
                             .getPostingsByEmployer((Employer) employer);
-                    if (postingByUser != null) {
+                    if (!postingByUser.isEmpty()) {
                         System.out.println("Here are the postings by @" + employerUser);
                         for (JobPosting posting : postingByUser)
                             System.out.println(posting);
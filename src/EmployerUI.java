@@ -58,10 +58,8 @@ public class EmployerUI {
      */
     private void doJobEditMenu(Employer employer) {
         System.out.println("Here are your current Job Postings: ");
-        if (Database.getInstance().getPostingsByEmployer(employer)!=null) {
-            for(JobPosting i : Database.getInstance().getPostingsByEmployer(employer)) {
-                System.out.println(i.getJobTitle());
-            }
+        for(JobPosting i : Database.getInstance().getPostingsByEmployer(employer)) {
+            System.out.println(i.getJobTitle());
         }
         System.out.println("Would you like to:");
         System.out.println("(1) Edit a Current Job Posting");
@@ -88,7 +86,8 @@ public class EmployerUI {
  * @param employer
  */
 private void editJob(Employer employer) {
-    if (Database.getInstance().getPostingsByEmployer(employer) == null) {
+    ArrayList<JobPosting> employerPostings = Database.getInstance().getPostingsByEmployer(employer);
+    if (employerPostings.isEmpty()) {
         System.out.println("Sorry, there are no jobs to edit!");
         return;
     }
@@ -103,14 +102,12 @@ private void editJob(Employer employer) {
         employScanner.close();
         return;
        }
-       if( Database.getInstance().getPostingsByEmployer(employer) != null) {
-        for(JobPosting i : Database.getInstance().getPostingsByEmployer(employer)) {
+        for(JobPosting i : employerPostings) {
         if (i.getJobTitle().equals(selectedTitle)) {
             jobMatched = true;
             matchedJob = i;
             }
         }
-    }
     if(matchedJob == null) {
         return;
     }
@@ -146,7 +143,7 @@ private void editJob(Employer employer) {
                         matchedJob.addRequirement(employScanner.nextLine());
                         break;
                     case 2:
-                        ArrayList<String> allRequirements = matchedJob.getRequirements();
+                        ArrayList<String> allRequirements = new ArrayList<String>(matchedJob.getRequirements());
                         for (int i = 0; i<allRequirements.size()-1; i++) {
                             System.out.print((i+1) + " )" + allRequirements.get(i));
                         }
@@ -208,11 +205,11 @@ private void editJob(Employer employer) {
  * @param employer
  */
 private void viewJob (Employer employer) {
-    if (Database.getInstance().getPostingsByEmployer(employer) == null) {
+    ArrayList<JobPosting> allPostings = Database.getInstance().getPostingsByEmployer(employer);
+    if (allPostings.isEmpty()) {
         System.out.println("Sorry, there are no jobs to review!");
         return;
     }
-    ArrayList<JobPosting> allPostings = Database.getInstance().getPostingsByEmployer(employer);
     for (int i = 0; i<allPostings.size()-1; i++) {
         System.out.print((i+1) + ")");
         System.out.println(allPostings.get(i).getJobTitle());
@@ -286,11 +283,12 @@ private void makeJob (Employer employer) {
  * @param employer
  */
 private void doStudentReviewMenu(Employer employer) {
-    if (Database.getInstance().getPostingsByEmployer(employer) == null) {
+    ArrayList<JobPosting> employerPostings = Database.getInstance().getPostingsByEmployer(employer);
+    if (employerPostings.isEmpty()) {
         System.out.println("Sorry, you have no postings to review students from!");
         return;
     }
-    for (JobPosting i : Database.getInstance().getPostingsByEmployer(employer)) {
+    for (JobPosting i : employerPostings) {
         System.out.println("Job Posting: ");
         System.out.println(i.getJobTitle());
         for (Student j : i.getApplicants()) {
@@ -306,7 +304,7 @@ private void doStudentReviewMenu(Employer employer) {
             employScanner.close();
             return;
         }
-        for (JobPosting i : Database.getInstance().getPostingsByEmployer(employer)) {
+        for (JobPosting i : employerPostings) {
             for (Student j : i.getApplicants()) {
                 if(studentName.equalsIgnoreCase(j.getFirstName())){
                     studentFound = true;
@@ -6,9 +6,12 @@
  */
 
 import dataTypes.User;
+import database.Archive;
+import database.Autosaver;
 import database.Database;
-import database.JsonDataReader;
+import database.JsonStreamDataReader;
 import database.JsonDataWriter;
+import database.MutationLog;
 import database.Database;
 
 /**
@@ -18,15 +21,19 @@ import database.Database;
  */
 public class JobSystem {
     private static JobSystem instance;
+    private static final long AUTOSAVE_MILLIS = 30000;
+    private Autosaver autosaver;
 
     /**
      * Constructor sets default values
      */
     private JobSystem() {
-        Database.getInstance().setDataReader(new JsonDataReader("data/Administrators.json", "data/Students.json",
+        Database.getInstance().setDataReader(new JsonStreamDataReader("data/Administrators.json", "data/Students.json",
                 "data/Employers.json", "data/Professors.json", "data/Reviews.json", "data/JobPostings.json"));
         Database.getInstance().setDataWriter(new JsonDataWriter("data/Administrators.json", "data/Students.json",
                 "data/Employers.json", "data/Professors.json", "data/Reviews.json", "data/JobPostings.json"));
+        Database.getInstance().setMutationLog(new MutationLog("data/Mutations.log"));
+        Database.getInstance().setArchive(new Archive("data/archive"));
     }
 
     /**
@@ -42,7 +49,8 @@ public class JobSystem {
     }
 
     /**
-     * Allows a user to log in
+     * Allows a user to log in. An archived user who logs in is brought back into
+     * the Database
      * 
      * @param username the user's username
      * @param password the user's password
@@ -54,6 +62,7 @@ public class JobSystem {
             return null;
         }
         if (user.getPassword().equals(password)) {
+            Database.getInstance().restoreUser(user);
             return user;
         }
         return null;
@@ -78,12 +87,17 @@ public class JobSystem {
      */
     public void loadData() {
         Database.getInstance().loadFromFile();
+        autosaver = new Autosaver(Database.getInstance(), AUTOSAVE_MILLIS);
+        autosaver.start();
     }
 
     /**
-     * writes data to the JSON files
+     * moves the removed records into the archive and writes data to the JSON files
      */
     public void saveData() {
+        if (autosaver != null)
+            autosaver.stop();
+        Database.getInstance().compact();
         Database.getInstance().writeToFile();
     }
 }
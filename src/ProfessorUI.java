@@ -8,6 +8,7 @@ import database.Database;
 import dataTypes.Student;
 import java.util.ArrayList;
 import dataTypes.User;
+import enums.UpdateResult;
 
 
 /**
@@ -111,9 +112,10 @@ private void editReviewStudent(Professor professor) {
     displayStudents(professor);
     student = selectStudent();
     review = removeReview(student, professor);
-    Database.getInstance().removeReveiw(review);
-    review = addingreview(student, professor);
-    Database.getInstance().addReview(review);
+    long version = review == null ? 0 : review.getVersion();
+    Review replacement = addingreview(student, professor);
+    if (removeUnchanged(review, version))
+        Database.getInstance().addReview(replacement);
 }
    
 /**
@@ -141,9 +143,24 @@ private void ReviewStudentRemove(Professor professor) {
     displayStudents(professor);
     student = selectStudent();
     review = removeReview(student, professor);
-    Database.getInstance().removeReveiw(review);
+    long version = review == null ? 0 : review.getVersion();
+    removeUnchanged(review, version);
 
 }
+/**
+ * Removes a review if no one changed it since its version was read, and tells the professor if someone did
+ * @param review the review to remove
+ * @param version the version of the review when it was found
+ * @return true if the review was removed
+ */
+private boolean removeUnchanged(Review review, long version) {
+    UpdateResult result = Database.getInstance().removeReveiw(review, version);
+    if (result == UpdateResult.CONFLICT)
+        System.out.println("That review was changed by someone else, please try again");
+    else if (result == UpdateResult.MISSING)
+        System.out.println("You have not reviewed that student");
+    return result == UpdateResult.APPLIED;
+}
 /**
  * Takes in the current professor to display Students reviewed by them
  * @param professor
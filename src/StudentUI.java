@@ -136,7 +136,7 @@ public class StudentUI {
         }
         System.out.println("Job Postings:");
         for(int i = 0; i <= jobPostings.size(); i++) {
-            while(i < jobPostings.size() && jobPostings.get(i).getApplicants().contains(student)) {
+            while(i < jobPostings.size() && jobPostings.get(i).hasApplicant(student)) {
                 jobPostings.remove(i);
             }
             
@@ -155,7 +155,10 @@ public class StudentUI {
             System.out.println("Invalid option");
             return;
         }
-        jobPostings.get(option).addApplicant(student);
+        if(!jobPostings.get(option).addApplicant(student)) {
+            System.out.println("You have already applied to this job");
+            return;
+        }
         System.out.println("You have successfully applied to the " + jobPostings.get(option).getJobTitle() + " job at " + jobPostings.get(option).getEmployer().getCompany());
 
     }
@@ -272,7 +275,9 @@ public class StudentUI {
         System.out.print("Please enter the index of the employment you would like to remove: ");
         int option = Integer.parseInt(scanner.nextLine());
         try {
-            employments.remove(option);
+            ArrayList<Employment> changed = new ArrayList<Employment>(employments);
+            changed.remove(option);
+            student.editEmployment(changed);
         } catch (IndexOutOfBoundsException e) {
             System.out.println("Invalid employment");
         }
@@ -345,7 +350,9 @@ public class StudentUI {
         System.out.print("Please enter the index of the skill you would like to remove: ");
         int option = Integer.parseInt(scanner.nextLine());
         try {
-            skills.remove(option);
+            ArrayList<String> changed = new ArrayList<String>(skills);
+            changed.remove(option);
+            student.changeTechnicalSkills(changed);
         } catch (IndexOutOfBoundsException e) {
             System.out.println("Invalid skill");
         }
@@ -405,7 +412,7 @@ public class StudentUI {
         System.out.print("Please enter the index of the education you would like to remove: ");
         int option = Integer.parseInt(scanner.nextLine());
         try {
-            educations.remove(option);
+            student.removeEducation(educations.get(option));
         } catch (IndexOutOfBoundsException e) {
             System.out.println("Invalid education");
         }
@@ -3,6 +3,7 @@ package dataTypes;
 import java.util.UUID;
 
 import database.Database;
+import enums.UpdateResult;
 
 /**
  * Admin User dataType type of User
@@ -46,6 +47,29 @@ public class Admin extends User {
         Database.getInstance().removeUser(user);
     }
 
+    /**
+     * Remove a User, but only if no one changed it since the admin was shown it
+     * 
+     * @param user            the user account we want to remove
+     * @param expectedVersion the version of the user when it was shown
+     * @return APPLIED, CONFLICT if someone changed it, or MISSING if it is gone
+     */
+    public UpdateResult removeUser(User user, long expectedVersion) {
+        return Database.getInstance().removeUser(user, expectedVersion);
+    }
+
+    /**
+     * Approve a User, but only if no one changed it since the admin was shown it
+     * 
+     * @param user            the user account we want to approve
+     * @param expectedVersion the version of the user when it was shown
+     * @param approved        true to approve the user, false to take it back
+     * @return APPLIED, CONFLICT if someone changed it, or MISSING if it is gone
+     */
+    public UpdateResult approveUser(User user, long expectedVersion, boolean approved) {
+        return Database.getInstance().approveUser(user, expectedVersion, approved);
+    }
+
     /**
      * Remove a rewiew
      * 
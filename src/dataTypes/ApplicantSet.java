@@ -0,0 +1,106 @@
+package dataTypes;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ApplicantSet datatype holds the students who applied to a posting, once each,
+ * in the order they applied. Students are matched by id, so applying twice or
+ * applying from two sessions at once still adds them once. Adding and checking
+ * never lock the whole set, so many students can apply to one posting at once
+ */
+public class ApplicantSet implements Iterable<Student> {
+    private ConcurrentHashMap<UUID, Student> byId;
+    private ConcurrentLinkedQueue<Student> order; // only students that won the put into byId are added
+    private AtomicInteger size;
+
+    /**
+     * Constructor creates an empty set
+     */
+    public ApplicantSet() {
+        byId = new ConcurrentHashMap<UUID, Student>();
+        order = new ConcurrentLinkedQueue<Student>();
+        size = new AtomicInteger();
+    }
+
+    /**
+     * Constructor creates a set with the students in a list, skipping repeats
+     *
+     * @param applicants the students to add in order, or null for none
+     */
+    public ApplicantSet(Collection<Student> applicants) {
+        this();
+        if (applicants != null)
+            for (Student applicant : applicants)
+                add(applicant);
+    }
+
+    /**
+     * Adds a student, unless a student with the same id is already in the set
+     *
+     * @param applicant the student who applied
+     * @return true if the student was added
+     */
+    public boolean add(Student applicant) {
+        if (applicant == null || applicant.getId() == null)
+            return false;
+        if (byId.putIfAbsent(applicant.getId(), applicant) != null)
+            return false;
+        order.add(applicant);
+        size.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Checks if a student is in the set
+     *
+     * @param applicant the student in question
+     * @return true if a student with that id applied
+     */
+    public boolean contains(Student applicant) {
+        return applicant != null && contains(applicant.getId());
+    }
+
+    /**
+     * Checks if a student is in the set
+     *
+     * @param id the id of the student in question
+     * @return true if a student with that id applied
+     */
+    public boolean contains(UUID id) {
+        return id != null && byId.containsKey(id);
+    }
+
+    /**
+     * Get method for the number of students in the set
+     *
+     * @return how many students applied
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Copies the students into a list
+     *
+     * @return ArrayList of the students in the order they applied
+     */
+    public ArrayList<Student> toList() {
+        return new ArrayList<Student>(order);
+    }
+
+    /**
+     * Loops over the students in the order they applied. Students added while
+     * looping may or may not be seen
+     *
+     * @return an Iterator over the students
+     */
+    public Iterator<Student> iterator() {
+        return order.iterator();
+    }
+}
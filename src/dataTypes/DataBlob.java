@@ -1,6 +1,8 @@
 package dataTypes;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.UUID;
 
 /**
  * Datablob datatype Aid in data access Keeps track of the ArrayLists
@@ -11,6 +13,7 @@ public class DataBlob {
     private ArrayList<User> users;
     private ArrayList<Review> reviews;
     private ArrayList<JobPosting> jobPostings;
+    private HashMap<UUID, User> usersById;
 
     /**
      * Constructor Initializes attributes of class
@@ -19,6 +22,7 @@ public class DataBlob {
         users = new ArrayList<User>();
         reviews = new ArrayList<Review>();
         jobPostings = new ArrayList<JobPosting>();
+        usersById = new HashMap<UUID, User>();
     }
 
     /**
@@ -28,6 +32,19 @@ public class DataBlob {
      */
     public void addUser(User user) {
         users.add(user);
+        if (user != null && user.getId() != null)
+            usersById.putIfAbsent(user.getId(), user);
+    }
+
+    /**
+     * Makes a user that is stored somewhere else findable by getUserById,
+     * without adding it to the ArrayList of users
+     * 
+     * @param user the user to look up by id
+     */
+    public void addReference(User user) {
+        if (user != null && user.getId() != null)
+            usersById.putIfAbsent(user.getId(), user);
     }
 
     /**
@@ -57,6 +74,16 @@ public class DataBlob {
         return users;
     }
 
+    /**
+     * Looks up a user by their unique identifier
+     * 
+     * @param id the id of the user
+     * @return the user with that id, or null if there is none
+     */
+    public User getUserById(UUID id) {
+        return usersById.get(id);
+    }
+
     /**
      * Get method for ArrayList of reviews
      * 
@@ -82,6 +109,10 @@ public class DataBlob {
      */
     public void setUsers(ArrayList<User> users) {
         this.users = users;
+        usersById.clear();
+        for (User user : users)
+            if (user != null && user.getId() != null)
+                usersById.putIfAbsent(user.getId(), user);
     }
 
     /**
@@ -173,6 +173,7 @@ public class Employer extends User {
      */
     public void setCompany(String company) {
         this.company = company;
+        changed();
     }
 
     /**
@@ -182,6 +183,7 @@ public class Employer extends User {
      */
     public void setAverageRating(double rating) {
         this.averageRating = rating;
+        changed();
     }
 
     /**
@@ -190,7 +192,10 @@ public class Employer extends User {
      * @param username what we want to set the username to
      */
     public void setUsername(String username) {
+        String oldUsername = this.username;
         this.username = username;
+        Database.getInstance().updateUsername(this, oldUsername);
+        changed();
     }
 
     /**
@@ -200,6 +205,7 @@ public class Employer extends User {
      */
     public void setPassword(String password) {
         this.password = password;
+        changed();
     }
 
     /**
@@ -208,7 +214,10 @@ public class Employer extends User {
      * @param email the email we want to set it to
      */
     public void setEmail(String email) {
+        String oldEmail = this.email;
         this.email = email;
+        Database.getInstance().updateEmail(this, oldEmail);
+        changed();
     }
 
     /**
@@ -228,6 +237,7 @@ public class Employer extends User {
      */
     public void setRemoved(boolean removed) {
         this.removed = removed;
+        changed();
     }
 
     /**
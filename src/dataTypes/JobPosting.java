@@ -2,24 +2,44 @@ package dataTypes;
 
 import java.util.ArrayList;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
+import database.Database;
 import enums.JobPostingStatus;
+import utilities.StripedLock;
 
 /**
  * JobPosting data type
  * 
+ * Edits that change more than one thing hold the posting lock, which is picked
+ * by the posting's id, from start to end: the requirements and their entries in
+ * the Database's search indexes, the employer and the employer index, and the
+ * applicants and the application index. So edits to one posting happen one at a
+ * time and the indexes end up in the same order as the posting, while edits to
+ * other postings go on at the same time. Setters that write a single field do
+ * not need the lock. The requirements list is replaced rather than changed, so
+ * a reader sees a posting's requirements from before or after an edit, never in
+ * the middle of one
+ * 
+ * The posting lock is taken before the Database lock, so nothing that holds
+ * the Database lock may call a setter that takes the posting lock
+ * 
  * @author Stella Garcia
  */
 public class JobPosting {
+    private static final StripedLock POSTING_LOCKS = new StripedLock(64);
+
     private UUID id;
-    private Employer employer;
-    public String jobTitle;
-    private String description;
-    private ArrayList<String> requirements;
-    private double hourlyWage;
-    private JobPostingStatus status;
-    private ArrayList<Student> applicants;
-    private boolean removed;
+    private volatile Employer employer;
+    public volatile String jobTitle;
+    private volatile String description;
+    private volatile ArrayList<String> requirements;
+    private volatile double hourlyWage;
+    private volatile JobPostingStatus status;
+    private volatile ApplicantSet applicants;
+    private volatile boolean removed;
+    private final AtomicLong version = new AtomicLong(); // moves on with every change, starts at 0 on each load
 
     /**
      * Constructor
@@ -43,7 +63,7 @@ public class JobPosting {
         this.requirements = requirements;
         this.hourlyWage = hourlyWage;
         this.status = status;
-        this.applicants = applicants;
+        this.applicants = new ApplicantSet(applicants);
         this.removed = removed;
     }
 
@@ -53,7 +73,17 @@ public class JobPosting {
      * @param requirement the requirement to add
      */
     public void addRequirement(String requirement) {
-        this.requirements.add(requirement);
+        ReentrantLock postingLock = lock();
+        postingLock.lock();
+        try {
+            ArrayList<String> changed = copyRequirements();
+            changed.add(requirement);
+            this.requirements = changed;
+            Database.getInstance().updateRequirements(this);
+        } finally {
+            postingLock.unlock();
+        }
+        changed();
     }
 
     /**
@@ -62,16 +92,42 @@ public class JobPosting {
      * @param toRemove the requirement to remove
      */
     public void removeRequriement(String toRemove) {
-        this.requirements.remove(toRemove);
+        ReentrantLock postingLock = lock();
+        postingLock.lock();
+        try {
+            ArrayList<String> changed = copyRequirements();
+            changed.remove(toRemove);
+            this.requirements = changed;
+            Database.getInstance().updateRequirements(this);
+        } finally {
+            postingLock.unlock();
+        }
+        changed();
     }
 
     /**
-     * add an applicant to the ArrayList
+     * add an applicant to the posting, a student who already applied is not added
+     * again
      * 
      * @param applicant the student to add
+     * @return true if the student was added
+     */
+    public boolean addApplicant(Student applicant) {
+        if (!this.applicants.add(applicant))
+            return false;
+        Database.getInstance().addApplicant(this, applicant);
+        changed();
+        return true;
+    }
+
+    /**
+     * Checks if a student applied to the posting
+     * 
+     * @param applicant the student in question
+     * @return true if the student is an applicant
      */
-    public void addApplicant(Student applicant) {
-        this.applicants.add(applicant);
+    public boolean hasApplicant(Student applicant) {
+        return this.applicants.contains(applicant);
     }
 
     /**
@@ -102,7 +158,9 @@ public class JobPosting {
     }
 
     /**
-     * Get method for the requirements of job
+     * Get method for the requirements of job. Edits replace the list instead of
+     * changing it, so a caller that wants to change the requirements should copy
+     * it and pass the copy to setRequirements
      * 
      * @return the ArrayList requirements of the job
      */
@@ -128,6 +186,42 @@ public class JobPosting {
         return this.id;
     }
 
+    /**
+     * Get method for the version of the job, which moves on every time it
+     * changes. A session keeps the version it read and passes it to the
+     * Database's compare-and-set updates, which only go through if nothing
+     * changed since. The version is odd while one of those updates is being made
+     * 
+     * @return the version of the job
+     */
+    public long getVersion() {
+        return this.version.get();
+    }
+
+    /**
+     * Starts an edit, but only if the version is still the one the caller read
+     * and no other edit is being made. The version stays odd until
+     * releaseVersion, so a session that reads it in the middle of the edit gets
+     * a version no compare-and-set update accepts. Of two sessions that read the
+     * same version, only one gets true
+     * 
+     * @param expectedVersion the version the caller read
+     * @return true if the version was still expectedVersion
+     */
+    public boolean claimVersion(long expectedVersion) {
+        return (expectedVersion & 1) == 0 && this.version.compareAndSet(expectedVersion, expectedVersion + 1);
+    }
+
+    /**
+     * Ends an edit started by claimVersion and moves the version past every
+     * change made during it
+     * 
+     * @param expectedVersion the version that was passed to claimVersion
+     */
+    public void releaseVersion(long expectedVersion) {
+        this.version.compareAndSet(expectedVersion + 1, expectedVersion + 2);
+    }
+
     /**
      * Get method for status of the job
      * 
@@ -140,10 +234,10 @@ public class JobPosting {
     /**
      * Get method for applicants of the job
      * 
-     * @return the ArrayList of applicants
+     * @return a copy of the applicants, in the order they applied
      */
     public ArrayList<Student> getApplicants() {
-        return this.applicants;
+        return this.applicants.toList();
     }
 
     /**
@@ -153,6 +247,7 @@ public class JobPosting {
      */
     public void setTitle(String title) {
         this.jobTitle = title;
+        changed();
     }
 
     /**
@@ -161,7 +256,16 @@ public class JobPosting {
      * @param employer the employer we want to set it to
      */
     public void setEmployer(Employer employer) {
-        this.employer = employer;
+        ReentrantLock postingLock = lock();
+        postingLock.lock();
+        try {
+            Employer oldEmployer = this.employer;
+            this.employer = employer;
+            Database.getInstance().updatePostingEmployer(this, oldEmployer);
+        } finally {
+            postingLock.unlock();
+        }
+        changed();
     }
 
     /**
@@ -171,6 +275,7 @@ public class JobPosting {
      */
     public void setDescription(String description) {
         this.description = description;
+        changed();
     }
 
     /**
@@ -179,7 +284,15 @@ public class JobPosting {
      * @param requirements the ArrayList we want to set it to
      */
     public void setRequirements(ArrayList<String> requirements) {
-        this.requirements = requirements;
+        ReentrantLock postingLock = lock();
+        postingLock.lock();
+        try {
+            this.requirements = requirements == null ? null : new ArrayList<String>(requirements);
+            Database.getInstance().updateRequirements(this);
+        } finally {
+            postingLock.unlock();
+        }
+        changed();
     }
 
     /**
@@ -189,6 +302,7 @@ public class JobPosting {
      */
     public void setWage(double hourlyWage) {
         this.hourlyWage = hourlyWage;
+        changed();
     }
 
     /**
@@ -198,6 +312,8 @@ public class JobPosting {
      */
     public void setStatus(JobPostingStatus status) {
         this.status = status;
+        Database.getInstance().updateStatus(this);
+        changed();
     }
 
     /**
@@ -206,7 +322,17 @@ public class JobPosting {
      * @param applicants the ArrayList we want to set it to
      */
     public void setApplicants(ArrayList<Student> applicants) {
-        this.applicants = applicants;
+        ReentrantLock postingLock = lock();
+        postingLock.lock();
+        try {
+            Database.getInstance().removeApplications(this, this.applicants.toList());
+            this.applicants = new ApplicantSet(applicants);
+            for (Student applicant : this.applicants)
+                Database.getInstance().addApplication(this, applicant);
+        } finally {
+            postingLock.unlock();
+        }
+        changed();
     }
 
     /**
@@ -225,6 +351,37 @@ public class JobPosting {
      */
     public void setRemoved(boolean removed) {
         this.removed = removed;
+        changed();
+    }
+
+    /**
+     * Moves the version on and marks this posting as changed in the Database.
+     * During a claimed edit the version is left odd, releaseVersion moves it on
+     */
+    private void changed() {
+        this.version.getAndUpdate(current -> (current & 1) == 0 ? current + 2 : current);
+        Database.getInstance().markDirty(this);
+    }
+
+    /**
+     * Get method for the lock that edits to this posting hold
+     * 
+     * @return the posting lock for this posting's id
+     */
+    private ReentrantLock lock() {
+        return POSTING_LOCKS.get(this.id);
+    }
+
+    /**
+     * Copies the requirements so an edit can change the copy, which needs the
+     * posting lock to be held
+     * 
+     * @return a copy of the requirements, empty if there are none
+     */
+    private ArrayList<String> copyRequirements() {
+        if (this.requirements == null)
+            return new ArrayList<String>();
+        return new ArrayList<String>(this.requirements);
     }
 
     /**
@@ -233,11 +390,12 @@ public class JobPosting {
      * @return String what we want to print out
      */
     public String toString() {
+        ArrayList<String> requirements = this.requirements;
         StringBuilder sb = new StringBuilder();
         sb.append(this.jobTitle + " at " + this.employer.getCompany() + "\n");
         sb.append("Description: " + this.description + "\n");
         sb.append("Requirements: \n");
-        for (String requirement : this.requirements) {
+        for (String requirement : requirements) {
             sb.append("\t" + requirement + "\n");
         }
         sb.append("Hourly Wage: " + this.hourlyWage + "\n");
@@ -72,7 +72,10 @@ public class Professor extends User {
      * @param username what we want to set the username to
      */
     public void setUsername(String username) {
+        String oldUsername = this.username;
         this.username = username;
+        Database.getInstance().updateUsername(this, oldUsername);
+        changed();
     }
 
     /**
@@ -82,6 +85,7 @@ public class Professor extends User {
      */
     public void setPassword(String password) {
         this.password = password;
+        changed();
     }
 
     /**
@@ -90,7 +94,10 @@ public class Professor extends User {
      * @param email what we want to set teh email to
      */
     public void setEmail(String email) {
+        String oldEmail = this.email;
         this.email = email;
+        Database.getInstance().updateEmail(this, oldEmail);
+        changed();
     }
 
     /**
@@ -109,6 +116,7 @@ public class Professor extends User {
      */
     public void setRemoved(boolean removed) {
         this.removed = removed;
+        changed();
     }
 
     /**
@@ -0,0 +1,43 @@
+package dataTypes;
+
+import java.util.function.Function;
+
+/**
+ * RawJson datatype holds a value as the JSON text it was read from, so it is
+ * only decoded if it is used and can be written back unchanged if it is not
+ *
+ * @param <T> the type the text decodes to
+ */
+public class RawJson<T> {
+    private String json;
+    private Function<String, T> decoder;
+
+    /**
+     * Constructor
+     *
+     * @param json    the JSON text of the value
+     * @param decoder turns the text into the value
+     */
+    public RawJson(String json, Function<String, T> decoder) {
+        this.json = json;
+        this.decoder = decoder;
+    }
+
+    /**
+     * Get method for the JSON text
+     *
+     * @return the text exactly as it was read
+     */
+    public String getJson() {
+        return json;
+    }
+
+    /**
+     * Decodes the text
+     *
+     * @return the value
+     */
+    public T decode() {
+        return decoder.apply(json);
+    }
+}
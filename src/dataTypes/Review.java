@@ -5,6 +5,9 @@
 package dataTypes;
 
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import database.Database;
 
 public class Review {
     private UUID id;
@@ -13,6 +16,7 @@ public class Review {
     private int rating;
     private String comment;
     private boolean removed;
+    private final AtomicLong version = new AtomicLong(); // moves on with every change, starts at 0 on each load
 
     public Review(UUID id, User reveiwer, User reviewee, int rating, String comment, boolean removed) {
         this.id = id;
@@ -52,12 +56,47 @@ public class Review {
     public UUID getId() {
         return this.id;
     }
+    /**
+     * Returns the version of this review, which moves on every time it changes
+     * and is odd while a compare-and-set update is being made
+     * @return version
+     */
+    public long getVersion() {
+        return this.version.get();
+    }
+    /**
+     * Starts an edit, but only if the version is still the one the caller read
+     * and no other edit is being made. The version stays odd until
+     * releaseVersion
+     * @param expectedVersion the version the caller read
+     * @return true if the version was still expectedVersion
+     */
+    public boolean claimVersion(long expectedVersion) {
+        return (expectedVersion & 1) == 0 && this.version.compareAndSet(expectedVersion, expectedVersion + 1);
+    }
+    /**
+     * Ends an edit started by claimVersion and moves the version past every
+     * change made during it
+     * @param expectedVersion the version that was passed to claimVersion
+     */
+    public void releaseVersion(long expectedVersion) {
+        this.version.compareAndSet(expectedVersion + 1, expectedVersion + 2);
+    }
+    /**
+     * Moves the version on and marks this review as changed in the Database.
+     * During a claimed edit the version is left odd, releaseVersion moves it on
+     */
+    private void changed() {
+        this.version.getAndUpdate(current -> (current & 1) == 0 ? current + 2 : current);
+        Database.getInstance().markDirty(this);
+    }
     /**
      * Sets the rating to a new rating
      * @param rating
      */
     public void setRating(int rating) {
         this.rating = rating;
+        changed();
     }
     /**
      * Sets the comment to a new comment
@@ -65,6 +104,7 @@ public class Review {
      */
     public void setCommment(String comment) {
         this.comment = comment;
+        changed();
     }
     /**
      * @return removed status
@@ -78,6 +118,7 @@ public class Review {
      */
     public void setRemoved(boolean removed) {
         this.removed = removed;
+        changed();
     }
     /**
      * Prints the review by reviewer from reviewee, what rating, and what comment
@@ -7,18 +7,23 @@ package dataTypes;
 
 import java.util.ArrayList;
 import java.util.UUID;
+import java.util.function.Supplier;
 
-import database.Database;
 import enums.Major;
 
 public class Student extends User {
     private Major major;
     private boolean createdResume;
-    private ArrayList<Employment> employments;
-    private ArrayList<Education> educations;
-    private ArrayList<String> technicalSkills;
+    private volatile ArrayList<Employment> employments; // replaced on every edit, never changed in place
+    private volatile ArrayList<Education> educations; // replaced on every edit, never changed in place
+    private volatile ArrayList<String> technicalSkills; // replaced on every edit, never changed in place
     private double averageRating;
     private boolean removed;
+    private volatile Supplier<Student> loader; // decodes the major, resume and rating on first use, then null
+    private volatile Supplier<String> rawRecord; // the JSON read, until the student is loaded or changed, or null
+    private volatile RawJson<ArrayList<Employment>> rawEmployments; // employments not decoded yet, or null
+    private volatile RawJson<ArrayList<Education>> rawEducations; // educations not decoded yet, or null
+    private volatile RawJson<ArrayList<String>> rawTechnicalSkills; // skills not decoded yet, or null
 
     public Student(UUID id, String username, String password, String email, String firstName, String lastName,
             boolean approved, Major major, boolean createdResume, ArrayList<Employment> employments,
@@ -32,12 +37,91 @@ public class Student extends User {
         this.averageRating = averageRating;
     }
 
+    /**
+     * Decodes the rest of the student the first time it is needed, if it was
+     * read without it
+     */
+    private void load() {
+        if (loader == null)
+            return;
+        synchronized (this) {
+            if (loader == null)
+                return;
+            Student full = loader.get();
+            this.major = full.major;
+            this.createdResume = full.createdResume;
+            this.employments = full.employments;
+            this.educations = full.educations;
+            this.technicalSkills = full.technicalSkills;
+            this.averageRating = full.averageRating;
+            this.rawEmployments = full.rawEmployments;
+            this.rawEducations = full.rawEducations;
+            this.rawTechnicalSkills = full.rawTechnicalSkills;
+            rawRecord = null;
+            loader = null;
+        }
+    }
+
+    /**
+     * Decodes the employments the first time they are needed, if they were read
+     * as raw JSON
+     */
+    private void loadEmployments() {
+        load();
+        if (rawEmployments == null)
+            return;
+        synchronized (this) {
+            if (rawEmployments != null) {
+                this.employments = rawEmployments.decode();
+                rawEmployments = null;
+            }
+        }
+    }
+
+    /**
+     * Decodes the educations the first time they are needed, if they were read
+     * as raw JSON
+     */
+    private void loadEducations() {
+        load();
+        if (rawEducations == null)
+            return;
+        synchronized (this) {
+            if (rawEducations != null) {
+                this.educations = rawEducations.decode();
+                rawEducations = null;
+            }
+        }
+    }
+
+    /**
+     * Decodes the technical skills the first time they are needed, if they were
+     * read as raw JSON
+     */
+    private void loadTechnicalSkills() {
+        load();
+        if (rawTechnicalSkills == null)
+            return;
+        synchronized (this) {
+            if (rawTechnicalSkills != null) {
+                this.technicalSkills = rawTechnicalSkills.decode();
+                rawTechnicalSkills = null;
+            }
+        }
+    }
+
     /**
      * Adds employment to self
      * @param employment
      */
     public void addEmployment(Employment employment) {
-        this.employments.add(employment);
+        loadEmployments();
+        synchronized (this) {
+            ArrayList<Employment> changed = copy(this.employments);
+            changed.add(employment);
+            this.employments = changed;
+        }
+        changed();
     }
 
     /**
@@ -45,14 +129,22 @@ public class Student extends User {
      * @param employment
      */
     public void editEmployment(ArrayList<Employment> employment) {
-        this.employments = employment;
+        load();
+        synchronized (this) {
+            this.rawEmployments = null;
+            this.employments = employment == null ? null : new ArrayList<Employment>(employment);
+        }
+        changed();
     }
 
     /**
-     * Gets list of employments
+     * Gets list of employments. Edits replace the list instead of changing it,
+     * so a caller that wants to change it should copy it and pass the copy to
+     * editEmployment
      * @return employments
      */
     public ArrayList<Employment> getEmployments() {
+        loadEmployments();
         return this.employments;
     }
 
@@ -61,7 +153,12 @@ public class Student extends User {
      * @param technicalSkills
      */
     public void changeTechnicalSkills(ArrayList<String> technicalSkills) {
-        this.technicalSkills = technicalSkills;
+        load();
+        synchronized (this) {
+            this.rawTechnicalSkills = null;
+            this.technicalSkills = technicalSkills == null ? null : new ArrayList<String>(technicalSkills);
+        }
+        changed();
     }
 
     /**
@@ -69,7 +166,13 @@ public class Student extends User {
      * @param skill
      */
     public void addTechincalSkill(String skill) {
-        this.technicalSkills.add(skill);
+        loadTechnicalSkills();
+        synchronized (this) {
+            ArrayList<String> changed = copy(this.technicalSkills);
+            changed.add(skill);
+            this.technicalSkills = changed;
+        }
+        changed();
     }
 
     /**
@@ -77,7 +180,13 @@ public class Student extends User {
      * @param skill
      */
     public void removeTechincalSkill(String skill) {
-        this.technicalSkills.remove(skill);
+        loadTechnicalSkills();
+        synchronized (this) {
+            ArrayList<String> changed = copy(this.technicalSkills);
+            changed.remove(skill);
+            this.technicalSkills = changed;
+        }
+        changed();
     }
 
     /**
@@ -85,7 +194,13 @@ public class Student extends User {
      * @param education
      */
     public void addEducation(Education education) {
-        this.educations.add(education);
+        loadEducations();
+        synchronized (this) {
+            ArrayList<Education> changed = copy(this.educations);
+            changed.add(education);
+            this.educations = changed;
+        }
+        changed();
     }
 
     /**
@@ -93,14 +208,23 @@ public class Student extends User {
      * @param education
      */
     public void removeEducation(Education education) {
-        this.educations.remove(education);
+        loadEducations();
+        synchronized (this) {
+            ArrayList<Education> changed = copy(this.educations);
+            changed.remove(education);
+            this.educations = changed;
+        }
+        changed();
     }
 
     /**
-     * Gets the list of educations
+     * Gets the list of educations. Edits replace the list instead of changing
+     * it, so a caller that wants to change it should use addEducation and
+     * removeEducation
      * @return
      */
     public ArrayList<Education> getEducations() {
+        loadEducations();
         return this.educations;
     }
 
@@ -109,6 +233,7 @@ public class Student extends User {
      * @return major
      */
     public Major getMajor() {
+        load();
         return this.major;
     }
 
@@ -117,6 +242,7 @@ public class Student extends User {
      * @return if the student has created a resume
      */
     public boolean hasCreatedResume() {
+        load();
         return this.createdResume;
     }
 
@@ -133,6 +259,7 @@ public class Student extends User {
      * @return average rating
      */
     public double getAverageReview() {
+        load();
         return averageRating;
     }
 
@@ -161,7 +288,9 @@ public class Student extends User {
      * Sets the major of a student to another major
      */
     public void setMajor(Major major) {
+        load();
         this.major = major;
+        changed();
     }
 
     /**
@@ -169,7 +298,9 @@ public class Student extends User {
      * @param createdResume
      */
     public void setCreated(Boolean createdResume) {
+        load();
         this.createdResume = createdResume;
+        changed();
     }
 
     /**
@@ -184,14 +315,71 @@ public class Student extends User {
      */
     public void setRemoved(boolean removed) {
         this.removed = removed;
+        changed();
     }
     /**
-     * Returns a list of technical skills
+     * Returns a list of technical skills. Edits replace the list instead of
+     * changing it, so a caller that wants to change it should copy it and pass
+     * the copy to changeTechnicalSkills
      * @return technicalSkills
      */
     public ArrayList<String> getTechnicalSkills() {
+        loadTechnicalSkills();
         return technicalSkills;
     }
+    /**
+     * Gets the employments as the JSON they were read from, if they have not
+     * been used since
+     * @return JSON text of the employments, or null once they are decoded
+     */
+    public String getRawEmployments() {
+        load();
+        RawJson<ArrayList<Employment>> raw = rawEmployments;
+        return raw == null ? null : raw.getJson();
+    }
+    /**
+     * Gets the educations as the JSON they were read from, if they have not
+     * been used since
+     * @return JSON text of the educations, or null once they are decoded
+     */
+    public String getRawEducations() {
+        load();
+        RawJson<ArrayList<Education>> raw = rawEducations;
+        return raw == null ? null : raw.getJson();
+    }
+    /**
+     * Gets the technical skills as the JSON they were read from, if they have
+     * not been used since
+     * @return JSON text of the skills, or null once they are decoded
+     */
+    public String getRawTechnicalSkills() {
+        load();
+        RawJson<ArrayList<String>> raw = rawTechnicalSkills;
+        return raw == null ? null : raw.getJson();
+    }
+    /**
+     * Copies one of the resume lists so an edit can be made to the copy
+     */
+    private static <T> ArrayList<T> copy(ArrayList<T> list) {
+        return list == null ? new ArrayList<T>() : new ArrayList<T>(list);
+    }
+    /**
+     * Gets the whole student as the JSON it was read from, if nothing of it has
+     * been used or changed since, so it can be written back without decoding it
+     * @return JSON text of the student, or null once it is loaded or changed
+     */
+    public String getRawRecord() {
+        Supplier<String> raw = rawRecord;
+        return raw == null || loader == null ? null : raw.get();
+    }
+    /**
+     * Drops the JSON the student was read from, since it no longer matches
+     */
+    @Override
+    protected void changed() {
+        rawRecord = null;
+        super.changed();
+    }
     /**
      * Creates a String version of a student's resume and 
      * @return String of everything in student's resume
@@ -245,6 +433,11 @@ public class Student extends User {
         private ArrayList<String> technicalSkills;
         private double averageRating;
         private boolean removed;
+        private Supplier<Student> loader;
+        private Supplier<String> rawRecord;
+        private RawJson<ArrayList<Employment>> rawEmployments;
+        private RawJson<ArrayList<Education>> rawEducations;
+        private RawJson<ArrayList<String>> rawTechnicalSkills;
         /**
          * Generates a random UUID and sets the Major to its default
          */
@@ -378,13 +571,66 @@ public class Student extends User {
             this.removed = removed;
             return this;
         }
+        /**
+         * Sets what decodes the major, resume and rating when they are first used,
+         * for students read with only their id, names and approval
+         * @param loader
+         * @return loader
+         */
+        public Builder loader(Supplier<Student> loader) {
+            this.loader = loader;
+            return this;
+        }
+        /**
+         * Sets where to get the JSON the student was read from, which is written
+         * back as is while the student is not loaded or changed
+         * @param rawRecord
+         * @return rawRecord
+         */
+        public Builder rawRecord(Supplier<String> rawRecord) {
+            this.rawRecord = rawRecord;
+            return this;
+        }
+        /**
+         * Sets the employments to JSON that is decoded when they are first used
+         * @param rawEmployments
+         * @return rawEmployments
+         */
+        public Builder rawEmployments(RawJson<ArrayList<Employment>> rawEmployments) {
+            this.rawEmployments = rawEmployments;
+            return this;
+        }
+        /**
+         * Sets the educations to JSON that is decoded when they are first used
+         * @param rawEducations
+         * @return rawEducations
+         */
+        public Builder rawEducations(RawJson<ArrayList<Education>> rawEducations) {
+            this.rawEducations = rawEducations;
+            return this;
+        }
+        /**
+         * Sets the technical skills to JSON that is decoded when they are first used
+         * @param rawTechnicalSkills
+         * @return rawTechnicalSkills
+         */
+        public Builder rawTechnicalSkills(RawJson<ArrayList<String>> rawTechnicalSkills) {
+            this.rawTechnicalSkills = rawTechnicalSkills;
+            return this;
+        }
         /**
          * Creates a new student based on the inputs
          * @return Student
          */
         public Student build() {
-            return new Student(id, username, password, email, firstName, lastName, approved, major, createdResume,
-                    employments, educations, technicalSkills, averageRating, removed);
+            Student student = new Student(id, username, password, email, firstName, lastName, approved, major,
+                    createdResume, employments, educations, technicalSkills, averageRating, removed);
+            student.loader = loader;
+            student.rawRecord = rawRecord;
+            student.rawEmployments = rawEmployments;
+            student.rawEducations = rawEducations;
+            student.rawTechnicalSkills = rawTechnicalSkills;
+            return student;
         }
 
     }
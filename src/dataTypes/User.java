@@ -3,6 +3,7 @@
  */
 package dataTypes;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 import database.Database;
 
 
@@ -15,6 +16,7 @@ public abstract class User {
     protected String lastName;
     protected boolean approved;
     protected boolean removed;
+    private final AtomicLong version = new AtomicLong(); // moves on with every change, starts at 0 on each load
 
     public User(UUID id,
                 String username, 
@@ -112,6 +114,8 @@ public abstract class User {
      */
     public void setApproved(boolean approved) {
         this.approved = approved;
+        Database.getInstance().updateApproval(this);
+        changed();
     }
     /**
      * Returns if this account is removed
@@ -125,6 +129,46 @@ public abstract class User {
      */
     public void setRemoved(boolean removed) {
         this.removed = removed;
+        changed();
+    }
+
+    /**
+     * Returns the version of this account, which moves on every time it changes.
+     * A session keeps the version it read and passes it to the Database's
+     * compare-and-set updates, which only go through if nothing changed since.
+     * The version is odd while one of those updates is being made
+     * @return version
+     */
+    public long getVersion() {
+        return this.version.get();
+    }
+    /**
+     * Starts an edit, but only if the version is still the one the caller read
+     * and no other edit is being made. The version stays odd until
+     * releaseVersion, so a session that reads it in the middle of the edit gets
+     * a version no compare-and-set update accepts. Of two sessions that read the
+     * same version, only one gets true
+     * @param expectedVersion the version the caller read
+     * @return true if the version was still expectedVersion
+     */
+    public boolean claimVersion(long expectedVersion) {
+        return (expectedVersion & 1) == 0 && this.version.compareAndSet(expectedVersion, expectedVersion + 1);
+    }
+    /**
+     * Ends an edit started by claimVersion and moves the version past every
+     * change made during it
+     * @param expectedVersion the version that was passed to claimVersion
+     */
+    public void releaseVersion(long expectedVersion) {
+        this.version.compareAndSet(expectedVersion + 1, expectedVersion + 2);
+    }
+    /**
+     * Moves the version on and marks this account as changed in the Database.
+     * During a claimed edit the version is left odd, releaseVersion moves it on
+     */
+    protected void changed() {
+        this.version.getAndUpdate(current -> (current & 1) == 0 ? current + 2 : current);
+        Database.getInstance().markDirty(this);
     }
 
     public abstract String toString();
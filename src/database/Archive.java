@@ -0,0 +1,429 @@
+package database;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import dataTypes.DataBlob;
+import dataTypes.JobPosting;
+import dataTypes.Review;
+import dataTypes.User;
+import enums.DataCollection;
+
+/**
+ * Holds the removed records that Database.compact took out of the Database. They
+ * are kept in their own folder with the same six JSON files as the data folder,
+ * and are only read when they are asked for.
+ *
+ * Keys.json lists the usernames, emails and names of the archived users, so a
+ * lookup can tell that a removed user's username is still taken without reading
+ * the rest of the archive. Once the keys are read, lookups do not take the
+ * archive's lock, so failed logins and username checks do not wait on each other.
+ *
+ * Records are written to the archive before they are taken out of the data
+ * files, so a crash in between leaves them in both. The data files win, so a
+ * record that is in both is skipped when the archive is read.
+ */
+public class Archive {
+    private static final String KEYS = "Keys.json";
+    private static final String ID_LABEL = "id";
+    private static final String USERNAME_LABEL = "username";
+    private static final String EMAIL_LABEL = "email";
+    private static final String NAME_LABEL = "name";
+
+    private Path directory;
+    private String[] files; // admins, students, employers, professors, reviews, postings
+    private JsonDataWriter writer;
+
+    private ArrayList<User> users; // null until the archive is read
+    private ArrayList<Review> reviews;
+    private ArrayList<JobPosting> postings;
+    private volatile Keys keys; // null until Keys.json is read
+
+    /**
+     * Constructor
+     *
+     * @param directory the folder the archive is stored in
+     */
+    public Archive(String directory) {
+        this.directory = Paths.get(directory).toAbsolutePath();
+        this.files = new String[] { this.directory.resolve("Administrators.json").toString(),
+                this.directory.resolve("Students.json").toString(),
+                this.directory.resolve("Employers.json").toString(),
+                this.directory.resolve("Professors.json").toString(),
+                this.directory.resolve("Reviews.json").toString(),
+                this.directory.resolve("JobPostings.json").toString() };
+        this.writer = new JsonDataWriter(files[0], files[1], files[2], files[3], files[4], files[5]);
+    }
+
+    /**
+     * Checks if the archived records have been read
+     *
+     * @return true once load has read them
+     */
+    public synchronized boolean isLoaded() {
+        return users != null;
+    }
+
+    /**
+     * Reads the archived records, if they have not been read yet. Archived records
+     * can refer to users that are still in the Database, so those are passed in
+     * to be looked up by id
+     *
+     * @param hotUsers    the users in the Database
+     * @param hotReviews  the reviews in the Database
+     * @param hotPostings the postings in the Database
+     */
+    public synchronized void load(List<User> hotUsers, List<Review> hotReviews,
+            List<JobPosting> hotPostings) {
+        if (users != null)
+            return;
+        AtomicFileSet.recover(AtomicFileSet.markerNextTo(files[1]), files[0], files[1], files[2], files[3],
+                files[4], files[5], directory.resolve(KEYS).toString());
+        users = new ArrayList<User>();
+        reviews = new ArrayList<Review>();
+        postings = new ArrayList<JobPosting>();
+        if (!Files.exists(directory))
+            return;
+
+        HashSet<UUID> hot = new HashSet<UUID>();
+        for (User user : hotUsers)
+            if (user != null)
+                hot.add(user.getId());
+        for (Review review : hotReviews)
+            if (review != null)
+                hot.add(review.getId());
+        for (JobPosting posting : hotPostings)
+            if (posting != null)
+                hot.add(posting.getId());
+
+        DataBlob blob = new ArchiveReader(files, hotUsers).read();
+        for (User user : blob.getUsers())
+            if (!hot.contains(user.getId()))
+                users.add(user);
+        for (Review review : blob.getReviews())
+            if (!hot.contains(review.getId()))
+                reviews.add(review);
+        for (JobPosting posting : blob.getJobPostings())
+            if (!hot.contains(posting.getId()))
+                postings.add(posting);
+    }
+
+    /**
+     * Forgets the archived records that were read, so the next load reads them
+     * again against the Database's new users
+     */
+    public synchronized void unload() {
+        users = null;
+        reviews = null;
+        postings = null;
+        keys = null;
+    }
+
+    /**
+     * Get method for the archived users, which needs load to have been called
+     *
+     * @return a copy of the ArrayList of archived users
+     */
+    public synchronized ArrayList<User> getUsers() {
+        return new ArrayList<User>(users);
+    }
+
+    /**
+     * Get method for one archived user, which needs load to have been called
+     *
+     * @param id the id of the user
+     * @return the user, or null if it is not archived
+     */
+    public synchronized User getUser(UUID id) {
+        if (users == null || id == null)
+            return null;
+        for (User user : users)
+            if (user.getId().equals(id))
+                return user;
+        return null;
+    }
+
+    /**
+     * Get method for the archived reviews, which needs load to have been called
+     *
+     * @return a copy of the ArrayList of archived reviews
+     */
+    public synchronized ArrayList<Review> getReviews() {
+        return new ArrayList<Review>(reviews);
+    }
+
+    /**
+     * Get method for the archived postings, which needs load to have been called
+     *
+     * @return a copy of the ArrayList of archived postings
+     */
+    public synchronized ArrayList<JobPosting> getPostings() {
+        return new ArrayList<JobPosting>(postings);
+    }
+
+    /**
+     * Adds removed records to the archive, replacing any with the same id. This
+     * needs load to have been called, and save writes them
+     *
+     * @param removedUsers    the users to archive
+     * @param removedReviews  the reviews to archive
+     * @param removedPostings the postings to archive
+     */
+    public synchronized void add(ArrayList<User> removedUsers, ArrayList<Review> removedReviews,
+            ArrayList<JobPosting> removedPostings) {
+        HashSet<UUID> ids = new HashSet<UUID>();
+        for (User user : removedUsers)
+            ids.add(user.getId());
+        for (Review review : removedReviews)
+            ids.add(review.getId());
+        for (JobPosting posting : removedPostings)
+            ids.add(posting.getId());
+        users.removeIf(user -> ids.contains(user.getId()));
+        reviews.removeIf(review -> ids.contains(review.getId()));
+        postings.removeIf(posting -> ids.contains(posting.getId()));
+        users.addAll(removedUsers);
+        reviews.addAll(removedReviews);
+        postings.addAll(removedPostings);
+        if (keys != null)
+            for (User user : removedUsers)
+                keys.add(user);
+    }
+
+    /**
+     * Takes a user back out of the archive, so it can go back into the Database.
+     * The archive files keep it until the next save, and the Database's copy wins
+     * until then
+     *
+     * @param id the id of the user
+     * @return the user, or null if it is not archived or load was not called
+     */
+    public synchronized User takeUser(UUID id) {
+        if (users == null)
+            return null;
+        for (int i = 0; i < users.size(); i++) {
+            if (users.get(i).getId().equals(id)) {
+                User user = users.remove(i);
+                // another archived user can share a key that pointed at this one
+                if (keys != null)
+                    keys = readKeys();
+                return user;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Looks up an archived user by username, ignoring case. Only Keys.json is read
+     *
+     * @param username the username in question
+     * @return the id of the archived user, or null
+     */
+    public UUID findByUsername(String username) {
+        return loadKeys().usernames.get(username.toLowerCase());
+    }
+
+    /**
+     * Looks up an archived user by email, ignoring case. Only Keys.json is read
+     *
+     * @param email the email in question
+     * @return the id of the archived user, or null
+     */
+    public UUID findByEmail(String email) {
+        return loadKeys().emails.get(email.toLowerCase());
+    }
+
+    /**
+     * Looks up an archived user by full name, ignoring case. Only Keys.json is read
+     *
+     * @param name the name in question
+     * @return the id of the archived user, or null
+     */
+    public UUID findByName(String name) {
+        return loadKeys().names.get(name.toLowerCase());
+    }
+
+    /**
+     * Writes every archived record and the keys, all replaced at once
+     */
+    public synchronized void save() {
+        AtomicFileSet group = new AtomicFileSet(AtomicFileSet.markerNextTo(files[1]));
+        boolean committed = false;
+        try {
+            Files.createDirectories(directory);
+            writer.stage(users, reviews, postings, EnumSet.allOf(DataCollection.class), group);
+            writeKeys(group.stage(directory.resolve(KEYS).toString()));
+            group.commit();
+            committed = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (!committed)
+                group.abort();
+        }
+    }
+
+    /**
+     * Gets the lookup keys, reading Keys.json if it has not been read yet. Only
+     * the first read takes the archive's lock
+     *
+     * @return the keys of the archived users
+     */
+    private Keys loadKeys() {
+        Keys keys = this.keys;
+        if (keys != null)
+            return keys;
+        synchronized (this) {
+            if (this.keys == null)
+                this.keys = readKeys();
+            return this.keys;
+        }
+    }
+
+    /**
+     * Reads the lookup keys from the archived users if they were read, or from
+     * Keys.json if they were not
+     *
+     * @return the keys of the archived users
+     */
+    private Keys readKeys() {
+        Keys keys = new Keys();
+        if (users != null) {
+            for (User user : users)
+                keys.add(user);
+            return keys;
+        }
+        Path file = directory.resolve(KEYS);
+        if (!Files.exists(file))
+            return keys;
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+                JsonReader reader = new JsonReader(in)) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                UUID id = null;
+                String username = null;
+                String email = null;
+                String name = null;
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    switch (reader.nextName()) {
+                    case ID_LABEL:
+                        id = UUID.fromString(reader.nextString());
+                        break;
+                    case USERNAME_LABEL:
+                        username = reader.nextString();
+                        break;
+                    case EMAIL_LABEL:
+                        email = reader.nextString();
+                        break;
+                    case NAME_LABEL:
+                        name = reader.nextString();
+                        break;
+                    default:
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+                if (id == null)
+                    continue;
+                if (username != null)
+                    keys.usernames.putIfAbsent(username, id);
+                if (email != null)
+                    keys.emails.putIfAbsent(email, id);
+                if (name != null)
+                    keys.names.putIfAbsent(name, id);
+            }
+            reader.endArray();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return keys;
+    }
+
+    /**
+     * The usernames, emails and names of the archived users. The maps can be read
+     * without the archive's lock, and are only changed while it is held
+     */
+    private static final class Keys {
+        final ConcurrentHashMap<String, UUID> usernames = new ConcurrentHashMap<String, UUID>(); // lowercased
+        final ConcurrentHashMap<String, UUID> emails = new ConcurrentHashMap<String, UUID>(); // lowercased
+        final ConcurrentHashMap<String, UUID> names = new ConcurrentHashMap<String, UUID>(); // lowercased full name
+
+        /**
+         * Adds an archived user's lookup keys
+         *
+         * @param user the archived user
+         */
+        void add(User user) {
+            if (user.getUsername() != null)
+                usernames.putIfAbsent(user.getUsername().toLowerCase(), user.getId());
+            if (user.getEmail() != null)
+                emails.putIfAbsent(user.getEmail().toLowerCase(), user.getId());
+            names.putIfAbsent(user.getFullName().toLowerCase(), user.getId());
+        }
+    }
+
+    /**
+     * Writes the lookup keys of every archived user and syncs the file
+     *
+     * @param file the file to write
+     */
+    private void writeKeys(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+                JsonWriter out = new JsonWriter(Channels.newWriter(channel, StandardCharsets.UTF_8))) {
+            out.setIndent("  ");
+            out.beginArray();
+            for (User user : users) {
+                out.beginObject();
+                out.name(ID_LABEL).value(user.getId().toString());
+                if (user.getUsername() != null)
+                    out.name(USERNAME_LABEL).value(user.getUsername().toLowerCase());
+                if (user.getEmail() != null)
+                    out.name(EMAIL_LABEL).value(user.getEmail().toLowerCase());
+                out.name(NAME_LABEL).value(user.getFullName().toLowerCase());
+                out.endObject();
+            }
+            out.endArray();
+            out.flush();
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Reads the archive files, looking up the users in the Database as well as
+     * the archived ones
+     */
+    private static class ArchiveReader extends JsonStreamDataReader {
+        private List<User> hotUsers;
+
+        private ArchiveReader(String[] files, List<User> hotUsers) {
+            super(files[0], files[1], files[2], files[3], files[4], files[5]);
+            this.hotUsers = hotUsers;
+        }
+
+        @Override
+        protected DataBlob createDataBlob() {
+            DataBlob blob = new DataBlob();
+            for (User user : hotUsers)
+                blob.addReference(user);
+            return blob;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package database;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import utilities.Logger;
+
+/**
+ * Replaces a group of files all at once. New contents are written to temporary
+ * files next to the real ones, then a commit marker listing them is renamed into
+ * place, then each temporary file is renamed over its real file.
+ *
+ * A crash before the marker exists leaves every real file untouched, and a
+ * crash after it leaves a marker that recover uses to finish the renames, so a
+ * save is either fully applied or not applied at all.
+ */
+public class AtomicFileSet {
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String MARKER_NAME = "Save.commit";
+
+    private Path marker;
+    private LinkedHashMap<Path, Path> staged; // real file -> temporary file
+
+    /**
+     * Constructor
+     *
+     * @param marker where the commit marker is written
+     */
+    public AtomicFileSet(Path marker) {
+        this.marker = marker;
+        this.staged = new LinkedHashMap<Path, Path>();
+    }
+
+    /**
+     * Gets the commit marker used for the data files in the same folder as a file
+     *
+     * @param file one of the data files
+     * @return the commit marker next to it
+     */
+    public static Path markerNextTo(String file) {
+        return Paths.get(file).toAbsolutePath().resolveSibling(MARKER_NAME);
+    }
+
+    /**
+     * Gets the temporary file to write the new contents of a file to. Staging the
+     * same file twice gives the same temporary file, so the last write wins
+     *
+     * @param file the file that will be replaced
+     * @return the temporary file to write
+     */
+    public Path stage(String file) {
+        Path target = Paths.get(file).toAbsolutePath();
+        return staged.computeIfAbsent(target, path -> path.resolveSibling(path.getFileName() + TEMP_SUFFIX));
+    }
+
+    /**
+     * Replaces every staged file with its temporary file. The temporary files
+     * must already be written and synced
+     */
+    public void commit() throws IOException {
+        if (staged.isEmpty())
+            return;
+
+        ArrayList<String> lines = new ArrayList<String>();
+        for (Map.Entry<Path, Path> entry : staged.entrySet())
+            lines.add(entry.getValue() + "\t" + entry.getKey());
+        Path markerTemp = marker.resolveSibling(marker.getFileName() + TEMP_SUFFIX);
+        Files.write(markerTemp, lines, StandardCharsets.UTF_8);
+        sync(markerTemp);
+        Files.move(markerTemp, marker, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory(marker.getParent());
+
+        HashSet<Path> directories = new HashSet<Path>();
+        for (Map.Entry<Path, Path> entry : staged.entrySet()) {
+            Files.move(entry.getValue(), entry.getKey(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            directories.add(entry.getKey().getParent());
+        }
+        for (Path directory : directories)
+            syncDirectory(directory);
+
+        Files.delete(marker);
+        syncDirectory(marker.getParent());
+        staged.clear();
+    }
+
+    /**
+     * Deletes the temporary files of a save that will not be committed
+     */
+    public void abort() {
+        for (Path temp : staged.values()) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        staged.clear();
+    }
+
+    /**
+     * Finishes or cleans up a save that was interrupted. If the commit marker is
+     * there the save was committed, so the renames it lists are finished.
+     * Otherwise the temporary files of the files are deleted
+     *
+     * @param marker the commit marker
+     * @param files  the files the save could have replaced
+     */
+    public static void recover(Path marker, String... files) {
+        try {
+            Files.deleteIfExists(marker.resolveSibling(marker.getFileName() + TEMP_SUFFIX));
+            if (Files.exists(marker)) {
+                List<String> lines = Files.readAllLines(marker, StandardCharsets.UTF_8);
+                for (String line : lines) {
+                    String[] paths = line.split("\t");
+                    Path temp = Paths.get(paths[0]);
+                    if (paths.length == 2 && Files.exists(temp))
+                        Files.move(temp, Paths.get(paths[1]), StandardCopyOption.REPLACE_EXISTING,
+                                StandardCopyOption.ATOMIC_MOVE);
+                }
+                Files.delete(marker);
+                Logger.getInstance().log("Finished an interrupted save of " + lines.size() + " files");
+            }
+            for (String file : files) {
+                Path target = Paths.get(file).toAbsolutePath();
+                Files.deleteIfExists(target.resolveSibling(target.getFileName() + TEMP_SUFFIX));
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Forces a file's contents to disk
+     *
+     * @param file the file to sync
+     */
+    private static void sync(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Forces a folder's entries to disk so renames in it survive a crash. Some
+     * systems can not open folders, there the rename is as durable as it gets
+     *
+     * @param directory the folder to sync
+     */
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // not supported on this system
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package database;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import utilities.Logger;
+
+/**
+ * Saves the Database on a background thread every few seconds. Each save
+ * writes a snapshot of the lists, so the session keeps going while the files
+ * are written
+ */
+public class Autosaver {
+    private Database database;
+    private long periodMillis;
+    private ScheduledExecutorService executor;
+
+    private volatile long lastSaveMillis; // how long the last autosave took
+    private volatile long lastWindowMillis; // age of the oldest change the last autosave covered
+    private volatile long maxWindowMillis; // largest window any autosave covered
+    private AtomicLong saves;
+
+    /**
+     * Constructor
+     *
+     * @param database     the database to save
+     * @param periodMillis how long to wait between saves
+     */
+    public Autosaver(Database database, long periodMillis) {
+        this.database = database;
+        this.periodMillis = periodMillis;
+        this.saves = new AtomicLong();
+    }
+
+    /**
+     * Starts saving in the background
+     */
+    public synchronized void start() {
+        if (executor != null)
+            return;
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "autosave");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::autosave, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops saving in the background, waiting for a save that is being written
+     */
+    public synchronized void stop() {
+        if (executor == null)
+            return;
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor = null;
+    }
+
+    /**
+     * Saves the database now if anything changed and records how long it took
+     */
+    public void autosave() {
+        try {
+            long start = System.nanoTime();
+            Database.Snapshot snapshot = database.save();
+            if (snapshot == null)
+                return;
+            lastSaveMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            lastWindowMillis = System.currentTimeMillis() - snapshot.dirtySince;
+            maxWindowMillis = Math.max(maxWindowMillis, lastWindowMillis);
+            saves.incrementAndGet();
+            Logger.getInstance().log("Autosaved " + snapshot.changed + " in " + lastSaveMillis + "ms, covering "
+                    + lastWindowMillis + "ms of changes");
+        } catch (RuntimeException e) {
+            // keep the schedule going, the changes stay marked and are tried again
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * @return how long the last autosave took in milliseconds
+     */
+    public long getLastSaveMillis() {
+        return lastSaveMillis;
+    }
+
+    /**
+     * @return the age in milliseconds of the oldest change the last autosave
+     *         covered
+     */
+    public long getLastWindowMillis() {
+        return lastWindowMillis;
+    }
+
+    /**
+     * @return the largest window in milliseconds any autosave covered
+     */
+    public long getMaxWindowMillis() {
+        return maxWindowMillis;
+    }
+
+    /**
+     * @return how much work in milliseconds would be lost from the data files if
+     *         the program stopped now
+     */
+    public long getLostWorkWindowMillis() {
+        return database.getUnsavedMillis();
+    }
+
+    /**
+     * @return the number of autosaves that wrote something
+     */
+    public long getSaveCount() {
+        return saves.get();
+    }
+}
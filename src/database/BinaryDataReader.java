@@ -0,0 +1,243 @@
+package database;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.UUID;
+
+import dataTypes.Admin;
+import dataTypes.DataBlob;
+import dataTypes.Education;
+import dataTypes.Employer;
+import dataTypes.Employment;
+import dataTypes.JobPosting;
+import dataTypes.Professor;
+import dataTypes.Review;
+import dataTypes.Student;
+import dataTypes.User;
+import enums.JobPostingStatus;
+import enums.Major;
+import utilities.Logger;
+
+/**
+ * BinaryDataReader class subclass of DataReader reads all of the data from a
+ * binary snapshot file written by BinaryDataWriter
+ */
+public class BinaryDataReader extends DataReader {
+    private String filePath;
+
+    /**
+     * Constructor
+     *
+     * @param filePath where the snapshot is stored
+     */
+    public BinaryDataReader(String filePath) {
+        this.filePath = filePath;
+    }
+
+    /**
+     * Reads the snapshot into a DataBlob. A missing or unreadable snapshot gives
+     * an empty DataBlob, the same as missing JSON files do
+     *
+     * @return DataBlob what is read from the file
+     */
+    public DataBlob read() {
+        Logger.getInstance().log("Reading from " + filePath);
+        long start = System.nanoTime();
+        AtomicFileSet.recover(AtomicFileSet.markerNextTo(filePath), filePath);
+        DataBlob blob = new DataBlob();
+        if (!Files.exists(Paths.get(filePath)))
+            return blob;
+        try {
+            ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(Paths.get(filePath)));
+            if (in.getInt() != BinaryFormat.MAGIC)
+                throw new IOException(filePath + " is not a snapshot");
+            int version = in.getInt();
+            if (version != BinaryFormat.VERSION)
+                throw new IOException("Unsupported snapshot version " + version);
+
+            in.getInt(); // the sections are read in order, so their lengths are not needed
+            String[] strings = readStrings(in);
+            in.getInt();
+            User[] users = readUsers(in, strings);
+            for (User user : users)
+                blob.addUser(user);
+            in.getInt();
+            readReviews(in, strings, users, blob);
+            in.getInt();
+            readPostings(in, strings, users, blob);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        Logger.getInstance().log("Read " + filePath + " in " + (System.nanoTime() - start) / 1000000 + " ms");
+        return blob;
+    }
+
+    /**
+     * Reads the string table
+     *
+     * @param in the snapshot
+     * @return every distinct string, by index
+     */
+    private static String[] readStrings(ByteBuffer in) {
+        String[] strings = new String[in.getInt()];
+        byte[] array = in.array();
+        for (int i = 0; i < strings.length; i++) {
+            int length = in.getInt();
+            strings[i] = new String(array, in.position(), length, StandardCharsets.UTF_8);
+            in.position(in.position() + length);
+        }
+        return strings;
+    }
+
+    private static String string(ByteBuffer in, String[] strings) {
+        int index = in.getInt();
+        return index == BinaryFormat.NULL ? null : strings[index];
+    }
+
+    private static ArrayList<String> stringList(ByteBuffer in, String[] strings) {
+        int size = in.getInt();
+        if (size == BinaryFormat.NULL)
+            return null;
+        ArrayList<String> list = new ArrayList<String>(size);
+        for (int i = 0; i < size; i++)
+            list.add(string(in, strings));
+        return list;
+    }
+
+    private static UUID id(ByteBuffer in) {
+        return new UUID(in.getLong(), in.getLong());
+    }
+
+    private static User user(ByteBuffer in, User[] users) {
+        int index = in.getInt();
+        return index == BinaryFormat.NULL ? null : users[index];
+    }
+
+    /**
+     * Reads the users section
+     *
+     * @param in      the snapshot
+     * @param strings the string table
+     * @return the users, by index
+     */
+    private static User[] readUsers(ByteBuffer in, String[] strings) throws IOException {
+        User[] users = new User[in.getInt()];
+        for (int i = 0; i < users.length; i++) {
+            byte type = in.get();
+            UUID id = id(in);
+            String username = string(in, strings);
+            String password = string(in, strings);
+            String email = string(in, strings);
+            String firstName = string(in, strings);
+            String lastName = string(in, strings);
+            boolean approved = in.get() != 0;
+            boolean removed = in.get() != 0;
+
+            switch (type) {
+            case BinaryFormat.STUDENT:
+                String major = string(in, strings);
+                boolean createdResume = in.get() != 0;
+                double averageRating = in.getDouble();
+                ArrayList<String> skills = stringList(in, strings);
+                ArrayList<Employment> employments = null;
+                int employmentCount = in.getInt();
+                if (employmentCount != BinaryFormat.NULL) {
+                    employments = new ArrayList<Employment>(employmentCount);
+                    for (int j = 0; j < employmentCount; j++) {
+                        employments.add(new Employment.Builder().company(string(in, strings))
+                                .title(string(in, strings)).dates(string(in, strings))
+                                .details(stringList(in, strings)).build());
+                    }
+                }
+                ArrayList<Education> educations = null;
+                int educationCount = in.getInt();
+                if (educationCount != BinaryFormat.NULL) {
+                    educations = new ArrayList<Education>(educationCount);
+                    for (int j = 0; j < educationCount; j++) {
+                        educations.add(new Education.Builder().place(string(in, strings)).gpa(in.getDouble())
+                                .gradDate(string(in, strings)).build());
+                    }
+                }
+                users[i] = new Student.Builder().id(id).username(username).password(password).email(email)
+                        .firstName(firstName).lastName(lastName).approved(approved)
+                        .major(major == null ? null : Major.valueOf(major)).createdResume(createdResume)
+                        .employments(employments).educations(educations).technicalSkills(skills)
+                        .averageRating(averageRating).removed(removed).build();
+                break;
+            case BinaryFormat.EMPLOYER:
+                users[i] = new Employer.Builder().id(id).username(username).password(password).email(email)
+                        .firstName(firstName).lastName(lastName).approved(approved).company(string(in, strings))
+                        .averageRating(in.getDouble()).removed(removed).build();
+                break;
+            case BinaryFormat.PROFESSOR:
+                users[i] = new Professor.Builder().id(id).username(username).password(password).email(email)
+                        .firstName(firstName).lastName(lastName).approved(approved).removed(removed).build();
+                break;
+            case BinaryFormat.ADMIN:
+                users[i] = new Admin.Builder().id(id).username(username).password(password).email(email)
+                        .firstName(firstName).lastName(lastName).approved(approved).build();
+                break;
+            default:
+                throw new IOException("Unknown user type " + type);
+            }
+        }
+        return users;
+    }
+
+    /**
+     * Reads the reviews section into the blob
+     *
+     * @param in      the snapshot
+     * @param strings the string table
+     * @param users   the users, by index
+     * @param blob    where the reviews go
+     */
+    private static void readReviews(ByteBuffer in, String[] strings, User[] users, DataBlob blob) {
+        int count = in.getInt();
+        for (int i = 0; i < count; i++) {
+            blob.addReview(new Review.Builder().id(id(in)).reviewer(user(in, users)).reviewee(user(in, users))
+                    .rating(in.getInt()).comment(string(in, strings)).removed(in.get() != 0).build());
+        }
+    }
+
+    /**
+     * Reads the job postings section into the blob
+     *
+     * @param in      the snapshot
+     * @param strings the string table
+     * @param users   the users, by index
+     * @param blob    where the postings go
+     */
+    private static void readPostings(ByteBuffer in, String[] strings, User[] users, DataBlob blob) {
+        int count = in.getInt();
+        for (int i = 0; i < count; i++) {
+            UUID id = id(in);
+            User employer = user(in, users);
+            String jobTitle = string(in, strings);
+            String description = string(in, strings);
+            ArrayList<String> requirements = stringList(in, strings);
+            double hourlyWage = in.getDouble();
+            String status = string(in, strings);
+            ArrayList<Student> applicants = null;
+            int applicantCount = in.getInt();
+            if (applicantCount != BinaryFormat.NULL) {
+                applicants = new ArrayList<Student>(applicantCount);
+                for (int j = 0; j < applicantCount; j++) {
+                    User applicant = user(in, users);
+                    if (applicant instanceof Student)
+                        applicants.add((Student) applicant);
+                }
+            }
+            boolean removed = in.get() != 0;
+            blob.addJobPosting(new JobPosting.Builder().id(id)
+                    .employer(employer instanceof Employer ? (Employer) employer : null).jobTitle(jobTitle)
+                    .description(description).requirements(requirements).hourlyWage(hourlyWage)
+                    .status(status == null ? null : JobPostingStatus.valueOf(status)).applicants(applicants)
+                    .removed(removed).build());
+        }
+    }
+}
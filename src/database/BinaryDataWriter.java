@@ -0,0 +1,306 @@
+package database;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.UUID;
+
+import dataTypes.Admin;
+import dataTypes.DataBlob;
+import dataTypes.Education;
+import dataTypes.Employer;
+import dataTypes.Employment;
+import dataTypes.JobPosting;
+import dataTypes.Professor;
+import dataTypes.Review;
+import dataTypes.Student;
+import dataTypes.User;
+
+/**
+ * BinaryDataWriter class subclass of DataWriter writes all of the data to one
+ * binary snapshot file, laid out as described in BinaryFormat
+ */
+public class BinaryDataWriter extends DataWriter {
+    private String filePath;
+
+    /**
+     * Constructor
+     *
+     * @param filePath where the snapshot is stored
+     */
+    public BinaryDataWriter(String filePath) {
+        this.filePath = filePath;
+    }
+
+    /**
+     * Writes the data to the snapshot file
+     *
+     * @param data the data to write
+     */
+    public void write(DataBlob data) {
+        write(data.getUsers(), data.getReviews(), data.getJobPostings());
+    }
+
+    /**
+     * Writes the data to the snapshot file. The file is replaced in one rename so
+     * a crash leaves the old snapshot
+     *
+     * @param users    the users to write
+     * @param reviews  the reviews to write
+     * @param postings the postings to write
+     */
+    public void write(ArrayList<User> users, ArrayList<Review> reviews, ArrayList<JobPosting> postings) {
+        AtomicFileSet files = new AtomicFileSet(AtomicFileSet.markerNextTo(filePath));
+        boolean committed = false;
+        try {
+            ByteBuffer snapshot = ByteBuffer.wrap(encode(users, reviews, postings));
+            try (FileChannel channel = FileChannel.open(files.stage(filePath), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (snapshot.hasRemaining())
+                    channel.write(snapshot);
+                channel.force(true);
+            }
+            files.commit();
+            committed = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (!committed)
+                files.abort();
+        }
+    }
+
+    /**
+     * Replaces the users in the snapshot, keeping its reviews and postings
+     *
+     * @param users the users to write
+     */
+    public void writeUsers(ArrayList<User> users) {
+        DataBlob current = readCurrent();
+        write(users, current.getReviews(), current.getJobPostings());
+    }
+
+    /**
+     * Replaces the postings in the snapshot, keeping its users and reviews
+     *
+     * @param postings the postings to write
+     */
+    public void writeJobPostings(ArrayList<JobPosting> postings) {
+        DataBlob current = readCurrent();
+        write(current.getUsers(), current.getReviews(), postings);
+    }
+
+    /**
+     * Replaces the reviews in the snapshot, keeping its users and postings
+     *
+     * @param reviews the reviews to write
+     */
+    public void writeReviews(ArrayList<Review> reviews) {
+        DataBlob current = readCurrent();
+        write(current.getUsers(), reviews, current.getJobPostings());
+    }
+
+    /**
+     * Reads what the snapshot holds now, or nothing if there is no snapshot yet
+     *
+     * @return the current contents
+     */
+    private DataBlob readCurrent() {
+        if (!Files.exists(Paths.get(filePath)))
+            return new DataBlob();
+        return new BinaryDataReader(filePath).read();
+    }
+
+    /**
+     * Encodes the data as a snapshot
+     *
+     * @param users    the users to encode
+     * @param reviews  the reviews to encode
+     * @param postings the postings to encode
+     * @return the bytes of the snapshot
+     */
+    static byte[] encode(ArrayList<User> users, ArrayList<Review> reviews, ArrayList<JobPosting> postings)
+            throws IOException {
+        Encoder encoder = new Encoder(users);
+        byte[] userSection = encoder.users(users);
+        byte[] reviewSection = encoder.reviews(reviews);
+        byte[] postingSection = encoder.postings(postings);
+        byte[] stringSection = encoder.strings();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(
+                24 + stringSection.length + userSection.length + reviewSection.length + postingSection.length);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(BinaryFormat.MAGIC);
+        out.writeInt(BinaryFormat.VERSION);
+        for (byte[] section : new byte[][] { stringSection, userSection, reviewSection, postingSection }) {
+            out.writeInt(section.length);
+            out.write(section);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Builds the string table and the user indexes while the sections are encoded
+     */
+    private static class Encoder {
+        private HashMap<String, Integer> stringIndex;
+        private ArrayList<String> strings;
+        private HashMap<UUID, Integer> userIndex;
+
+        private Encoder(ArrayList<User> users) {
+            stringIndex = new HashMap<String, Integer>();
+            strings = new ArrayList<String>();
+            userIndex = new HashMap<UUID, Integer>();
+            for (int i = 0; i < users.size(); i++)
+                userIndex.putIfAbsent(users.get(i).getId(), i);
+        }
+
+        private void string(DataOutputStream out, String string) throws IOException {
+            if (string == null) {
+                out.writeInt(BinaryFormat.NULL);
+                return;
+            }
+            Integer index = stringIndex.get(string);
+            if (index == null) {
+                index = strings.size();
+                stringIndex.put(string, index);
+                strings.add(string);
+            }
+            out.writeInt(index);
+        }
+
+        private void strings(DataOutputStream out, ArrayList<String> list) throws IOException {
+            out.writeInt(list == null ? BinaryFormat.NULL : list.size());
+            if (list != null)
+                for (String string : list)
+                    string(out, string);
+        }
+
+        private void user(DataOutputStream out, User user) throws IOException {
+            Integer index = user == null ? null : userIndex.get(user.getId());
+            out.writeInt(index == null ? BinaryFormat.NULL : index);
+        }
+
+        private static void id(DataOutputStream out, UUID id) throws IOException {
+            out.writeLong(id.getMostSignificantBits());
+            out.writeLong(id.getLeastSignificantBits());
+        }
+
+        private byte[] strings() throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(strings.size());
+            for (String string : strings) {
+                byte[] utf8 = string.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(utf8.length);
+                out.write(utf8);
+            }
+            return bytes.toByteArray();
+        }
+
+        private byte[] users(ArrayList<User> users) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(users.size());
+            for (User user : users) {
+                if (user instanceof Student)
+                    out.writeByte(BinaryFormat.STUDENT);
+                else if (user instanceof Employer)
+                    out.writeByte(BinaryFormat.EMPLOYER);
+                else if (user instanceof Professor)
+                    out.writeByte(BinaryFormat.PROFESSOR);
+                else if (user instanceof Admin)
+                    out.writeByte(BinaryFormat.ADMIN);
+                else
+                    throw new IllegalArgumentException("User type not supported");
+
+                id(out, user.getId());
+                string(out, user.getUsername());
+                string(out, user.getPassword());
+                string(out, user.getEmail());
+                string(out, user.getFirstName());
+                string(out, user.getLastName());
+                out.writeBoolean(user.isApproved());
+                out.writeBoolean(user.isRemoved());
+
+                if (user instanceof Student) {
+                    Student student = (Student) user;
+                    string(out, student.getMajor() == null ? null : student.getMajor().name());
+                    out.writeBoolean(student.hasCreatedResume());
+                    out.writeDouble(student.getAverageReview());
+                    strings(out, student.getTechnicalSkills());
+                    ArrayList<Employment> employments = student.getEmployments();
+                    out.writeInt(employments == null ? BinaryFormat.NULL : employments.size());
+                    if (employments != null) {
+                        for (Employment employment : employments) {
+                            string(out, employment.getCompany());
+                            string(out, employment.getTitle());
+                            string(out, employment.getDates());
+                            strings(out, employment.getDetails());
+                        }
+                    }
+                    ArrayList<Education> educations = student.getEducations();
+                    out.writeInt(educations == null ? BinaryFormat.NULL : educations.size());
+                    if (educations != null) {
+                        for (Education education : educations) {
+                            string(out, education.getPlace());
+                            out.writeDouble(education.getGpa());
+                            string(out, education.getGradDate());
+                        }
+                    }
+                } else if (user instanceof Employer) {
+                    Employer employer = (Employer) user;
+                    string(out, employer.getCompany());
+                    out.writeDouble(employer.getAverageRating());
+                }
+            }
+            return bytes.toByteArray();
+        }
+
+        private byte[] reviews(ArrayList<Review> reviews) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(reviews.size());
+            for (Review review : reviews) {
+                id(out, review.getId());
+                user(out, review.getReviewer());
+                user(out, review.getReviewee());
+                out.writeInt(review.getRating());
+                string(out, review.getComment());
+                out.writeBoolean(review.isRemoved());
+            }
+            return bytes.toByteArray();
+        }
+
+        private byte[] postings(ArrayList<JobPosting> postings) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(postings.size());
+            for (JobPosting posting : postings) {
+                id(out, posting.getId());
+                user(out, posting.getEmployer());
+                string(out, posting.getJobTitle());
+                string(out, posting.getDescription());
+                strings(out, posting.getRequirements());
+                out.writeDouble(posting.getWage());
+                string(out, posting.getStatus() == null ? null : posting.getStatus().name());
+                ArrayList<Student> applicants = posting.getApplicants();
+                out.writeInt(applicants == null ? BinaryFormat.NULL : applicants.size());
+                if (applicants != null)
+                    for (Student applicant : applicants)
+                        user(out, applicant);
+                out.writeBoolean(posting.isRemoved());
+            }
+            return bytes.toByteArray();
+        }
+    }
+}
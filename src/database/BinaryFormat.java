@@ -0,0 +1,27 @@
+package database;
+
+/**
+ * Layout of the binary snapshot written by BinaryDataWriter and read by
+ * BinaryDataReader.
+ *
+ * The file starts with MAGIC and VERSION, followed by four sections, each
+ * prefixed with its length in bytes: the string table, the users, the reviews
+ * and the job postings. Every string is stored once in the table and referred
+ * to by its index, with -1 for null. UUIDs are stored as two longs, and users
+ * are referred to by their index in the users section, so every reference to a
+ * user reads back as the same object.
+ */
+final class BinaryFormat {
+    static final int MAGIC = 0x4E4A5342; // "NJSB"
+    static final int VERSION = 1;
+
+    static final byte STUDENT = 0;
+    static final byte EMPLOYER = 1;
+    static final byte PROFESSOR = 2;
+    static final byte ADMIN = 3;
+
+    static final int NULL = -1;
+
+    private BinaryFormat() {
+    }
+}
@@ -1,11 +1,14 @@
 package database;
 
 import java.util.ArrayList;
+import java.util.Set;
+import java.util.UUID;
 
 import dataTypes.DataBlob;
 import dataTypes.JobPosting;
 import dataTypes.Review;
 import dataTypes.User;
+import enums.DataCollection;
 
 /**
  * Abstract class for DataWriter
@@ -34,6 +37,36 @@ public abstract class DataWriter {
      */
     public abstract void write(ArrayList<User> users, ArrayList<Review> reviews, ArrayList<JobPosting> postings);
 
+    /**
+     * method that will update the files of the changed collections. Writers that
+     * can not save collections separately write everything
+     * 
+     * @param users    the ArrayList of users to write
+     * @param reviews  the ArrayList of reviews to write
+     * @param postings the ArrayList of postings to write
+     * @param changed  the collections that need to be written
+     */
+    public void write(ArrayList<User> users, ArrayList<Review> reviews, ArrayList<JobPosting> postings,
+            Set<DataCollection> changed) {
+        write(users, reviews, postings);
+    }
+
+    /**
+     * method that will update the changed records of the changed collections.
+     * Writers that can not save single records write the changed collections
+     * 
+     * @param users          the ArrayList of users to write
+     * @param reviews        the ArrayList of reviews to write
+     * @param postings       the ArrayList of postings to write
+     * @param changed        the collections that need to be written
+     * @param changedRecords the ids of the records that changed, or null if they
+     *                       are not known
+     */
+    public void write(ArrayList<User> users, ArrayList<Review> reviews, ArrayList<JobPosting> postings,
+            Set<DataCollection> changed, Set<UUID> changedRecords) {
+        write(users, reviews, postings, changed);
+    }
+
     /**
      * abstract method that will update the users
      * 
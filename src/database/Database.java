@@ -1,6 +1,25 @@
 package database;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 import dataTypes.Admin;
 import dataTypes.DataBlob;
@@ -10,28 +29,85 @@ import dataTypes.Professor;
 import dataTypes.Review;
 import dataTypes.Student;
 import dataTypes.User;
+import enums.DataCollection;
+import enums.UpdateResult;
 import utilities.Logger;
 
 /**
  * The overall database that allows for data reading and writing
  * 
+ * It can be used by many sessions at once. Methods that change the data take a
+ * write lock one at a time, and once the outermost change is done they publish
+ * a new View, an unchanging copy of the lists and indexes, in one volatile
+ * write. Methods that only look at the data read the View that was current
+ * when they started, so they never wait for a writer and never see half of a
+ * change. The records themselves are shared between Views, so a change to a
+ * record's own fields shows up in every View. Applying to a posting and editing
+ * a posting's requirements, employer or status only take the read lock, so
+ * sessions doing these at the same time do not wait on each other
+ * 
+ * Users, postings and reviews each keep a version that moves on whenever they
+ * change. The compare-and-set updates take the version a session read and give
+ * back CONFLICT instead of waiting when another session changed the record
+ * first, so two admins approving the same user cannot overwrite each other.
+ * The version is claimed and made odd before the edit and moved on to the next
+ * even number after it, so a session that reads the version in the middle of an
+ * edit gets a CONFLICT too
+ * 
  * @author Brennan Cain
  */
 public class Database {
-    private static Database instance = null; // singleton
+    private static volatile Database instance = null; // singleton
 
     DataReader reader;
     DataWriter writer;
+    MutationLog log;
+    Archive archive; // where compact moves removed records, null if they stay in the data files
+    private boolean replaying; // true while the log is applied, so replayed changes are not logged again
 
-    private ArrayList<User> users;
-    private ArrayList<Review> reviews;
-    private ArrayList<JobPosting> postings;
+    private LiveList<User> users;
+    private LiveList<Review> reviews;
+    private LiveList<JobPosting> postings;
+
+    private PersistentMap<String, User> usernameIndex; // lowercased username -> user
+    private PersistentMap<String, User> emailIndex; // lowercased email -> user
+    private PersistentMap<String, User> nameIndex; // lowercased full name -> user
+    private ConcurrentHashMap<UUID, Set<JobPosting>> applicationIndex; // student id -> postings, changed in place
+    private AtomicReference<PersistentMap<UUID, List<JobPosting>>> employerIndex; // employer id -> postings, removed ones too
+    private RequirementIndex requirementIndex;
+    private TrigramIndex trigramIndex;
+    private PersistentMap<UUID, List<Review>> reviewerIndex; // reviewer id -> reviews they made
+    private PersistentMap<UUID, List<Review>> revieweeIndex; // reviewee id -> reviews about them
+    private PersistentMap<UUID, PersistentMap<UUID, List<Review>>> reviewPairIndex; // reviewer id -> reviewee id -> reviews
+    private final Set<DataCollection> dirty = ConcurrentHashMap.newKeySet(); // changed since the last load or save
+    private volatile Set<UUID> dirtyRecords; // ids of the records changed since the last load or save, null if unknown
+    private volatile long dirtySince; // when the oldest unsaved change was made
+    private final Object saveLock = new Object(); // one save at a time, so an older snapshot never wins
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock(); // taken after saveLock and posting locks
+    private boolean stale; // true if something changed since the current View was published
+    private long logSequence; // last log record queued under the write lock, synced once the lock is let go
+    private volatile View view; // what the read methods see
 
     /**
      * Constructor The Database class is a singleton so the constructor is not
      * accessible outside of the class
      */
     private Database() {
+        usernameIndex = PersistentMap.empty();
+        emailIndex = PersistentMap.empty();
+        nameIndex = PersistentMap.empty();
+        applicationIndex = new ConcurrentHashMap<UUID, Set<JobPosting>>();
+        employerIndex = new AtomicReference<PersistentMap<UUID, List<JobPosting>>>(PersistentMap.empty());
+        requirementIndex = new RequirementIndex();
+        trigramIndex = new TrigramIndex();
+        reviewerIndex = PersistentMap.empty();
+        revieweeIndex = PersistentMap.empty();
+        reviewPairIndex = PersistentMap.empty();
+        dirtyRecords = ConcurrentHashMap.newKeySet();
+        users = new LiveList<User>(new ArrayList<User>());
+        reviews = new LiveList<Review>(new ArrayList<Review>());
+        postings = new LiveList<JobPosting>(new ArrayList<JobPosting>());
+        view = new View(0, this);
     }
 
     /**
@@ -41,7 +117,10 @@ public class Database {
      */
     public static Database getInstance() {
         if (instance == null) {
-            instance = new Database();
+            synchronized (Database.class) {
+                if (instance == null)
+                    instance = new Database();
+            }
         }
         return instance;
     }
@@ -64,26 +143,1019 @@ public class Database {
         this.writer = writer;
     }
 
+    /**
+     * Set the Database mutation log attribute, changes are recorded in it until
+     * they are written to the files
+     * 
+     * @param log set the attribute this.log to log
+     */
+    public void setMutationLog(MutationLog log) {
+        this.log = log;
+    }
+
+    /**
+     * Set the Database archive attribute, compact moves removed records into it
+     * 
+     * @param archive set the attribute this.archive to archive
+     */
+    public void setArchive(Archive archive) {
+        this.archive = archive;
+    }
+
     /**
      * Reads all of the different data we have stored in JSON files and puts them in
-     * arrays
+     * arrays, then replays the changes in the mutation log that were not written to
+     * the files yet
      */
     public void loadFromFile() {
-        DataBlob blob = reader.read();
-        users = blob.getUsers();
-        reviews = blob.getReviews();
-        postings = blob.getJobPostings();
+        lock.writeLock().lock();
+        try {
+            DataBlob blob = reader.read();
+            dirty.clear();
+            dirtyRecords = ConcurrentHashMap.newKeySet();
+            if (log != null) {
+                replaying = true;
+                try {
+                    if (log.replay(blob) > 0) {
+                        dirty.addAll(EnumSet.allOf(DataCollection.class));
+                        dirtyRecords = null; // the log does not say which records its changes touched
+                        dirtySince = System.currentTimeMillis();
+                    }
+                } finally {
+                    replaying = false;
+                }
+            }
+            users = new LiveList<User>(blob.getUsers());
+            reviews = new LiveList<Review>(blob.getReviews());
+            postings = new LiveList<JobPosting>(blob.getJobPostings());
+            if (archive != null)
+                archive.unload();
+            rebuildUserIndexes();
+            rebuildPostingIndexes();
+            rebuildReviewIndexes();
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    /**
+     * Checks if changes should be recorded in the mutation log
+     * 
+     * @return true if there is a log and it is not being replayed
+     */
+    private boolean logging() {
+        return log != null && !replaying;
+    }
+
+    /**
+     * Remembers a record queued in the mutation log while the write lock is held,
+     * so unlockWrite syncs it after the lock is let go
+     * 
+     * @param sequence the number the log gave the record
+     */
+    private void queued(long sequence) {
+        if (sequence > logSequence)
+            logSequence = sequence;
+    }
+
+    /**
+     * Rebuilds the user lookup indexes from the users ArrayList
+     */
+    private void rebuildUserIndexes() {
+        stale = true;
+        usernameIndex = PersistentMap.empty();
+        emailIndex = PersistentMap.empty();
+        nameIndex = PersistentMap.empty();
+        for (User user : users)
+            indexUser(user);
+    }
+
+    /**
+     * Adds a user to the lookup indexes. If two users share a key the first one
+     * stays in the index, which matches the old linear search
+     * 
+     * @param user the user to index
+     */
+    private void indexUser(User user) {
+        if (user == null)
+            return;
+        stale = true;
+        if (user.getUsername() != null)
+            usernameIndex = usernameIndex.plusIfAbsent(user.getUsername().toLowerCase(), user);
+        if (user.getEmail() != null)
+            emailIndex = emailIndex.plusIfAbsent(user.getEmail().toLowerCase(), user);
+        nameIndex = nameIndex.plusIfAbsent(user.getFullName().toLowerCase(), user);
+    }
+
+    /**
+     * Rebuilds the review lookup indexes from the reviews ArrayList
+     */
+    private void rebuildReviewIndexes() {
+        stale = true;
+        reviewerIndex = PersistentMap.empty();
+        revieweeIndex = PersistentMap.empty();
+        reviewPairIndex = PersistentMap.empty();
+        for (Review review : reviews)
+            indexReview(review);
+    }
+
+    /**
+     * Adds a review to the reviewer, reviewee and reviewer/reviewee indexes.
+     * Removed reviews stay indexed, the methods that return lists skip them
+     * 
+     * @param review the review to index
+     */
+    private void indexReview(Review review) {
+        if (review == null || review.getReviewer() == null || review.getReviewee() == null)
+            return;
+        stale = true;
+        UUID reviewerId = review.getReviewer().getId();
+        UUID revieweeId = review.getReviewee().getId();
+        reviewerIndex = append(reviewerIndex, reviewerId, review);
+        revieweeIndex = append(revieweeIndex, revieweeId, review);
+        PersistentMap<UUID, List<Review>> byReviewee = reviewPairIndex.get(reviewerId);
+        if (byReviewee == null)
+            byReviewee = PersistentMap.empty();
+        reviewPairIndex = reviewPairIndex.plus(reviewerId, append(byReviewee, revieweeId, review));
+    }
+
+    /**
+     * Gets an index with an item added to the end of a key's list. The lists in
+     * the index are never changed, the key gets a copy with the item added, so the
+     * index can be shared with a View
+     * 
+     * @param <K>   the type of the keys
+     * @param <T>   the type in the lists
+     * @param index the index to add to
+     * @param key   the key whose list gets the item
+     * @param item  the item to add
+     * @return the new index, or the same one if the list already had the item
+     */
+    private static <K, T> PersistentMap<K, List<T>> append(PersistentMap<K, List<T>> index, K key, T item) {
+        List<T> items = index.get(key);
+        if (items == null)
+            return index.plus(key, Collections.singletonList(item));
+        if (items.contains(item))
+            return index;
+        ArrayList<T> changed = new ArrayList<T>(items.size() + 1);
+        changed.addAll(items);
+        changed.add(item);
+        return index.plus(key, Collections.unmodifiableList(changed));
+    }
+
+    /**
+     * Gets an index with an item taken out of a key's list, the other way around
+     * from append
+     * 
+     * @param <K>   the type of the keys
+     * @param <T>   the type in the lists
+     * @param index the index to take out of
+     * @param key   the key whose list has the item
+     * @param item  the item to take out
+     * @return the new index, or the same one if the list did not have the item
+     */
+    private static <K, T> PersistentMap<K, List<T>> without(PersistentMap<K, List<T>> index, K key, T item) {
+        List<T> items = index.get(key);
+        if (items == null || !items.contains(item))
+            return index;
+        ArrayList<T> changed = new ArrayList<T>(items);
+        changed.remove(item);
+        return changed.isEmpty() ? index.minus(key) : index.plus(key, Collections.unmodifiableList(changed));
+    }
+
+    /**
+     * Rebuilds the posting lookup indexes from the postings ArrayList. New
+     * indexes are made rather than the old ones emptied, since the current View
+     * reads the old ones until the new View is published
+     */
+    private void rebuildPostingIndexes() {
+        stale = true;
+        applicationIndex = new ConcurrentHashMap<UUID, Set<JobPosting>>();
+        employerIndex = new AtomicReference<PersistentMap<UUID, List<JobPosting>>>(PersistentMap.empty());
+        requirementIndex = new RequirementIndex();
+        trigramIndex = new TrigramIndex();
+        for (JobPosting posting : postings)
+            indexPosting(posting);
+    }
+
+    /**
+     * Adds a posting to the posting lookup indexes
+     * 
+     * @param posting the posting to index
+     */
+    private void indexPosting(JobPosting posting) {
+        if (posting == null)
+            return;
+        stale = true;
+        if (posting.getApplicants() != null)
+            for (Student applicant : posting.getApplicants())
+                addApplication(posting, applicant);
+        addEmployerPosting(posting);
+        requirementIndex.add(posting);
+        trigramIndex.add(posting);
+    }
+
+    /**
+     * Re-indexes a posting's requirements after they were changed. The posting
+     * calls this with its posting lock held, so the index takes the edits to one
+     * posting in the order they were made. The indexes swap in each change with
+     * a compare-and-set, so this only takes the read lock and edits to different
+     * postings do not wait on each other
+     * 
+     * @param posting the posting whose requirements changed
+     */
+    public void updateRequirements(JobPosting posting) {
+        lock.readLock().lock();
+        try {
+            requirementIndex.update(posting);
+            trigramIndex.update(posting);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a posting to its employer's list in the employer index
+     * 
+     * @param posting the posting to add
+     */
+    private void addEmployerPosting(JobPosting posting) {
+        if (posting.getEmployer() == null || posting.getEmployer().getId() == null)
+            return;
+        UUID employerId = posting.getEmployer().getId();
+        employerIndex.updateAndGet(index -> append(index, employerId, posting));
+    }
+
+    /**
+     * Takes a posting out of an employer's list in the employer index
+     * 
+     * @param posting  the posting to take out
+     * @param employer the employer whose list it is in
+     */
+    private void removeEmployerPosting(JobPosting posting, Employer employer) {
+        if (employer == null)
+            return;
+        employerIndex.updateAndGet(index -> without(index, employer.getId(), posting));
+    }
+
+    /**
+     * Moves a posting to its new employer's list after the employer was changed.
+     * The posting calls this with its posting lock held, and the employer index
+     * swaps in each change with a compare-and-set, so only the read lock is taken
+     * 
+     * @param posting     the posting that changed employer
+     * @param oldEmployer the employer the posting had before
+     */
+    public void updatePostingEmployer(JobPosting posting, Employer oldEmployer) {
+        lock.readLock().lock();
+        try {
+            removeEmployerPosting(posting, oldEmployer);
+            addEmployerPosting(posting);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Records that a student applied to a posting in the application index. The
+     * index is changed in place under the read lock, so applications from many
+     * sessions go in at the same time and only wait for a load or compact
+     * 
+     * @param posting   the posting applied to
+     * @param applicant the student who applied
+     */
+    public void addApplication(JobPosting posting, Student applicant) {
+        if (applicant == null || applicant.getId() == null)
+            return;
+        lock.readLock().lock();
+        try {
+            applicationIndex.computeIfAbsent(applicant.getId(),
+                    id -> Collections.synchronizedSet(new LinkedHashSet<JobPosting>())).add(posting);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Records that a student applied to a posting, called when an applicant is
+     * added to a posting. Only the read lock is taken, so a rush of applications
+     * does not line up behind one lock, and the log record is synced after it is
+     * let go. The posting is marked dirty under the same lock, so a save never
+     * takes the log record without the posting
+     * 
+     * @param posting   the posting applied to
+     * @param applicant the student who applied
+     */
+    public void addApplicant(JobPosting posting, Student applicant) {
+        MutationLog toSync = null;
+        long sequence = 0;
+        lock.readLock().lock();
+        try {
+            addApplication(posting, applicant);
+            markDirty(posting);
+            if (logging()) {
+                toSync = log;
+                sequence = log.queueAddApplicant(posting, applicant);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (toSync != null && sequence > 0)
+            toSync.sync(sequence);
+    }
+
+    /**
+     * Records the new status of a posting in the mutation log. The posting is
+     * marked dirty under the same lock, so a save that checkpoints the record
+     * also writes the posting. Like addApplicant only the read lock is taken and
+     * the record is synced after it is let go
+     * 
+     * @param posting the posting whose status changed
+     */
+    public void updateStatus(JobPosting posting) {
+        MutationLog toSync = null;
+        long sequence = 0;
+        lock.readLock().lock();
+        try {
+            markDirty(posting);
+            if (logging()) {
+                toSync = log;
+                sequence = log.queueStatus(posting);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (toSync != null && sequence > 0)
+            toSync.sync(sequence);
+    }
+
+    /**
+     * Records a user's approval in the mutation log. The user is marked dirty
+     * under the same lock, so a save that checkpoints the record also writes the
+     * user
+     * 
+     * @param user the user who was approved or unapproved
+     */
+    public void updateApproval(User user) {
+        lock.writeLock().lock();
+        try {
+            markDirty(user);
+            if (logging())
+                queued(log.queueApproval(user));
+        } finally {
+            unlockWrite();
+        }
     }
 
     /**
-     * updates all of the JSON files
+     * Drops every application to a posting from the application index, used when
+     * the posting's applicant list is replaced
+     * 
+     * @param posting    the posting whose applicants changed
+     * @param applicants the applicants the posting had before
+     */
+    public void removeApplications(JobPosting posting, ArrayList<Student> applicants) {
+        if (applicants == null)
+            return;
+        lock.readLock().lock();
+        try {
+            for (Student applicant : applicants) {
+                if (applicant == null || applicant.getId() == null)
+                    continue;
+                Set<JobPosting> applications = applicationIndex.get(applicant.getId());
+                if (applications != null)
+                    applications.remove(posting);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Checks if a student has applied to a posting
+     * 
+     * @param student the student in question
+     * @param posting the posting in question
+     * @return true if the student is an applicant of the posting
+     */
+    public boolean hasApplied(Student student, JobPosting posting) {
+        return student != null && posting != null && posting.hasApplicant(student);
+    }
+
+    /**
+     * Moves a user to its new key in the username index after the username was
+     * changed
+     * 
+     * @param user        the user that was renamed
+     * @param oldUsername the username the user had before
+     */
+    public void updateUsername(User user, String oldUsername) {
+        lock.writeLock().lock();
+        try {
+            boolean indexed = oldUsername != null && usernameIndex.get(oldUsername.toLowerCase()) == user;
+            if (indexed)
+                usernameIndex = usernameIndex.minus(oldUsername.toLowerCase());
+            // a user that was never added must not show up in the indexes
+            if (indexed || users.contains(user))
+                indexUser(user);
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    /**
+     * Moves a user to its new key in the email index after the email was changed
+     * 
+     * @param user     the user whose email changed
+     * @param oldEmail the email the user had before
+     */
+    public void updateEmail(User user, String oldEmail) {
+        lock.writeLock().lock();
+        try {
+            boolean indexed = oldEmail != null && emailIndex.get(oldEmail.toLowerCase()) == user;
+            if (indexed)
+                emailIndex = emailIndex.minus(oldEmail.toLowerCase());
+            // a user that was never added must not show up in the indexes
+            if (indexed || users.contains(user))
+                indexUser(user);
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    /**
+     * Marks the file holding a user as changed
+     * 
+     * @param user the user that changed
+     */
+    public void markDirty(User user) {
+        if (user instanceof Student)
+            markDirty(DataCollection.STUDENTS, user.getId());
+        else if (user instanceof Employer)
+            markDirty(DataCollection.EMPLOYERS, user.getId());
+        else if (user instanceof Professor)
+            markDirty(DataCollection.PROFESSORS, user.getId());
+        else if (user instanceof Admin)
+            markDirty(DataCollection.ADMINS, user.getId());
+    }
+
+    /**
+     * Marks the postings file as changed
+     * 
+     * @param posting the posting that changed
+     */
+    public void markDirty(JobPosting posting) {
+        markDirty(DataCollection.POSTINGS, posting == null ? null : posting.getId());
+    }
+
+    /**
+     * Marks the reviews file as changed
+     * 
+     * @param review the review that changed
+     */
+    public void markDirty(Review review) {
+        markDirty(DataCollection.REVIEWS, review == null ? null : review.getId());
+    }
+
+    /**
+     * Marks a record and its collection as changed and remembers when the oldest
+     * unsaved change was made. The sets are concurrent, so this only takes the
+     * read lock, which keeps a save from taking them halfway through
+     * 
+     * @param collection the collection that changed
+     * @param id         the id of the record that changed
+     */
+    private void markDirty(DataCollection collection, UUID id) {
+        lock.readLock().lock();
+        try {
+            if (dirty.isEmpty())
+                dirtySince = System.currentTimeMillis();
+            dirty.add(collection);
+            Set<UUID> records = dirtyRecords;
+            if (id == null)
+                dirtyRecords = null;
+            else if (records != null)
+                records.add(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Checks if a collection changed since it was last loaded or saved
+     * 
+     * @param collection the collection to check
+     * @return true if it has unsaved changes
+     */
+    public boolean isDirty(DataCollection collection) {
+        lock.readLock().lock();
+        try {
+            return dirty.contains(collection);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets how long the oldest unsaved change has been waiting, which is how much
+     * work a crash would lose without the mutation log
+     * 
+     * @return milliseconds since the oldest unsaved change, 0 if everything is
+     *         saved
+     */
+    public long getUnsavedMillis() {
+        lock.readLock().lock();
+        try {
+            return dirty.isEmpty() ? 0 : System.currentTimeMillis() - dirtySince;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * updates the JSON files of the collections that changed since the last load or
+     * save, then empties the mutation log since the files now hold its changes
      */
     public void writeToFile() {
-        writer.write(users, reviews, postings);
+        save();
+    }
+
+    /**
+     * One published version of the lists and indexes. Nothing in a View is
+     * changed after it is made, so it can be read without a lock. The application,
+     * employer, requirement and trigram indexes are the exceptions, edits to a
+     * posting go into them as they are made, like a change to a record's own
+     * fields, and each read of one sees a whole edit
+     */
+    private static final class View {
+        final long version;
+        final List<User> users;
+        final PersistentMap<String, User> usernameIndex;
+        final PersistentMap<String, User> emailIndex;
+        final PersistentMap<String, User> nameIndex;
+        final List<JobPosting> postings;
+        final Map<UUID, Set<JobPosting>> applicationIndex; // changed in place, see addApplication
+        final AtomicReference<PersistentMap<UUID, List<JobPosting>>> employerIndex; // changed in place
+        final RequirementIndex requirementIndex; // changed in place
+        final TrigramIndex trigramIndex; // changed in place
+        final List<Review> reviews;
+        final PersistentMap<UUID, List<Review>> reviewerIndex;
+        final PersistentMap<UUID, List<Review>> revieweeIndex;
+        final PersistentMap<UUID, PersistentMap<UUID, List<Review>>> reviewPairIndex;
+
+        /**
+         * Takes the lists and indexes of the Database, which the caller holds the
+         * write lock of. The indexes are PersistentMaps and the lists hand out
+         * fixed length views of their records, so nothing is copied and making a
+         * View costs the same however much data there is
+         * 
+         * @param version the number of this View
+         * @param source  the Database to take them from
+         */
+        private View(long version, Database source) {
+            this.version = version;
+            users = source.users.snapshot();
+            usernameIndex = source.usernameIndex;
+            emailIndex = source.emailIndex;
+            nameIndex = source.nameIndex;
+            postings = source.postings.snapshot();
+            applicationIndex = source.applicationIndex;
+            employerIndex = source.employerIndex;
+            requirementIndex = source.requirementIndex;
+            trigramIndex = source.trigramIndex;
+            reviews = source.reviews.snapshot();
+            reviewerIndex = source.reviewerIndex;
+            revieweeIndex = source.revieweeIndex;
+            reviewPairIndex = source.reviewPairIndex;
+        }
     }
 
     /**
-     * Get method for jobPostings
+     * Releases the write lock. When the outermost change is done, a new View is
+     * published first, so readers see all of the change
+     * or none of it. The log records it queued are synced after the lock is let
+     * go but before the change returns, so other sessions can change the
+     * Database while this one waits for the disk, and their records are synced
+     * together with its own
+     */
+    private void unlockWrite() {
+        MutationLog toSync = null;
+        long sequence = 0;
+        try {
+            if (lock.getWriteHoldCount() == 1) {
+                if (stale) {
+                    view = new View(view.version + 1, this);
+                    stale = false;
+                }
+                toSync = log;
+                sequence = logSequence;
+                logSequence = 0;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (toSync != null && sequence > 0)
+            toSync.sync(sequence);
+    }
+
+    /**
+     * Gets the number of the current View, which goes up every time a change is
+     * published
+     * 
+     * @return the version readers see now
+     */
+    public long getVersion() {
+        return view.version;
+    }
+
+    /**
+     * An ArrayList that takes the write lock for every change made through it, so
+     * callers that add to getUsers or getJobPostings directly are published like
+     * any other change
+     * 
+     * It also keeps its records in a second array that Views read. Adding at the
+     * end only writes past the length every earlier View was given, so a View
+     * gets the records without copying them. Any other change makes a new array,
+     * which the Views made before it do not see
+     * 
+     * @param <E> the type of the records
+     */
+    private class LiveList<E> extends ArrayList<E> {
+        private static final long serialVersionUID = 1L;
+
+        private transient Object[] shared; // the records, read by Views up to the length they were given
+        private transient int sharedSize;
+
+        private LiveList(Collection<E> records) {
+            super(records);
+            reshare();
+        }
+
+        /**
+         * Gets the records as they are now, for a View. The caller holds the write
+         * lock
+         * 
+         * @return a read only list that later changes do not show up in
+         */
+        private List<E> snapshot() {
+            return new Prefix<E>(shared, sharedSize);
+        }
+
+        private void share(E record) {
+            if (sharedSize == shared.length)
+                shared = Arrays.copyOf(shared, Math.max(16, sharedSize * 2));
+            shared[sharedSize++] = record;
+        }
+
+        private void reshare() {
+            shared = toArray();
+            sharedSize = shared.length;
+        }
+
+        private <T> T change(Supplier<T> change) {
+            lock.writeLock().lock();
+            try {
+                stale = true;
+                T result = change.get();
+                reshare();
+                return result;
+            } finally {
+                unlockWrite();
+            }
+        }
+
+        @Override
+        public boolean add(E record) {
+            lock.writeLock().lock();
+            try {
+                stale = true;
+                super.add(record);
+                share(record);
+                return true;
+            } finally {
+                unlockWrite();
+            }
+        }
+
+        @Override
+        public void add(int index, E record) {
+            change(() -> {
+                super.add(index, record);
+                return null;
+            });
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends E> records) {
+            lock.writeLock().lock();
+            try {
+                stale = true;
+                for (E record : records)
+                    add(record);
+                return !records.isEmpty();
+            } finally {
+                unlockWrite();
+            }
+        }
+
+        @Override
+        public boolean addAll(int index, Collection<? extends E> records) {
+            return change(() -> super.addAll(index, records));
+        }
+
+        @Override
+        public E set(int index, E record) {
+            return change(() -> super.set(index, record));
+        }
+
+        @Override
+        public E remove(int index) {
+            return change(() -> super.remove(index));
+        }
+
+        @Override
+        public boolean remove(Object record) {
+            return change(() -> super.remove(record));
+        }
+
+        @Override
+        public boolean removeAll(Collection<?> records) {
+            return change(() -> super.removeAll(records));
+        }
+
+        @Override
+        public boolean retainAll(Collection<?> records) {
+            return change(() -> super.retainAll(records));
+        }
+
+        @Override
+        public boolean removeIf(Predicate<? super E> filter) {
+            return change(() -> super.removeIf(filter));
+        }
+
+        @Override
+        public void clear() {
+            change(() -> {
+                super.clear();
+                return null;
+            });
+        }
+    }
+
+    /**
+     * The first records of a LiveList's shared array, as a View sees them
+     * 
+     * @param <E> the type of the records
+     */
+    private static final class Prefix<E> extends AbstractList<E> implements RandomAccess {
+        private final Object[] records;
+        private final int size;
+
+        private Prefix(Object[] records, int size) {
+            this.records = records;
+            this.size = size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E get(int index) {
+            Objects.checkIndex(index, size);
+            return (E) records[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * The lists and changed collections captured for one save. The lists are
+     * copies, so the session can keep adding to the Database while the snapshot
+     * is written
+     */
+    static class Snapshot {
+        final ArrayList<User> users;
+        final ArrayList<Review> reviews;
+        final ArrayList<JobPosting> postings;
+        final EnumSet<DataCollection> changed;
+        final Set<UUID> changedRecords; // null if not known
+        final long dirtySince;
+        final long logMark;
+
+        private Snapshot(ArrayList<User> users, ArrayList<Review> reviews, ArrayList<JobPosting> postings,
+                EnumSet<DataCollection> changed, Set<UUID> changedRecords, long dirtySince, long logMark) {
+            this.users = users;
+            this.reviews = reviews;
+            this.postings = postings;
+            this.changed = changed;
+            this.changedRecords = changedRecords;
+            this.dirtySince = dirtySince;
+            this.logMark = logMark;
+        }
+    }
+
+    /**
+     * Copies the lists and takes the sets of changed collections and records.
+     * Copying the lists only copies references, so this is quick next to writing
+     * them. The records are written while sessions can still edit them, which is
+     * safe because the lists inside a record, like a posting's requirements or a
+     * student's resume, are replaced by each edit rather than changed in place
+     * 
+     * @return the snapshot, or null if nothing changed since the last save
+     */
+    private Snapshot takeSnapshot() {
+        lock.writeLock().lock();
+        try {
+            if (dirty.isEmpty())
+                return null;
+            Snapshot snapshot = new Snapshot(new ArrayList<User>(users), new ArrayList<Review>(reviews),
+                    new ArrayList<JobPosting>(postings), EnumSet.copyOf(dirty), dirtyRecords, dirtySince,
+                    log == null ? 0 : log.mark());
+            dirty.clear();
+            dirtyRecords = ConcurrentHashMap.newKeySet();
+            return snapshot;
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    /**
+     * Puts back the changed collections of a snapshot that could not be written
+     * 
+     * @param snapshot the snapshot that failed
+     */
+    private void restoreDirty(Snapshot snapshot) {
+        lock.writeLock().lock();
+        try {
+            if (dirty.isEmpty() || snapshot.dirtySince < dirtySince)
+                dirtySince = snapshot.dirtySince;
+            dirty.addAll(snapshot.changed);
+            if (snapshot.changedRecords == null)
+                dirtyRecords = null;
+            else if (dirtyRecords != null)
+                dirtyRecords.addAll(snapshot.changedRecords);
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    /**
+     * Takes a snapshot and writes it. The records logged before the snapshot are
+     * then dropped from the mutation log, the ones logged while it was being written
+     * stay
+     * 
+     * @return the snapshot that was written, or null if there was nothing to write
+     */
+    Snapshot save() {
+        synchronized (saveLock) {
+            Snapshot snapshot = takeSnapshot();
+            if (snapshot == null)
+                return null;
+            try {
+                writer.write(snapshot.users, snapshot.reviews, snapshot.postings, snapshot.changed,
+                        snapshot.changedRecords);
+            } catch (RuntimeException e) {
+                restoreDirty(snapshot);
+                throw e;
+            }
+            if (log != null)
+                log.checkpoint(snapshot.logMark);
+            return snapshot;
+        }
+    }
+
+    /**
+     * Moves the removed postings, reviews and users into the archive, so they are
+     * no longer read, indexed or written with the rest of the data. A removed user
+     * that a review or posting which is not removed still refers to stays, so
+     * nothing left in the data files refers to the archive. The archive is saved
+     * before the records leave the data files
+     * 
+     * @return how many records were moved
+     */
+    public int compact() {
+        lock.writeLock().lock();
+        try {
+            if (archive == null)
+                return 0;
+            ArrayList<JobPosting> removedPostings = getRemovedPostings(postings);
+            ArrayList<Review> removedReviews = getRemovedReviews(reviews);
+
+            HashSet<UUID> referenced = new HashSet<UUID>();
+            for (Review review : reviews) {
+                if (review.isRemoved())
+                    continue;
+                if (review.getReviewer() != null)
+                    referenced.add(review.getReviewer().getId());
+                if (review.getReviewee() != null)
+                    referenced.add(review.getReviewee().getId());
+            }
+            for (JobPosting posting : postings) {
+                if (posting.isRemoved())
+                    continue;
+                if (posting.getEmployer() != null)
+                    referenced.add(posting.getEmployer().getId());
+                if (posting.getApplicants() != null)
+                    for (Student applicant : posting.getApplicants())
+                        referenced.add(applicant.getId());
+            }
+            ArrayList<User> removedUsers = new ArrayList<User>();
+            for (User user : getRemovedUsers(users))
+                if (!referenced.contains(user.getId()))
+                    removedUsers.add(user);
+
+            int count = removedPostings.size() + removedReviews.size() + removedUsers.size();
+            if (count == 0)
+                return 0;
+            archive.load(users, reviews, postings);
+            archive.add(removedUsers, removedReviews, removedPostings);
+            archive.save();
+
+            HashSet<UUID> ids = new HashSet<UUID>();
+            for (User user : removedUsers)
+                ids.add(user.getId());
+            for (Review review : removedReviews)
+                ids.add(review.getId());
+            for (JobPosting posting : removedPostings)
+                ids.add(posting.getId());
+            users.removeIf(user -> ids.contains(user.getId()));
+            reviews.removeIf(review -> ids.contains(review.getId()));
+            postings.removeIf(posting -> ids.contains(posting.getId()));
+            rebuildUserIndexes();
+            rebuildPostingIndexes();
+            rebuildReviewIndexes();
+            for (User user : removedUsers)
+                markDirty(user);
+            for (Review review : removedReviews)
+                markDirty(review);
+            for (JobPosting posting : removedPostings)
+                markDirty(posting);
+            Logger.getInstance().log("Database.compact: " + count + " records archived");
+            return count;
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    /**
+     * Reads the archive, if there is one and it has not been read yet
+     * 
+     * @return true if there is an archive
+     */
+    private boolean loadArchive() {
+        if (archive == null)
+            return false;
+        View view = this.view;
+        archive.load(view.users, view.reviews, view.postings);
+        return true;
+    }
+
+    /**
+     * Gets an archived user for a lookup that missed the Database. Only a key
+     * that is in the archive reads the rest of the archive, and the user stays
+     * archived
+     * 
+     * @param id the id the archive's keys gave, or null
+     * @return the archived user, or null if there is none
+     */
+    private User findArchivedUser(UUID id) {
+        if (id == null || !loadArchive())
+            return null;
+        return archive.getUser(id);
+    }
+
+    /**
+     * Brings an archived user back into the Database, so it is read, indexed and
+     * written with the rest of the users again. Lookups find archived users
+     * without this, it is for when an archived user is used again, like when
+     * they log in
+     * 
+     * @param user the user to bring back
+     * @return true if the user was archived and is now back in the Database
+     */
+    public boolean restoreUser(User user) {
+        if (user == null || archive == null || user.getUsername() == null)
+            return false;
+        if (view.usernameIndex.get(user.getUsername().toLowerCase()) == user)
+            return false; // already in the Database, the usual case
+        lock.writeLock().lock();
+        try {
+            User restored = archive.takeUser(user.getId());
+            if (restored == null)
+                return false;
+            users.add(restored);
+            indexUser(restored);
+            markDirty(restored);
+            return true;
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    /**
+     * Get method for jobPostings. This is the Database's own ArrayList, so it is
+     * not safe to loop over while other sessions add postings
      * 
      * @return an ArrayList with all of the postings in the database
      */
@@ -98,7 +1170,60 @@ public class Database {
      * @param posting the posting to be added
      */
     public void addPosting(JobPosting posting) {
-        postings.add(posting);
+        lock.writeLock().lock();
+        try {
+            postings.add(posting);
+            indexPosting(posting);
+            markDirty(posting);
+            if (logging())
+                queued(log.queueAddPosting(posting));
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    /**
+     * Edits a posting, but only if it has not changed since the caller read
+     * expectedVersion. Of two employers editing from the same version, the first
+     * one's edit is made and the other gets CONFLICT and can read the posting again
+     * 
+     * @param posting         the posting to edit
+     * @param expectedVersion the version of the posting the caller read
+     * @param edit            the changes to make, through the posting's setters
+     * @return APPLIED, CONFLICT, or MISSING if the posting is null or removed
+     */
+    public UpdateResult updatePosting(JobPosting posting, long expectedVersion, Consumer<JobPosting> edit) {
+        if (posting == null || posting.isRemoved())
+            return UpdateResult.MISSING;
+        if (!posting.claimVersion(expectedVersion))
+            return UpdateResult.CONFLICT;
+        try {
+            edit.accept(posting);
+        } finally {
+            posting.releaseVersion(expectedVersion);
+        }
+        return UpdateResult.APPLIED;
+    }
+
+    /**
+     * Removes a posting, but only if it has not changed since the caller read
+     * expectedVersion
+     * 
+     * @param posting         the posting to remove
+     * @param expectedVersion the version of the posting the caller read
+     * @return APPLIED, CONFLICT, or MISSING if the posting is null or already removed
+     */
+    public UpdateResult removePosting(JobPosting posting, long expectedVersion) {
+        if (posting == null || posting.isRemoved())
+            return UpdateResult.MISSING;
+        if (!posting.claimVersion(expectedVersion))
+            return UpdateResult.CONFLICT;
+        try {
+            removePosting(posting);
+        } finally {
+            posting.releaseVersion(expectedVersion);
+        }
+        return UpdateResult.APPLIED;
     }
 
     /**
@@ -108,7 +1233,14 @@ public class Database {
      * @param posting the posting to be removed
      */
     public void removePosting(JobPosting posting) {
-        posting.setRemoved(true);
+        lock.writeLock().lock();
+        try {
+            posting.setRemoved(true);
+            if (logging())
+                queued(log.queueRemovePosting(posting));
+        } finally {
+            unlockWrite();
+        }
     }
 
     /**
@@ -117,8 +1249,9 @@ public class Database {
      * @return ArrayList of all of the postings
      */
     public ArrayList<JobPosting> getPostings() {
+        View view = this.view;
         ArrayList<JobPosting> toReturn = new ArrayList<JobPosting>();
-        for (JobPosting posting : postings)
+        for (JobPosting posting : view.postings)
             if (!posting.isRemoved())
                 toReturn.add(posting);
         return toReturn;
@@ -130,6 +1263,20 @@ public class Database {
      * @return ArrayList of all of the removed postings
      */
     public ArrayList<JobPosting> getRemovedPostings() {
+        View view = this.view;
+        ArrayList<JobPosting> removedPostings = getRemovedPostings(view.postings);
+        if (loadArchive())
+            removedPostings.addAll(archive.getPostings());
+        return removedPostings;
+    }
+
+    /**
+     * Gets the removed postings in a list
+     * 
+     * @param postings the list to look through
+     * @return ArrayList of the removed postings in it
+     */
+    private static ArrayList<JobPosting> getRemovedPostings(List<JobPosting> postings) {
         ArrayList<JobPosting> removedPostings = new ArrayList<JobPosting>();
         for (JobPosting posting : postings) {
             if (posting.isRemoved())
@@ -146,8 +1293,9 @@ public class Database {
      * @return JobPosting the specific post we are looking for
      */
     public JobPosting getPostingByEmployerAndTitle(String employerUser, String title) {
+        View view = this.view;
 
-        for (JobPosting posting : postings) {
+        for (JobPosting posting : view.postings) {
             if (posting.getEmployer().getUsername().equals(employerUser) && posting.getJobTitle().equals(title))
                 return posting;
         }
@@ -161,10 +1309,17 @@ public class Database {
      * @return ArrayList of all of the jobs they applied for
      */
     public ArrayList<JobPosting> getPostingsByStudent(Student student) {
+        View view = this.view;
         ArrayList<JobPosting> applications = new ArrayList<JobPosting>();
-        for (JobPosting posting : postings) {
-            if (posting.getApplicants().contains(student) && !posting.isRemoved())
-                applications.add(posting);
+        Set<JobPosting> applied = student == null || student.getId() == null ? null
+                : view.applicationIndex.get(student.getId());
+        if (applied == null)
+            return applications;
+        synchronized (applied) {
+            for (JobPosting posting : applied) {
+                if (!posting.isRemoved())
+                    applications.add(posting);
+            }
         }
         return applications;
     }
@@ -176,12 +1331,12 @@ public class Database {
      * @return ArrayList of all of the posts
      */
     public ArrayList<JobPosting> getPostingsByEmployer(Employer employer) {
-        ArrayList<JobPosting> returnPostings = new ArrayList<JobPosting>();
-        for (JobPosting posting : postings) {
-            if (posting.getEmployer().equals(employer))
-                returnPostings.add(posting);
-        }
-        return returnPostings;
+        View view = this.view;
+        List<JobPosting> employerPostings = employer == null || employer.getId() == null ? null
+                : view.employerIndex.get().get(employer.getId());
+        if (employerPostings == null)
+            return new ArrayList<JobPosting>();
+        return new ArrayList<JobPosting>(employerPostings);
     }
 
     /**
@@ -190,8 +1345,9 @@ public class Database {
      * @return ArrayList of all open postings
      */
     public ArrayList<JobPosting> getOpenPostings() {
+        View view = this.view;
         ArrayList<JobPosting> openPostings = new ArrayList<JobPosting>();
-        for (JobPosting posting : postings) {
+        for (JobPosting posting : view.postings) {
             if (!posting.isRemoved())
                 openPostings.add(posting);
         }
@@ -206,16 +1362,28 @@ public class Database {
      * @author Brennan Cain
      */
     public ArrayList<JobPosting> getOpenPostingByRequirement(String requirement) {
+        View view = this.view;
         ArrayList<JobPosting> openPostings = new ArrayList<JobPosting>();
-        for (JobPosting posting : postings) {
-            if (!posting.isRemoved()) {
-                for (String postDetail : posting.getRequirements()) {
-                    if (postDetail.toLowerCase().contains(requirement.toLowerCase())) {
-                        openPostings.add(posting);
-                        break;
-                    }
-                }
-            }
+        for (JobPosting posting : view.trigramIndex.search(requirement)) {
+            if (!posting.isRemoved())
+                openPostings.add(posting);
+        }
+        return openPostings;
+    }
+
+    /**
+     * Searches the open jobs whose requirements contain every word of the keywords.
+     * Unlike getOpenPostingByRequirement this matches whole words only
+     * 
+     * @param keywords the words they are looking for
+     * @return ArrayList of all open jobs with those words
+     */
+    public ArrayList<JobPosting> getOpenPostingsByKeyword(String keywords) {
+        View view = this.view;
+        ArrayList<JobPosting> openPostings = new ArrayList<JobPosting>();
+        for (JobPosting posting : view.requirementIndex.search(keywords)) {
+            if (!posting.isRemoved())
+                openPostings.add(posting);
         }
         return openPostings;
     }
@@ -227,7 +1395,37 @@ public class Database {
      * @param review the review to be added
      */
     public void addReview(Review review) {
-        reviews.add(review);
+        lock.writeLock().lock();
+        try {
+            reviews.add(review);
+            indexReview(review);
+            markDirty(review);
+            if (logging())
+                queued(log.queueAddReview(review));
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    /**
+     * Removes a review, but only if it has not changed since the caller read
+     * expectedVersion
+     * 
+     * @param review          the review to remove
+     * @param expectedVersion the version of the review the caller read
+     * @return APPLIED, CONFLICT, or MISSING if the review is null or already removed
+     */
+    public UpdateResult removeReveiw(Review review, long expectedVersion) {
+        if (review == null || review.isRemoved())
+            return UpdateResult.MISSING;
+        if (!review.claimVersion(expectedVersion))
+            return UpdateResult.CONFLICT;
+        try {
+            removeReveiw(review);
+        } finally {
+            review.releaseVersion(expectedVersion);
+        }
+        return UpdateResult.APPLIED;
     }
 
     /**
@@ -237,7 +1435,14 @@ public class Database {
      * @param posting the review to be removed
      */
     public void removeReveiw(Review review) {
-        review.setRemoved(true);
+        lock.writeLock().lock();
+        try {
+            review.setRemoved(true);
+            if (logging())
+                queued(log.queueRemoveReview(review));
+        } finally {
+            unlockWrite();
+        }
     }
 
     /**
@@ -246,8 +1451,9 @@ public class Database {
      * @return ArrayList of all Reviews
      */
     public ArrayList<Review> getReviews() {
+        View view = this.view;
         ArrayList<Review> toReturn = new ArrayList<Review>();
-        for (Review review : reviews)
+        for (Review review : view.reviews)
             if (!review.isRemoved())
                 toReturn.add(review);
         return toReturn;
@@ -259,6 +1465,20 @@ public class Database {
      * @return ArrayList of all removed reviews
      */
     public ArrayList<Review> getRemovedReviews() {
+        View view = this.view;
+        ArrayList<Review> removedReviews = getRemovedReviews(view.reviews);
+        if (loadArchive())
+            removedReviews.addAll(archive.getReviews());
+        return removedReviews;
+    }
+
+    /**
+     * Gets the removed reviews in a list
+     * 
+     * @param reviews the list to look through
+     * @return ArrayList of the removed reviews in it
+     */
+    private static ArrayList<Review> getRemovedReviews(List<Review> reviews) {
         ArrayList<Review> removedReviews = new ArrayList<>();
         for (Review review : reviews) {
             if (review.isRemoved())
@@ -274,11 +1494,10 @@ public class Database {
      * @return the review made by said user
      */
     public Review getReviewByReviewer(User user) {
-        for (Review review : reviews) {
-            if (review.getReviewer().getUsername().equals(user.getUsername()))
-                return review;
-        }
-        return null;
+        View view = this.view;
+        if (user == null || !view.reviewerIndex.containsKey(user.getId()))
+            return null;
+        return view.reviewerIndex.get(user.getId()).get(0);
     }
 
     /**
@@ -288,11 +1507,10 @@ public class Database {
      * @return the review of said user
      */
     public Review getReviewByReviewee(User user) {
-        for (Review review : reviews) {
-            if (review.getReviewee().getUsername().equals(user.getUsername()))
-                return review;
-        }
-        return null;
+        View view = this.view;
+        if (user == null || !view.revieweeIndex.containsKey(user.getId()))
+            return null;
+        return view.revieweeIndex.get(user.getId()).get(0);
     }
 
     /**
@@ -303,12 +1521,17 @@ public class Database {
      * @return The review made by reviewer about reviewee
      */
     public Review getReviewByRevieweeAndReviewer(String reviewerUser, String revieweeUser) {
-        for (Review review : reviews) {
-            if (review.getReviewer().getUsername().equals(reviewerUser)
-                    && review.getReviewee().getUsername().equals(revieweeUser))
-                return review;
-        }
-        return null;
+        User reviewer = findByUsername(reviewerUser);
+        User reviewee = findByUsername(revieweeUser);
+        // usernames are matched exactly here, findByUsername ignores case
+        if (reviewer == null || reviewee == null || !reviewer.getUsername().equals(reviewerUser)
+                || !reviewee.getUsername().equals(revieweeUser))
+            return null;
+        View view = this.view;
+        PersistentMap<UUID, List<Review>> byReviewee = view.reviewPairIndex.get(reviewer.getId());
+        if (byReviewee == null || !byReviewee.containsKey(reviewee.getId()))
+            return null;
+        return byReviewee.get(reviewee.getId()).get(0);
     }
 
     /**
@@ -318,9 +1541,12 @@ public class Database {
      * @return ArrayList of all the reviews
      */
     public ArrayList<Review> getReviewsByReviewee(User user) {
+        View view = this.view;
         ArrayList<Review> reviewsByReviewee = new ArrayList<Review>();
-        for (Review review : reviews) {
-            if (review.getReviewee().equals(user) && !review.isRemoved())
+        if (user == null || !view.revieweeIndex.containsKey(user.getId()))
+            return reviewsByReviewee;
+        for (Review review : view.revieweeIndex.get(user.getId())) {
+            if (!review.isRemoved())
                 reviewsByReviewee.add(review);
         }
         return reviewsByReviewee;
@@ -333,16 +1559,20 @@ public class Database {
      * @return ArrayList of all the reviews
      */
     public ArrayList<Review> getReviewsByReviewer(User user) {
+        View view = this.view;
         ArrayList<Review> reviewsByReviewer = new ArrayList<Review>();
-        for (Review review : reviews) {
-            if (review.getReviewer().equals(user) && !review.isRemoved())
+        if (user == null || !view.reviewerIndex.containsKey(user.getId()))
+            return reviewsByReviewer;
+        for (Review review : view.reviewerIndex.get(user.getId())) {
+            if (!review.isRemoved())
                 reviewsByReviewer.add(review);
         }
         return reviewsByReviewer;
     }
 
     /**
-     * Get method for all of the users
+     * Get method for all of the users. This is the Database's own ArrayList, so
+     * it is not safe to loop over while other sessions add users
      * 
      * @return ArrayList of all Users
      */
@@ -356,8 +1586,9 @@ public class Database {
      * @return ArrayList of all student users
      */
     public ArrayList<Student> getStudents() {
+        View view = this.view;
         ArrayList<Student> students = new ArrayList<Student>();
-        for (User user : users) {
+        for (User user : view.users) {
             if (user instanceof Student) {
                 Student student = (Student) user;
                 if (!student.isRemoved())
@@ -373,8 +1604,9 @@ public class Database {
      * @return ArrayList of all employer users
      */
     public ArrayList<Employer> getEmployers() {
+        View view = this.view;
         ArrayList<Employer> employers = new ArrayList<Employer>();
-        for (User user : users) {
+        for (User user : view.users) {
             if (user instanceof Employer) {
                 Employer employer = (Employer) user;
                 if (!employer.isRemoved())
@@ -390,8 +1622,9 @@ public class Database {
      * @return ArrayList of all professor users
      */
     public ArrayList<Professor> getProfessor() {
+        View view = this.view;
         ArrayList<Professor> professors = new ArrayList<Professor>();
-        for (User user : users) {
+        for (User user : view.users) {
             if (user instanceof Professor) {
                 Professor professor = (Professor) user;
                 if (!professor.isRemoved())
@@ -407,8 +1640,9 @@ public class Database {
      * @return ArrayList of all admin users
      */
     public ArrayList<Admin> getAdmin() {
+        View view = this.view;
         ArrayList<Admin> admins = new ArrayList<Admin>();
-        for (User user : users) {
+        for (User user : view.users) {
             if (user instanceof Admin) {
                 Admin admin = (Admin) user;
                 admins.add(admin);
@@ -423,8 +1657,9 @@ public class Database {
      * @return ArrayList of all unapproved users
      */
     public ArrayList<User> getUnapprovedUsers() {
+        View view = this.view;
         ArrayList<User> unapprovedUsers = new ArrayList<User>();
-        for (User user : users) {
+        for (User user : view.users) {
             if (!user.isApproved())
                 unapprovedUsers.add(user);
         }
@@ -433,12 +1668,64 @@ public class Database {
 
     /**
      * When a user is to be removed, we set the removed attribute to true and update
-     * the JSON file
+     * the JSON file. The user stays in the username index so that the username
+     * cannot be taken again
      * 
      * @param user User to be added
      */
     public void removeUser(User user) {
-        user.setRemoved(true);
+        lock.writeLock().lock();
+        try {
+            user.setRemoved(true);
+            if (logging())
+                queued(log.queueRemoveUser(user));
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    /**
+     * Removes a user, but only if it has not changed since the caller read
+     * expectedVersion. Of two admins removing the same user, one gets APPLIED and
+     * the other CONFLICT
+     * 
+     * @param user            the user to remove
+     * @param expectedVersion the version of the user the caller read
+     * @return APPLIED, CONFLICT, or MISSING if the user is null or already removed
+     */
+    public UpdateResult removeUser(User user, long expectedVersion) {
+        if (user == null || user.isRemoved())
+            return UpdateResult.MISSING;
+        if (!user.claimVersion(expectedVersion))
+            return UpdateResult.CONFLICT;
+        try {
+            removeUser(user);
+        } finally {
+            user.releaseVersion(expectedVersion);
+        }
+        return UpdateResult.APPLIED;
+    }
+
+    /**
+     * Approves or unapproves a user, but only if it has not changed since the
+     * caller read expectedVersion
+     * 
+     * @param user            the user to approve
+     * @param expectedVersion the version of the user the caller read
+     * @param approved        true to approve the user, false to take it back
+     * @return APPLIED, CONFLICT, or MISSING if the user is null or removed
+     */
+    public UpdateResult approveUser(User user, long expectedVersion, boolean approved) {
+        if (user == null || user.isRemoved())
+            return UpdateResult.MISSING;
+        if (!user.claimVersion(expectedVersion))
+            return UpdateResult.CONFLICT;
+        try {
+            user.setApproved(approved);
+        } finally {
+            user.releaseVersion(expectedVersion);
+        }
+        return UpdateResult.APPLIED;
     }
 
     /**
@@ -447,6 +1734,20 @@ public class Database {
      * @return ArrayList of all removed users
      */
     public ArrayList<User> getRemovedUsers() {
+        View view = this.view;
+        ArrayList<User> removedUsers = getRemovedUsers(view.users);
+        if (loadArchive())
+            removedUsers.addAll(archive.getUsers());
+        return removedUsers;
+    }
+
+    /**
+     * Gets the removed users in a list
+     * 
+     * @param users the list to look through
+     * @return ArrayList of the removed users in it
+     */
+    private static ArrayList<User> getRemovedUsers(List<User> users) {
         ArrayList<User> removedUsers = new ArrayList<User>();
         for (User user : users) {
             if (user.isRemoved())
@@ -462,51 +1763,63 @@ public class Database {
      * @param user
      */
     public void addUser(User user) {
-        users.add(user);
+        lock.writeLock().lock();
+        try {
+            users.add(user);
+            indexUser(user);
+            markDirty(user);
+            if (logging())
+                queued(log.queueAddUser(user));
+        } finally {
+            unlockWrite();
+        }
     }
 
     /**
-     * Searches all users and returns one with a specific username
+     * Looks up the user with a specific username, ignoring case. Archived users
+     * are found too, so their usernames stay taken, but they stay archived
      * 
      * @param username username in question
      * @return the User with that username
      */
     public User findByUsername(String username) {
-        for (User user : users) {
-            Logger.getInstance().log("UserDatabase.findByUsername: " + user.getUsername());
-            if (user.getUsername().equalsIgnoreCase(username)) {
-                Logger.getInstance().log("UserDatabase.findByUsername: " + user.getUsername() + " found");
-                return user;
-            }
-        }
-        return null;
+        if (username == null)
+            return null;
+        User user = view.usernameIndex.get(username.toLowerCase());
+        if (user == null && archive != null)
+            user = findArchivedUser(archive.findByUsername(username));
+        if (user != null)
+            Logger.getInstance().log("UserDatabase.findByUsername: " + user.getUsername() + " found");
+        return user;
     }
 
     /**
-     * Searches all users and returns the one with a specific name
+     * Looks up the user with a specific full name, ignoring case
      * 
      * @param name the name in question
      * @return the user with that name
      */
     public User findByName(String name) {
-        for (User user : users) {
-            if (user.getFullName().equalsIgnoreCase(name))
-                return user;
-        }
-        return null;
+        if (name == null)
+            return null;
+        User user = view.nameIndex.get(name.toLowerCase());
+        if (user == null && archive != null)
+            user = findArchivedUser(archive.findByName(name));
+        return user;
     }
 
     /**
-     * Searches all users and returns the one with a specific email
+     * Looks up the user with a specific email, ignoring case
      * 
      * @param email the email in question
      * @return the user with that email
      */
     public User getUserByEmail(String email) {
-        for (User user : users) {
-            if (user.getEmail().equalsIgnoreCase(email))
-                return user;
-        }
-        return null;
+        if (email == null)
+            return null;
+        User user = view.emailIndex.get(email.toLowerCase());
+        if (user == null && archive != null)
+            user = findArchivedUser(archive.findByEmail(email));
+        return user;
     }
 }
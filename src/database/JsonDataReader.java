@@ -2,7 +2,13 @@ package database;
 
 import java.io.FileReader;
 import java.util.ArrayList;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
 
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
@@ -30,16 +36,18 @@ import utilities.Logger;
  * @author Brennan Cain
  */
 public class JsonDataReader extends DataReader {
-    private DataBlob dataBlob;
+    protected DataBlob dataBlob;
 
-    private String adminFilePath;
-    private String studentFilePath;
-    private String employerFilePath;
-    private String professorFilePath;
-    private String reviewFilePath;
-    private String jobPostingFilePath;
+    protected String adminFilePath;
+    protected String studentFilePath;
+    protected String employerFilePath;
+    protected String professorFilePath;
+    protected String reviewFilePath;
+    protected String jobPostingFilePath;
 
-    private static final JSONParser parser = new JSONParser();
+    private Map<String, Long> readTimes;
+
+    private static final int READ_THREADS = 4;
 
     /**
      * Construtor method
@@ -59,46 +67,101 @@ public class JsonDataReader extends DataReader {
         this.professorFilePath = professorFilePath;
         this.reviewFilePath = reviewFilePath;
         this.jobPostingFilePath = jobPostingFilePath;
+        this.readTimes = new ConcurrentHashMap<String, Long>();
     }
 
     /**
-     * Reads the data from the JSON files and stores it in a DataBlob object.
+     * Reads the data from the JSON files and stores it in a DataBlob object. The
+     * four user files are read at the same time, then the reviews and job postings
+     * are read at the same time once every user is known. Each read method makes
+     * its own JSONParser because the parser is not thread safe. A save that was
+     * interrupted is finished or cleaned up before anything is read.
      */
     public DataBlob read() {
         Logger.getInstance().log("Reading from files");
-        dataBlob = new DataBlob();
+        AtomicFileSet.recover(AtomicFileSet.markerNextTo(studentFilePath), adminFilePath, studentFilePath,
+                employerFilePath, professorFilePath, reviewFilePath, jobPostingFilePath);
+        dataBlob = createDataBlob();
+        readTimes = new ConcurrentHashMap<String, Long>();
+        long start = System.nanoTime();
 
-        ArrayList<Admin> adminList = readAdministrators();
-        for (Admin admin : adminList) {
-            dataBlob.addUser(admin);
-        }
+        ExecutorService pool = Executors.newFixedThreadPool(READ_THREADS);
+        try {
+            CompletableFuture<ArrayList<Admin>> adminList = CompletableFuture
+                    .supplyAsync(() -> timed(adminFilePath, this::readAdministrators), pool);
+            CompletableFuture<ArrayList<Student>> studentList = CompletableFuture
+                    .supplyAsync(() -> timed(studentFilePath, this::readStudents), pool);
+            CompletableFuture<ArrayList<Employer>> employerList = CompletableFuture
+                    .supplyAsync(() -> timed(employerFilePath, this::readEmployers), pool);
+            CompletableFuture<ArrayList<Professor>> professorList = CompletableFuture
+                    .supplyAsync(() -> timed(professorFilePath, this::readProfessors), pool);
+
+            // users are added in file order so the users list looks the same as a serial read
+            for (Admin admin : adminList.join()) {
+                dataBlob.addUser(admin);
+            }
+            for (Student student : studentList.join()) {
+                dataBlob.addUser(student);
+            }
+            for (Employer employer : employerList.join()) {
+                dataBlob.addUser(employer);
+            }
+            for (Professor professor : professorList.join()) {
+                dataBlob.addUser(professor);
+            }
 
-        ArrayList<Student> studentList = readStudents();
-        for (Student student : studentList) {
-            dataBlob.addUser(student);
-        }
+            CompletableFuture<ArrayList<Review>> reviewList = CompletableFuture
+                    .supplyAsync(() -> timed(reviewFilePath, this::readReviews), pool);
+            CompletableFuture<ArrayList<JobPosting>> jobPostingList = CompletableFuture
+                    .supplyAsync(() -> timed(jobPostingFilePath, this::readJobPostings), pool);
 
-        ArrayList<Employer> employerList = readEmployers();
-        for (Employer employer : employerList) {
-            dataBlob.addUser(employer);
+            for (Review review : reviewList.join()) {
+                dataBlob.addReview(review);
+            }
+            for (JobPosting jobPosting : jobPostingList.join()) {
+                dataBlob.addJobPosting(jobPosting);
+            }
+        } finally {
+            pool.shutdown();
         }
 
-        ArrayList<Professor> professorList = readProfessors();
-        for (Professor professor : professorList) {
-            dataBlob.addUser(professor);
-        }
+        Logger.getInstance().log("Read all files in " + (System.nanoTime() - start) / 1000000 + " ms");
+        return dataBlob;
+    }
 
-        ArrayList<Review> reviewList = readReviews();
-        for (Review review : reviewList) {
-            dataBlob.addReview(review);
-        }
+    /**
+     * Creates the DataBlob the files are read into. Readers that need to look up
+     * users stored elsewhere can add them to it first
+     * 
+     * @return an empty DataBlob
+     */
+    protected DataBlob createDataBlob() {
+        return new DataBlob();
+    }
 
-        ArrayList<JobPosting> jobPostingList = readJobPostings();
-        for (JobPosting jobPosting : jobPostingList) {
-            dataBlob.addJobPosting(jobPosting);
-        }
+    /**
+     * Runs one file's read method and records how long it took
+     * 
+     * @param filePath the file being read
+     * @param read     the method that reads it
+     * @return what the read method returned
+     */
+    private <T> ArrayList<T> timed(String filePath, Supplier<ArrayList<T>> read) {
+        long start = System.nanoTime();
+        ArrayList<T> result = read.get();
+        long millis = (System.nanoTime() - start) / 1000000;
+        readTimes.put(filePath, millis);
+        Logger.getInstance().log("Read " + filePath + " in " + millis + " ms");
+        return result;
+    }
 
-        return dataBlob;
+    /**
+     * Get method for how long each file took during the last read
+     * 
+     * @return Map from file path to milliseconds
+     */
+    public Map<String, Long> getReadTimes() {
+        return readTimes;
     }
 
     /**
@@ -106,11 +169,11 @@ public class JsonDataReader extends DataReader {
      * 
      * @return ArrayList of administrators
      */
-    private ArrayList<Admin> readAdministrators() {
+    protected ArrayList<Admin> readAdministrators() {
         ArrayList<Admin> adminList = new ArrayList<Admin>();
         try {
             FileReader reader = new FileReader(adminFilePath);
-            JSONArray jsonList = (JSONArray) parser.parse(reader);
+            JSONArray jsonList = (JSONArray) new JSONParser().parse(reader);
             for (Object adminObj : jsonList) {
                 JSONObject adminJson = (JSONObject) adminObj;
                 Admin admin = new Admin.Builder().id(UUID.fromString((String) adminJson.get(JsonDataLabels.USER_ID)))
@@ -132,11 +195,11 @@ public class JsonDataReader extends DataReader {
      * Reads the students from the JSON file and returns them in an ArrayList.
      * @return ArrayList of students
      */
-    private ArrayList<Student> readStudents() {
+    protected ArrayList<Student> readStudents() {
         ArrayList<Student> studentList = new ArrayList<Student>();
         try {
             FileReader reader = new FileReader(studentFilePath);
-            JSONArray jsonList = (JSONArray) parser.parse(reader);
+            JSONArray jsonList = (JSONArray) new JSONParser().parse(reader);
             if (jsonList != null) {
                 for (Object studentObj : jsonList) {
                     JSONObject studentJson = (JSONObject) studentObj;
@@ -189,17 +252,7 @@ public class JsonDataReader extends DataReader {
                         }
                     }
 
-                    Major major = Major.NA;
-                    String majorStr = (String) studentJson.get(JsonDataLabels.STUDENT_MAJOR);
-                    if (majorStr.equalsIgnoreCase(Major.COMPUTER_SCIENCE.toString())) {
-                        major = Major.COMPUTER_SCIENCE;
-                    } else if (majorStr.equalsIgnoreCase(Major.COMPUTER_ENGINEERING.toString())) {
-                        major = Major.COMPUTER_ENGINEERING;
-                    } else if (majorStr.equalsIgnoreCase(Major.COMPUTER_INFORMATION_SYSTEMS.toString())) {
-                        major = Major.COMPUTER_INFORMATION_SYSTEMS;
-                    } else if (majorStr.equalsIgnoreCase(Major.INTEGRATED_INFORMATION_TECHNOLOGY.toString())) {
-                        major = Major.INTEGRATED_INFORMATION_TECHNOLOGY;
-                    }
+                    Major major = parseMajor((String) studentJson.get(JsonDataLabels.STUDENT_MAJOR));
 
                     Student student = new Student.Builder()
                             .id(UUID.fromString((String) studentJson.get(JsonDataLabels.USER_ID)))
@@ -226,11 +279,11 @@ public class JsonDataReader extends DataReader {
      * Reads the employers from the JSON file and returns them in an ArrayList.
      * @return ArrayList of employers
      */
-    private ArrayList<Employer> readEmployers() {
+    protected ArrayList<Employer> readEmployers() {
         ArrayList<Employer> employerList = new ArrayList<Employer>();
         try {
             FileReader reader = new FileReader(employerFilePath);
-            JSONArray jsonList = (JSONArray) parser.parse(reader);
+            JSONArray jsonList = (JSONArray) new JSONParser().parse(reader);
             if (jsonList != null) {
                 for (Object employerObj : jsonList) {
                     JSONObject employerJson = (JSONObject) employerObj;
@@ -259,11 +312,11 @@ public class JsonDataReader extends DataReader {
      * Reads the professors from the JSON file and returns them in an ArrayList.
      * @return ArrayList of professors
      */
-    private ArrayList<Professor> readProfessors() {
+    protected ArrayList<Professor> readProfessors() {
         ArrayList<Professor> professorList = new ArrayList<Professor>();
         try {
             FileReader reader = new FileReader(professorFilePath);
-            JSONArray jsonList = (JSONArray) parser.parse(reader);
+            JSONArray jsonList = (JSONArray) new JSONParser().parse(reader);
             if (jsonList != null) {
                 for (Object professorObj : jsonList) {
                     JSONObject professorJson = (JSONObject) professorObj;
@@ -290,35 +343,23 @@ public class JsonDataReader extends DataReader {
      * Reads the reviews from the JSON file and returns them in an ArrayList.
      * @return ArrayList of reviews
      */
-    private ArrayList<Review> readReviews() {
+    protected ArrayList<Review> readReviews() {
         ArrayList<Review> reviewList = new ArrayList<Review>();
         try {
             FileReader reader = new FileReader(reviewFilePath);
-            JSONArray jsonList = (JSONArray) parser.parse(reader);
+            JSONArray jsonList = (JSONArray) new JSONParser().parse(reader);
             if (jsonList != null) {
                 for (Object reviewObj : jsonList) {
                     JSONObject reviewJson = (JSONObject) reviewObj;
 
-                    User reviewee = null;
-                    for (User user : dataBlob.getUsers()) {
-                        if (user.getId()
-                                .equals(UUID.fromString((String) reviewJson.get(JsonDataLabels.REVIEW_REVIEWEE)))) {
-                            reviewee = user;
-                            break;
-                        }
-                    }
+                    User reviewee = dataBlob
+                            .getUserById(UUID.fromString((String) reviewJson.get(JsonDataLabels.REVIEW_REVIEWEE)));
                     if (reviewee == null) {
                         throw new Exception("Student not found");
                     }
 
-                    User reviewer = null;
-                    for (User user : dataBlob.getUsers()) {
-                        if (user.getId()
-                                .equals(UUID.fromString((String) reviewJson.get(JsonDataLabels.REVIEW_REVIEWER)))) {
-                            reviewer = user;
-                            break;
-                        }
-                    }
+                    User reviewer = dataBlob
+                            .getUserById(UUID.fromString((String) reviewJson.get(JsonDataLabels.REVIEW_REVIEWER)));
                     if (reviewer == null) {
                         throw new Exception("Reviewer not found");
                     }
@@ -341,23 +382,17 @@ public class JsonDataReader extends DataReader {
      * Reads the job postings from the JSON file and returns them in an ArrayList.
      * @return ArrayList of job postings
      */
-    private ArrayList<JobPosting> readJobPostings() {
+    protected ArrayList<JobPosting> readJobPostings() {
         ArrayList<JobPosting> jobPostingList = new ArrayList<JobPosting>();
         try {
             FileReader reader = new FileReader(jobPostingFilePath);
-            JSONArray jsonList = (JSONArray) parser.parse(reader);
+            JSONArray jsonList = (JSONArray) new JSONParser().parse(reader);
             if (jsonList != null) {
                 for (Object jobPostingObj : jsonList) {
                     JSONObject jobPostingJson = (JSONObject) jobPostingObj;
 
-                    Employer employer = null;
-                    for (User e : dataBlob.getUsers()) {
-                        if (e.getId().equals(
-                                UUID.fromString((String) jobPostingJson.get(JsonDataLabels.JOBPOSTING_EMPLOYER)))) {
-                            employer = (Employer) e;
-                            break;
-                        }
-                    }
+                    UUID employerId = UUID.fromString((String) jobPostingJson.get(JsonDataLabels.JOBPOSTING_EMPLOYER));
+                    Employer employer = (Employer) dataBlob.getUserById(employerId);
                     if (employer == null) {
                         throw new Exception("Employer not found");
                     }
@@ -370,42 +405,19 @@ public class JsonDataReader extends DataReader {
                         }
                     }
 
-                    JobPostingStatus status = JobPostingStatus.NA;
-                    switch (((String) jobPostingJson.get(JsonDataLabels.JOBPOSTING_STATUS)).toLowerCase()) {
-                    case "open":
-                        status = JobPostingStatus.OPEN;
-                        break;
-                    case "closed":
-                        status = JobPostingStatus.CLOSED;
-                        break;
-                    case "pending":
-                        status = JobPostingStatus.PENDING;
-                        break;
-                    }
+                    JobPostingStatus status = parseStatus(
+                            (String) jobPostingJson.get(JsonDataLabels.JOBPOSTING_STATUS));
 
-                    // Get students by getting UUIDS and then searching for each UUID
-                    ArrayList<UUID> applicantIds = new ArrayList<UUID>();
+                    // Get students by looking up each applicant UUID
+                    ArrayList<Student> applicants = new ArrayList<Student>();
                     JSONArray applicantList = (JSONArray) jobPostingJson.get(JsonDataLabels.JOBPOSTING_APPLICANTS);
                     if (applicantList != null) {
-
                         for (Object applicantObj : applicantList) {
-                            applicantIds.add(UUID.fromString((String) applicantObj));
-                        }
-                    }
-
-                    ArrayList<Student> applicants = new ArrayList<Student>();
-                    for (UUID id : applicantIds) {
-                        boolean userFound = false;
-                        for (User u : dataBlob.getUsers()) {
-                            if (u.getId().equals(id)) {
-                                applicants.add((Student) u);
-                                userFound = true;
-                                break;
+                            User applicant = dataBlob.getUserById(UUID.fromString((String) applicantObj));
+                            if (applicant == null) {
+                                throw new Exception("Student not found");
                             }
-                        }
-
-                        if (!userFound) {
-                            throw new Exception("Student not found");
+                            applicants.add((Student) applicant);
                         }
                     }
 
@@ -426,4 +438,45 @@ public class JsonDataReader extends DataReader {
         return jobPostingList;
     }
 
+    /**
+     * Converts the major text stored in the JSON files to a Major
+     * 
+     * @param majorStr the stored major
+     * @return the matching Major, or Major.NA if none match
+     */
+    protected static Major parseMajor(String majorStr) {
+        Major major = Major.NA;
+        if (majorStr.equalsIgnoreCase(Major.COMPUTER_SCIENCE.toString())) {
+            major = Major.COMPUTER_SCIENCE;
+        } else if (majorStr.equalsIgnoreCase(Major.COMPUTER_ENGINEERING.toString())) {
+            major = Major.COMPUTER_ENGINEERING;
+        } else if (majorStr.equalsIgnoreCase(Major.COMPUTER_INFORMATION_SYSTEMS.toString())) {
+            major = Major.COMPUTER_INFORMATION_SYSTEMS;
+        } else if (majorStr.equalsIgnoreCase(Major.INTEGRATED_INFORMATION_TECHNOLOGY.toString())) {
+            major = Major.INTEGRATED_INFORMATION_TECHNOLOGY;
+        }
+        return major;
+    }
+
+    /**
+     * Converts the status text stored in the JSON files to a JobPostingStatus
+     * 
+     * @param statusStr the stored status
+     * @return the matching JobPostingStatus, or JobPostingStatus.NA if none match
+     */
+    protected static JobPostingStatus parseStatus(String statusStr) {
+        JobPostingStatus status = JobPostingStatus.NA;
+        switch (statusStr.toLowerCase()) {
+        case "open":
+            status = JobPostingStatus.OPEN;
+            break;
+        case "closed":
+            status = JobPostingStatus.CLOSED;
+            break;
+        case "pending":
+            status = JobPostingStatus.PENDING;
+            break;
+        }
+        return status;
+    }
 }
@@ -1,11 +1,17 @@
 package database;
 
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Set;
 
-import org.json.simple.JSONArray;
-import org.json.simple.JSONObject;
+import com.google.gson.stream.JsonWriter;
 
 import dataTypes.Admin;
 import dataTypes.DataBlob;
@@ -17,18 +23,17 @@ import dataTypes.Professor;
 import dataTypes.Review;
 import dataTypes.Student;
 import dataTypes.User;
+import enums.DataCollection;
 import enums.JsonDataLabels;
 
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonParser;
-import com.google.gson.Gson;
-
 /**
- * This class is used to write data to a JSON file.
+ * This class is used to write data to a JSON file. Objects are streamed straight
+ * to the file, with keys in the same order the JSONObject based writer produced.
  * @author Brennan Cain (Brenn10)
  */
 public class JsonDataWriter extends DataWriter {
+    private static final String INDENT = "  ";
+
     private String adminFilePath;
     private String studentFilePath;
     private String employerFilePath;
@@ -70,9 +75,57 @@ public class JsonDataWriter extends DataWriter {
      * @param jobPostings The job postings to write.
      */
     public void write(ArrayList<User> users, ArrayList<Review> reviews, ArrayList<JobPosting> postings) {
-        writeUsers(users);
-        writeReviews(reviews);
-        writeJobPostings(postings);
+        write(users, reviews, postings, EnumSet.allOf(DataCollection.class));
+    }
+
+    /**
+     * Writes only the JSON files of the changed collections. Every file is written
+     * to a temporary file first and the whole group replaces the old files at
+     * once, so a crash never leaves a half written or mismatched set of files.
+     * @param users The users to write.
+     * @param reviews The reviews to write.
+     * @param postings The job postings to write.
+     * @param changed The collections whose files are rewritten.
+     */
+    @Override
+    public void write(ArrayList<User> users, ArrayList<Review> reviews, ArrayList<JobPosting> postings,
+            Set<DataCollection> changed) {
+        AtomicFileSet files = new AtomicFileSet(AtomicFileSet.markerNextTo(studentFilePath));
+        boolean committed = false;
+        try {
+            stage(users, reviews, postings, changed, files);
+            files.commit();
+            committed = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (!committed) {
+                files.abort();
+            }
+        }
+    }
+
+    /**
+     * Writes the JSON files of the changed collections to temporary files of a
+     * group that the caller commits.
+     * @param users The users to write.
+     * @param reviews The reviews to write.
+     * @param postings The job postings to write.
+     * @param changed The collections whose files are rewritten.
+     * @param files The group of files being saved.
+     */
+    void stage(ArrayList<User> users, ArrayList<Review> reviews, ArrayList<JobPosting> postings,
+            Set<DataCollection> changed, AtomicFileSet files) throws IOException {
+        if (changed.contains(DataCollection.STUDENTS) || changed.contains(DataCollection.EMPLOYERS)
+                || changed.contains(DataCollection.PROFESSORS) || changed.contains(DataCollection.ADMINS)) {
+            writeUsers(users, changed, files);
+        }
+        if (changed.contains(DataCollection.REVIEWS)) {
+            writePrettyJson(reviews, files.stage(reviewFilePath), this::writeReview);
+        }
+        if (changed.contains(DataCollection.POSTINGS)) {
+            writePrettyJson(postings, files.stage(jobPostingFilePath), this::writeJobPosting);
+        }
     }
 
     /**
@@ -80,11 +133,7 @@ public class JsonDataWriter extends DataWriter {
      * @param reviews The reviews to write.
      */
     public void writeReviews(ArrayList<Review> reviews) {
-        JSONArray jsonReviews = new JSONArray();
-        for (Review review : reviews) {
-            jsonReviews.add(jsonify(review));
-        }
-        writePrettyJson(jsonReviews, reviewFilePath);
+        write(null, reviews, null, EnumSet.of(DataCollection.REVIEWS));
     }
 
     /**
@@ -92,11 +141,7 @@ public class JsonDataWriter extends DataWriter {
      * @param postings The job postings to write.
      */
     public void writeJobPostings(ArrayList<JobPosting> postings) {
-        JSONArray jsonPostings = new JSONArray();
-        for (JobPosting posting : postings) {
-            jsonPostings.add(jsonify(posting));
-        }
-        writePrettyJson(jsonPostings, jobPostingFilePath);
+        write(null, null, postings, EnumSet.of(DataCollection.POSTINGS));
     }
 
     /**
@@ -104,218 +149,268 @@ public class JsonDataWriter extends DataWriter {
      * @param users The users to write.
      */
     public void writeUsers(ArrayList<User> users) {
-        JSONArray studentArray = new JSONArray();
-        JSONArray employerArray = new JSONArray();
-        JSONArray professorArray = new JSONArray();
-        JSONArray adminArray = new JSONArray();
+        write(users, null, null, EnumSet.of(DataCollection.STUDENTS, DataCollection.EMPLOYERS,
+                DataCollection.PROFESSORS, DataCollection.ADMINS));
+    }
+
+    /**
+     * Writes the user files of the changed collections to temporary files.
+     * @param users The users to write.
+     * @param changed The collections whose files are rewritten.
+     * @param files The group of files being saved.
+     */
+    private void writeUsers(ArrayList<User> users, Set<DataCollection> changed, AtomicFileSet files)
+            throws IOException {
+        ArrayList<Student> students = new ArrayList<Student>();
+        ArrayList<Employer> employers = new ArrayList<Employer>();
+        ArrayList<Professor> professors = new ArrayList<Professor>();
+        ArrayList<Admin> admins = new ArrayList<Admin>();
 
         for (User user : users) {
             if (user instanceof Student) {
-                studentArray.add(jsonify((Student) user));
+                students.add((Student) user);
             } else if (user instanceof Employer) {
-                employerArray.add(jsonify((Employer) user));
+                employers.add((Employer) user);
             } else if (user instanceof Professor) {
-                professorArray.add(jsonify((Professor) user));
+                professors.add((Professor) user);
             } else if (user instanceof Admin) {
-                adminArray.add(jsonify((Admin) user));
+                admins.add((Admin) user);
             } else {
                 throw new IllegalArgumentException("User type not supported");
             }
         }
 
-        writePrettyJson(studentArray, studentFilePath);
-        writePrettyJson(employerArray, employerFilePath);
-        writePrettyJson(professorArray, professorFilePath);
-        writePrettyJson(adminArray, adminFilePath);
+        if (changed.contains(DataCollection.STUDENTS)) {
+            writePrettyJson(students, files.stage(studentFilePath), this::writeStudent);
+        }
+        if (changed.contains(DataCollection.EMPLOYERS)) {
+            writePrettyJson(employers, files.stage(employerFilePath), this::writeEmployer);
+        }
+        if (changed.contains(DataCollection.PROFESSORS)) {
+            writePrettyJson(professors, files.stage(professorFilePath), this::writeProfessor);
+        }
+        if (changed.contains(DataCollection.ADMINS)) {
+            writePrettyJson(admins, files.stage(adminFilePath), this::writeAdmin);
+        }
     }
 
     /**
-     * Writes the JSON data in a pretty format to a file.
-     * @param json The JSON data to write.
-     * @param fileName The file to write to.
+     * Writes one object to an open JSON stream.
      */
-    private void writePrettyJson(JSONArray json, String fileName) {
-        Gson gson = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
-        JsonElement je = JsonParser.parseString(json.toJSONString());
-        String prettyJsonString = gson.toJson(je);
-
-        FileWriter writer = null;
-        try {
+    private interface RecordWriter<T> {
+        void write(JsonWriter out, T record) throws IOException;
+    }
 
-            writer = new FileWriter(fileName);
-            writer.write(prettyJsonString);
-        } catch (Exception e) {
-            e.printStackTrace();
-        } finally {
-            if (writer != null) {
-                try {
-                    writer.close();
-                } catch (IOException e) {
-                    // TODO Auto-generated catch block
-                    e.printStackTrace();
-                }
+    /**
+     * Streams a list of objects to a file as a pretty printed JSON array and syncs
+     * it to disk.
+     * @param records The objects to write.
+     * @param file The file to write to.
+     * @param recordWriter Writes a single object.
+     */
+    private <T> void writePrettyJson(ArrayList<T> records, Path file, RecordWriter<T> recordWriter)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+                JsonWriter out = new JsonWriter(Channels.newWriter(channel, StandardCharsets.UTF_8))) {
+            out.setIndent(INDENT);
+            out.setSerializeNulls(false);
+            out.beginArray();
+            for (T record : records) {
+                recordWriter.write(out, record);
             }
+            out.endArray();
+            out.flush();
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Writes an array of strings.
+     * @param out The stream to write to.
+     * @param strings The strings to write.
+     */
+    private static void writeStrings(JsonWriter out, ArrayList<String> strings) throws IOException {
+        out.beginArray();
+        for (String string : strings) {
+            out.value(string);
         }
+        out.endArray();
     }
 
     /**
-     * Converts a student to a JSON object.
-     * @param student The student to convert.
-     * @return The JSON object.
+     * Writes a student as a JSON object.
+     * @param out The stream to write to.
+     * @param student The student to write.
      */
-    private JSONObject jsonify(Student student) {
-        JSONObject studentJson = new JSONObject();
-        studentJson.put(JsonDataLabels.USER_ID.toString(), student.getId());
-        studentJson.put(JsonDataLabels.USER_USERNAME, student.getUsername());
-        studentJson.put(JsonDataLabels.USER_PASSWORD, student.getPassword());
-        studentJson.put(JsonDataLabels.USER_FIRSTNAME, student.getFirstName());
-        studentJson.put(JsonDataLabels.USER_LASTNAME, student.getLastName());
-        studentJson.put(JsonDataLabels.USER_EMAIL, student.getEmail());
-        studentJson.put(JsonDataLabels.USER_APPROVED, student.isApproved());
-        studentJson.put(JsonDataLabels.STUDENT_MAJOR, student.getMajor().toString());
-        studentJson.put(JsonDataLabels.STUDENT_CREATEDRESUME, student.hasCreatedResume());
-        studentJson.put(JsonDataLabels.REMOVED, student.isRemoved());
-        studentJson.put(JsonDataLabels.STUDENT_AVERAGERATING, student.getAverageReview());
+    private void writeStudent(JsonWriter out, Student student) throws IOException {
+        // a student that was never used is copied as is rather than decoded
+        String rawRecord = student.getRawRecord();
+        if (rawRecord != null) {
+            out.jsonValue(rawRecord);
+            return;
+        }
+        out.beginObject();
         if (student.hasCreatedResume()) {
-            JSONArray jsonSkills = new JSONArray();
-            for (String skill : student.getTechnicalSkills()) {
-                jsonSkills.add(skill);
+            out.name(JsonDataLabels.USER_LASTNAME).value(student.getLastName());
+            out.name(JsonDataLabels.STUDENT_CREATEDRESUME).value(student.hasCreatedResume());
+
+            // sections still held as the JSON they were read from are copied as is
+            out.name(JsonDataLabels.STUDENT_EDUCATIONS);
+            String rawEducations = student.getRawEducations();
+            if (rawEducations != null) {
+                out.jsonValue(rawEducations);
+            } else {
+                out.beginArray();
+                for (Education education : student.getEducations()) {
+                    out.beginObject();
+                    out.name(JsonDataLabels.STUDENT_EDUCATION_GPA).value(education.getGpa());
+                    out.name(JsonDataLabels.STUDENT_EDUCATION_GRADDATE).value(education.getGradDate());
+                    out.name(JsonDataLabels.STUDENT_EDUCATION_PLACE).value(education.getPlace());
+                    out.endObject();
+                }
+                out.endArray();
             }
-            studentJson.put(JsonDataLabels.STUDENT_SKILLS, jsonSkills);
-
-            JSONArray jsonEmployments = new JSONArray();
-            for (Employment employment : student.getEmployments()) {
-                JSONObject jsonEmployment = new JSONObject();
-                jsonEmployment.put(JsonDataLabels.STUDENT_EMPLOYMENT_COMPANY, employment.getCompany());
-                jsonEmployment.put(JsonDataLabels.STUDENT_EMPLOYMENT_DATES, employment.getDates());
-                jsonEmployment.put(JsonDataLabels.STUDENT_EMPLOYMENT_TITLE, employment.getTitle());
 
-                JSONArray details = new JSONArray();
-                for (String detail : employment.getDetails()) {
-                    details.add(detail);
+            out.name(JsonDataLabels.STUDENT_EMPLOYMENTS);
+            String rawEmployments = student.getRawEmployments();
+            if (rawEmployments != null) {
+                out.jsonValue(rawEmployments);
+            } else {
+                out.beginArray();
+                for (Employment employment : student.getEmployments()) {
+                    out.beginObject();
+                    out.name(JsonDataLabels.STUDENT_EMPLOYMENT_COMPANY).value(employment.getCompany());
+                    out.name(JsonDataLabels.STUDENT_EMPLOYMENT_DATES).value(employment.getDates());
+                    out.name(JsonDataLabels.STUDENT_EMPLOYMENT_DETAILS);
+                    writeStrings(out, employment.getDetails());
+                    out.name(JsonDataLabels.STUDENT_EMPLOYMENT_TITLE).value(employment.getTitle());
+                    out.endObject();
                 }
-                jsonEmployment.put(JsonDataLabels.STUDENT_EMPLOYMENT_DETAILS, details);
-
-                jsonEmployments.add(jsonEmployment);
+                out.endArray();
             }
-            studentJson.put(JsonDataLabels.STUDENT_EMPLOYMENTS, jsonEmployments);
 
-            JSONArray jsonEducations = new JSONArray();
-            for (Education education : student.getEducations()) {
-                JSONObject jsonEducation = new JSONObject();
-                jsonEducation.put(JsonDataLabels.STUDENT_EDUCATION_GPA, education.getGpa());
-                jsonEducation.put(JsonDataLabels.STUDENT_EDUCATION_GRADDATE, education.getGradDate());
-                jsonEducation.put(JsonDataLabels.STUDENT_EDUCATION_PLACE, education.getPlace());
-
-                jsonEducations.add(jsonEducation);
-            }
-            studentJson.put(JsonDataLabels.STUDENT_EDUCATIONS.toString(), jsonEducations);
+            out.name(JsonDataLabels.STUDENT_SKILLS);
+            String rawSkills = student.getRawTechnicalSkills();
+            if (rawSkills != null)
+                out.jsonValue(rawSkills);
+            else
+                writeStrings(out, student.getTechnicalSkills());
+            out.name(JsonDataLabels.USER_FIRSTNAME).value(student.getFirstName());
+            out.name(JsonDataLabels.USER_PASSWORD).value(student.getPassword());
+            out.name(JsonDataLabels.USER_APPROVED).value(student.isApproved());
+            out.name(JsonDataLabels.STUDENT_MAJOR).value(student.getMajor().toString());
+            out.name(JsonDataLabels.REMOVED).value(student.isRemoved());
+            out.name(JsonDataLabels.STUDENT_AVERAGERATING).value(student.getAverageReview());
+        } else {
+            out.name(JsonDataLabels.USER_FIRSTNAME).value(student.getFirstName());
+            out.name(JsonDataLabels.USER_LASTNAME).value(student.getLastName());
+            out.name(JsonDataLabels.USER_PASSWORD).value(student.getPassword());
+            out.name(JsonDataLabels.USER_APPROVED).value(student.isApproved());
+            out.name(JsonDataLabels.STUDENT_MAJOR).value(student.getMajor().toString());
+            out.name(JsonDataLabels.REMOVED).value(student.isRemoved());
+            out.name(JsonDataLabels.STUDENT_CREATEDRESUME).value(student.hasCreatedResume());
+            out.name(JsonDataLabels.STUDENT_AVERAGERATING).value(student.getAverageReview());
         }
-
-        return studentJson;
+        out.name(JsonDataLabels.USER_ID).value(student.getId().toString());
+        out.name(JsonDataLabels.USER_EMAIL).value(student.getEmail());
+        out.name(JsonDataLabels.USER_USERNAME).value(student.getUsername());
+        out.endObject();
     }
 
     /**
-     * Converts an employer to a JSON object.
-     * @param employer The employer to convert.
-     * @return The JSON object.
+     * Writes an employer as a JSON object.
+     * @param out The stream to write to.
+     * @param employer The employer to write.
      */
-    private JSONObject jsonify(Employer employer) {
-        JSONObject employerJson = new JSONObject();
-        employerJson.put(JsonDataLabels.USER_ID, employer.getId());
-        employerJson.put(JsonDataLabels.USER_USERNAME, employer.getUsername());
-        employerJson.put(JsonDataLabels.USER_PASSWORD, employer.getPassword());
-        employerJson.put(JsonDataLabels.USER_FIRSTNAME, employer.getFirstName());
-        employerJson.put(JsonDataLabels.USER_LASTNAME, employer.getLastName());
-        employerJson.put(JsonDataLabels.USER_EMAIL, employer.getEmail());
-        employerJson.put(JsonDataLabels.USER_APPROVED, employer.isApproved());
-        employerJson.put(JsonDataLabels.EMPLOYER_COMPANY, employer.getCompany());
-        employerJson.put(JsonDataLabels.EMPLOYER_AVERAGERATING, employer.getAverageRating());
-        employerJson.put(JsonDataLabels.REMOVED, employer.isRemoved());
-        return employerJson;
+    private void writeEmployer(JsonWriter out, Employer employer) throws IOException {
+        out.beginObject();
+        out.name(JsonDataLabels.USER_FIRSTNAME).value(employer.getFirstName());
+        out.name(JsonDataLabels.USER_LASTNAME).value(employer.getLastName());
+        out.name(JsonDataLabels.USER_PASSWORD).value(employer.getPassword());
+        out.name(JsonDataLabels.USER_APPROVED).value(employer.isApproved());
+        out.name(JsonDataLabels.REMOVED).value(employer.isRemoved());
+        out.name(JsonDataLabels.EMPLOYER_AVERAGERATING).value(employer.getAverageRating());
+        out.name(JsonDataLabels.EMPLOYER_COMPANY).value(employer.getCompany());
+        out.name(JsonDataLabels.USER_ID).value(employer.getId().toString());
+        out.name(JsonDataLabels.USER_EMAIL).value(employer.getEmail());
+        out.name(JsonDataLabels.USER_USERNAME).value(employer.getUsername());
+        out.endObject();
     }
 
     /**
-     * Converts a professor to a JSON object.
-     * @param professor The professor to convert.
-     * @return The JSON object.
+     * Writes a professor as a JSON object.
+     * @param out The stream to write to.
+     * @param professor The professor to write.
      */
-    private JSONObject jsonify(Professor professor) {
-        JSONObject professorJson = new JSONObject();
-        professorJson.put(JsonDataLabels.USER_ID, professor.getId());
-        professorJson.put(JsonDataLabels.USER_USERNAME, professor.getUsername());
-        professorJson.put(JsonDataLabels.USER_PASSWORD, professor.getPassword());
-        professorJson.put(JsonDataLabels.USER_FIRSTNAME, professor.getFirstName());
-        professorJson.put(JsonDataLabels.USER_LASTNAME, professor.getLastName());
-        professorJson.put(JsonDataLabels.USER_EMAIL, professor.getEmail());
-        professorJson.put(JsonDataLabels.USER_APPROVED, professor.isApproved());
-        professorJson.put(JsonDataLabels.REMOVED, professor.isRemoved());
-        return professorJson;
+    private void writeProfessor(JsonWriter out, Professor professor) throws IOException {
+        out.beginObject();
+        out.name(JsonDataLabels.USER_FIRSTNAME).value(professor.getFirstName());
+        out.name(JsonDataLabels.USER_LASTNAME).value(professor.getLastName());
+        out.name(JsonDataLabels.USER_PASSWORD).value(professor.getPassword());
+        out.name(JsonDataLabels.USER_APPROVED).value(professor.isApproved());
+        out.name(JsonDataLabels.REMOVED).value(professor.isRemoved());
+        out.name(JsonDataLabels.USER_ID).value(professor.getId().toString());
+        out.name(JsonDataLabels.USER_EMAIL).value(professor.getEmail());
+        out.name(JsonDataLabels.USER_USERNAME).value(professor.getUsername());
+        out.endObject();
     }
 
     /**
-     * Converts an admin to a JSON object.
-     * @param admin The admin to convert.
-     * @return The JSON object.
+     * Writes an admin as a JSON object.
+     * @param out The stream to write to.
+     * @param admin The admin to write.
      */
-    private JSONObject jsonify(Admin admin) {
-        JSONObject adminJson = new JSONObject();
-        adminJson.put(JsonDataLabels.USER_ID, admin.getId().toString());
-        adminJson.put(JsonDataLabels.USER_USERNAME, admin.getUsername());
-        adminJson.put(JsonDataLabels.USER_PASSWORD, admin.getPassword());
-        adminJson.put(JsonDataLabels.USER_FIRSTNAME, admin.getFirstName());
-        adminJson.put(JsonDataLabels.USER_LASTNAME, admin.getLastName());
-        adminJson.put(JsonDataLabels.USER_EMAIL, admin.getEmail());
-        adminJson.put(JsonDataLabels.USER_APPROVED, admin.isApproved());
-        return adminJson;
+    private void writeAdmin(JsonWriter out, Admin admin) throws IOException {
+        out.beginObject();
+        out.name(JsonDataLabels.USER_FIRSTNAME).value(admin.getFirstName());
+        out.name(JsonDataLabels.USER_LASTNAME).value(admin.getLastName());
+        out.name(JsonDataLabels.USER_PASSWORD).value(admin.getPassword());
+        out.name(JsonDataLabels.USER_APPROVED).value(admin.isApproved());
+        out.name(JsonDataLabels.USER_ID).value(admin.getId().toString());
+        out.name(JsonDataLabels.USER_EMAIL).value(admin.getEmail());
+        out.name(JsonDataLabels.USER_USERNAME).value(admin.getUsername());
+        out.endObject();
     }
 
     /**
-     * Converts a review to a JSON object.
-     * @param review The review to convert.
-     * @return The JSON object.
+     * Writes a review as a JSON object.
+     * @param out The stream to write to.
+     * @param review The review to write.
      */
-    private JSONObject jsonify(Review review) { // TODO: implement
-        JSONObject reviewJson = new JSONObject();
-
-        reviewJson.put(JsonDataLabels.REVIEW_ID, review.getId().toString());
-        reviewJson.put(JsonDataLabels.REVIEW_REVIEWEE, review.getReviewee().getId().toString());
-        reviewJson.put(JsonDataLabels.REVIEW_REVIEWER, review.getReviewer().getId().toString());
-        reviewJson.put(JsonDataLabels.REVIEW_RATING, review.getRating());
-        reviewJson.put(JsonDataLabels.REVIEW_COMMENT, review.getComment());
-        reviewJson.put(JsonDataLabels.REMOVED, review.isRemoved());
-        return reviewJson;
+    private void writeReview(JsonWriter out, Review review) throws IOException {
+        out.beginObject();
+        out.name(JsonDataLabels.REMOVED).value(review.isRemoved());
+        out.name(JsonDataLabels.REVIEW_REVIEWEE).value(review.getReviewee().getId().toString());
+        out.name(JsonDataLabels.REVIEW_RATING).value(review.getRating());
+        out.name(JsonDataLabels.REVIEW_COMMENT).value(review.getComment());
+        out.name(JsonDataLabels.REVIEW_ID).value(review.getId().toString());
+        out.name(JsonDataLabels.REVIEW_REVIEWER).value(review.getReviewer().getId().toString());
+        out.endObject();
     }
 
     /**
-     * Converts a job posting to a JSON object.
-     * @param posting The posting to convert.
-     * @return The JSON object.
+     * Writes a job posting as a JSON object.
+     * @param out The stream to write to.
+     * @param posting The posting to write.
      */
-    private JSONObject jsonify(JobPosting posting) { // TODO: implement
-        JSONObject postingJson = new JSONObject();
-
-        postingJson.put(JsonDataLabels.JOBPOSTING_ID, posting.getId().toString());
-        postingJson.put(JsonDataLabels.JOBPOSTING_EMPLOYER, posting.getEmployer().getId().toString());
-        postingJson.put(JsonDataLabels.JOBPOSTING_TITLE, posting.getJobTitle());
-        postingJson.put(JsonDataLabels.JOBPOSTING_DESCRIPTION, posting.getDescription());
-
-        JSONArray jsonRequirements = new JSONArray();
-        for (String skill : posting.getRequirements()) {
-            jsonRequirements.add(skill);
-        }
-        postingJson.put(JsonDataLabels.JOBPOSTING_REQUIREMENTS, jsonRequirements);
-
-        postingJson.put(JsonDataLabels.JOBPOSTING_HOURLYWAGE, posting.getWage());
-        postingJson.put(JsonDataLabels.JOBPOSTING_STATUS, posting.getStatus().toString());
-
-        JSONArray jsonApplicants = new JSONArray();
+    private void writeJobPosting(JsonWriter out, JobPosting posting) throws IOException {
+        out.beginObject();
+        out.name(JsonDataLabels.JOBPOSTING_REQUIREMENTS);
+        writeStrings(out, posting.getRequirements());
+        out.name(JsonDataLabels.JOBPOSTING_STATUS).value(posting.getStatus().toString());
+        out.name(JsonDataLabels.REMOVED).value(posting.isRemoved());
+        out.name(JsonDataLabels.JOBPOSTING_HOURLYWAGE).value(posting.getWage());
+        out.name(JsonDataLabels.JOBPOSTING_TITLE).value(posting.getJobTitle());
+        out.name(JsonDataLabels.JOBPOSTING_APPLICANTS).beginArray();
         for (Student student : posting.getApplicants()) {
-            jsonApplicants.add(student.getId().toString());
+            out.value(student.getId().toString());
         }
-        postingJson.put(JsonDataLabels.JOBPOSTING_APPLICANTS, jsonApplicants);
-        postingJson.put(JsonDataLabels.REMOVED, posting.isRemoved());
-        return postingJson;
+        out.endArray();
+        out.name(JsonDataLabels.JOBPOSTING_EMPLOYER).value(posting.getEmployer().getId().toString());
+        out.name(JsonDataLabels.JOBPOSTING_DESCRIPTION).value(posting.getDescription());
+        out.name(JsonDataLabels.JOBPOSTING_ID).value(posting.getId().toString());
+        out.endObject();
     }
 
 }
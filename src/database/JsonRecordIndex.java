@@ -0,0 +1,323 @@
+package database;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Set;
+
+/**
+ * Byte ranges of the objects in a JSON array file. The file is memory mapped
+ * and scanned once without building any objects, keeping only where each
+ * object starts and ends and the values of a few top level keys, so an object
+ * can be decoded later from its own bytes.
+ *
+ * Data files are replaced by renaming a new file over them, so the mapping
+ * keeps seeing the file as it was when it was scanned.
+ */
+final class JsonRecordIndex {
+    private ByteBuffer buffer;
+    private int[] starts;
+    private int[] ends;
+    private ArrayList<HashMap<String, String>> fields;
+
+    private JsonRecordIndex(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.starts = new int[16];
+        this.ends = new int[16];
+        this.fields = new ArrayList<HashMap<String, String>>();
+    }
+
+    /**
+     * Maps a JSON file and scans it
+     *
+     * @param filePath the file, an array of objects or null
+     * @param keys     the top level keys whose values are kept
+     * @return the index of the file
+     * @throws IOException if the file cannot be read or is not an array of objects
+     */
+    static JsonRecordIndex map(String filePath, Set<String> keys) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            JsonRecordIndex index = new JsonRecordIndex(buffer);
+            new Scanner(buffer, keys, Set.of(), index).scan();
+            return index;
+        }
+    }
+
+    /**
+     * Scans the top level keys of one JSON object
+     *
+     * @param json    the object
+     * @param keys    the keys whose values are kept, unescaped like fields
+     * @param rawKeys the keys whose values are kept as the exact JSON text
+     * @return key -> value for the keys that are in the object
+     * @throws IOException if the text is not an object
+     */
+    static HashMap<String, String> scanObject(String json, Set<String> keys, Set<String> rawKeys)
+            throws IOException {
+        HashMap<String, String> values = new HashMap<String, String>();
+        Scanner scanner = new Scanner(ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8)), keys, rawKeys, null);
+        scanner.skipWhitespace();
+        scanner.scanObject(values);
+        return values;
+    }
+
+    /**
+     * @return the number of objects in the file
+     */
+    int size() {
+        return fields.size();
+    }
+
+    /**
+     * Gets the kept values of an object and forgets them, so the index does not
+     * hold every object's values once they have been used. Strings are
+     * unescaped, other values are kept as written, and a JSON null is a null
+     * value
+     *
+     * @param record the position of the object in the array
+     * @return top level key -> value, or null if they were already taken
+     */
+    HashMap<String, String> takeFields(int record) {
+        return fields.set(record, null);
+    }
+
+    /**
+     * Gets where one object is in the mapped file. The range only holds the
+     * mapping and two offsets, so it can be kept after the index is dropped
+     *
+     * @param record the position of the object in the array
+     * @return the object's byte range
+     */
+    Range range(int record) {
+        return new Range(buffer, starts[record], ends[record]);
+    }
+
+    /**
+     * Where one object is in a mapped file
+     */
+    static final class Range {
+        private final ByteBuffer buffer;
+        private final int start;
+        private final int end;
+
+        private Range(ByteBuffer buffer, int start, int end) {
+            this.buffer = buffer;
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * Gets the JSON text of the object
+         *
+         * @return the object, from its opening to its closing brace
+         */
+        String text() {
+            byte[] bytes = new byte[end - start];
+            buffer.get(start, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    private void add(int start, int end, HashMap<String, String> values) {
+        int record = fields.size();
+        if (record == starts.length) {
+            starts = Arrays.copyOf(starts, record * 2);
+            ends = Arrays.copyOf(ends, record * 2);
+        }
+        starts[record] = start;
+        ends[record] = end;
+        fields.add(values);
+    }
+
+    /**
+     * Walks the bytes of the file, only looking at structure and the kept keys
+     */
+    private static class Scanner {
+        private ByteBuffer in;
+        private Set<String> keys;
+        private Set<String> rawKeys;
+        private JsonRecordIndex index;
+        private int pos;
+
+        private Scanner(ByteBuffer in, Set<String> keys, Set<String> rawKeys, JsonRecordIndex index) {
+            this.in = in;
+            this.keys = keys;
+            this.rawKeys = rawKeys;
+            this.index = index;
+        }
+
+        private void scan() throws IOException {
+            skipWhitespace();
+            if (pos == in.limit() || in.get(pos) == 'n')
+                return; // an empty or null file has no objects
+            expect('[');
+            skipWhitespace();
+            if (in.get(pos) == ']')
+                return;
+            while (true) {
+                skipWhitespace();
+                int start = pos;
+                HashMap<String, String> values = new HashMap<String, String>();
+                scanObject(values);
+                index.add(start, pos, values);
+                skipWhitespace();
+                if (in.get(pos) == ']')
+                    return;
+                expect(',');
+            }
+        }
+
+        private void scanObject(HashMap<String, String> values) throws IOException {
+            expect('{');
+            skipWhitespace();
+            if (in.get(pos) == '}') {
+                pos++;
+                return;
+            }
+            while (true) {
+                skipWhitespace();
+                String key = readString();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                if (keys.contains(key)) {
+                    values.put(key, readScalar());
+                } else if (rawKeys.contains(key)) {
+                    int start = pos;
+                    skipValue();
+                    values.put(key, string(start, pos));
+                } else {
+                    skipValue();
+                }
+                skipWhitespace();
+                if (in.get(pos) == '}') {
+                    pos++;
+                    return;
+                }
+                expect(',');
+            }
+        }
+
+        private String readScalar() throws IOException {
+            if (in.get(pos) == '"')
+                return readString();
+            int start = pos;
+            skipValue();
+            String literal = string(start, pos);
+            return literal.equals("null") ? null : literal;
+        }
+
+        private void skipValue() throws IOException {
+            byte c = in.get(pos);
+            if (c == '"') {
+                skipString();
+            } else if (c == '{' || c == '[') {
+                int depth = 0;
+                do {
+                    c = in.get(pos);
+                    if (c == '"') {
+                        skipString();
+                        continue;
+                    }
+                    if (c == '{' || c == '[')
+                        depth++;
+                    else if (c == '}' || c == ']')
+                        depth--;
+                    pos++;
+                } while (depth > 0);
+            } else {
+                while (pos < in.limit() && (c = in.get(pos)) != ',' && c != '}' && c != ']' && c > ' ')
+                    pos++;
+            }
+        }
+
+        private void skipString() throws IOException {
+            expect('"');
+            while (true) {
+                byte c = in.get(pos++);
+                if (c == '\\')
+                    pos++;
+                else if (c == '"')
+                    return;
+            }
+        }
+
+        private String readString() throws IOException {
+            int start = pos + 1;
+            boolean escaped = false;
+            expect('"');
+            while (true) {
+                byte c = in.get(pos++);
+                if (c == '\\') {
+                    escaped = true;
+                    pos++;
+                } else if (c == '"') {
+                    break;
+                }
+            }
+            String raw = string(start, pos - 1);
+            return escaped ? unescape(raw) : raw;
+        }
+
+        private String string(int start, int end) {
+            byte[] bytes = new byte[end - start];
+            in.get(start, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private static String unescape(String raw) {
+            StringBuilder sb = new StringBuilder(raw.length());
+            for (int i = 0; i < raw.length(); i++) {
+                char c = raw.charAt(i);
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                c = raw.charAt(++i);
+                switch (c) {
+                case 'b':
+                    sb.append('\b');
+                    break;
+                case 'f':
+                    sb.append('\f');
+                    break;
+                case 'n':
+                    sb.append('\n');
+                    break;
+                case 'r':
+                    sb.append('\r');
+                    break;
+                case 't':
+                    sb.append('\t');
+                    break;
+                case 'u':
+                    sb.append((char) Integer.parseInt(raw.substring(i + 1, i + 5), 16));
+                    i += 4;
+                    break;
+                default:
+                    sb.append(c); // \" \\ and \/
+                }
+            }
+            return sb.toString();
+        }
+
+        private void skipWhitespace() {
+            while (pos < in.limit() && in.get(pos) <= ' ')
+                pos++;
+        }
+
+        private void expect(char c) throws IOException {
+            if (pos >= in.limit() || in.get(pos) != c)
+                throw new IOException("Expected '" + c + "' at byte " + pos);
+            pos++;
+        }
+    }
+}
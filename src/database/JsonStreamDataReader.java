@@ -0,0 +1,640 @@
+package database;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.UUID;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import dataTypes.Admin;
+import dataTypes.Education;
+import dataTypes.Employer;
+import dataTypes.Employment;
+import dataTypes.JobPosting;
+import dataTypes.Professor;
+import dataTypes.Review;
+import dataTypes.Student;
+import dataTypes.User;
+import enums.JobPostingStatus;
+import enums.JsonDataLabels;
+
+/**
+ * JsonStreamDataReader class subclass of JsonDataReader reads the same JSON
+ * files, but builds the objects straight from a token stream instead of parsing
+ * each file into JSONObjects first
+ */
+public class JsonStreamDataReader extends JsonDataReader {
+
+    /**
+     * Construtor method
+     * 
+     * @param adminFilePath      where the admins are stored
+     * @param studentFilePath    where the students are stored
+     * @param employerFilePath   where the employers are stored
+     * @param professorFilePath  where the professors are stored
+     * @param reviewFilePath     where the reviews are stored
+     * @param jobPostingFilePath where the job postings are stored
+     */
+    public JsonStreamDataReader(String adminFilePath, String studentFilePath, String employerFilePath,
+            String professorFilePath, String reviewFilePath, String jobPostingFilePath) {
+        super(adminFilePath, studentFilePath, employerFilePath, professorFilePath, reviewFilePath,
+                jobPostingFilePath);
+    }
+
+    /**
+     * Opens a JSON file for streaming
+     * 
+     * @param filePath the file to open
+     * @return JsonReader positioned at the start of the file
+     * @throws IOException if the file cannot be opened
+     */
+    private static JsonReader open(String filePath) throws IOException {
+        return new JsonReader(new BufferedReader(new FileReader(filePath)));
+    }
+
+    /**
+     * Checks if the file holds a JSON null instead of an array
+     * 
+     * @param reader the reader at the start of the file
+     * @return true if the file is null
+     * @throws IOException if the file cannot be read
+     */
+    private static boolean isNullFile(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Reads a string value that may be null
+     * 
+     * @param reader the reader at the value
+     * @return the string, or null
+     * @throws IOException if the value cannot be read
+     */
+    private static String nextString(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextString();
+    }
+
+    /**
+     * Reads an array of strings
+     * 
+     * @param reader the reader at the array
+     * @return ArrayList of the strings, empty if the value is null
+     * @throws IOException if the value cannot be read
+     */
+    protected static ArrayList<String> nextStringList(JsonReader reader) throws IOException {
+        ArrayList<String> strings = new ArrayList<String>();
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return strings;
+        }
+        reader.beginArray();
+        while (reader.hasNext()) {
+            strings.add(nextString(reader));
+        }
+        reader.endArray();
+        return strings;
+    }
+
+    /**
+     * Reads the administrators from the JSON file and returns them in an ArrayList.
+     * 
+     * @return ArrayList of administrators
+     */
+    @Override
+    protected ArrayList<Admin> readAdministrators() {
+        return readAdministrators(adminFilePath);
+    }
+
+    /**
+     * Reads the administrators from a JSON file and returns them in an ArrayList.
+     * 
+     * @param filePath the file to read
+     * @return ArrayList of administrators
+     */
+    protected ArrayList<Admin> readAdministrators(String filePath) {
+        ArrayList<Admin> adminList = new ArrayList<Admin>();
+        try (JsonReader reader = open(filePath)) {
+            if (isNullFile(reader))
+                return adminList;
+            reader.beginArray();
+            while (reader.hasNext()) {
+                Admin.Builder admin = new Admin.Builder();
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    switch (reader.nextName()) {
+                    case JsonDataLabels.USER_ID:
+                        admin.id(UUID.fromString(reader.nextString()));
+                        break;
+                    case JsonDataLabels.USER_USERNAME:
+                        admin.username(nextString(reader));
+                        break;
+                    case JsonDataLabels.USER_PASSWORD:
+                        admin.password(nextString(reader));
+                        break;
+                    case JsonDataLabels.USER_EMAIL:
+                        admin.email(nextString(reader));
+                        break;
+                    case JsonDataLabels.USER_FIRSTNAME:
+                        admin.firstName(nextString(reader));
+                        break;
+                    case JsonDataLabels.USER_LASTNAME:
+                        admin.lastName(nextString(reader));
+                        break;
+                    case JsonDataLabels.USER_APPROVED:
+                        admin.approved(reader.nextBoolean());
+                        break;
+                    default:
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+                adminList.add(admin.build());
+            }
+            reader.endArray();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return adminList;
+    }
+
+    /**
+     * Reads the students from the JSON file and returns them in an ArrayList.
+     * 
+     * @return ArrayList of students
+     */
+    @Override
+    protected ArrayList<Student> readStudents() {
+        return readStudents(studentFilePath);
+    }
+
+    /**
+     * Reads the students from a JSON file and returns them in an ArrayList.
+     * 
+     * @param filePath the file to read
+     * @return ArrayList of students
+     */
+    protected ArrayList<Student> readStudents(String filePath) {
+        ArrayList<Student> studentList = new ArrayList<Student>();
+        try (JsonReader reader = open(filePath)) {
+            if (isNullFile(reader))
+                return studentList;
+            reader.beginArray();
+            while (reader.hasNext()) {
+                studentList.add(readStudent(reader));
+            }
+            reader.endArray();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return studentList;
+    }
+
+    /**
+     * Reads one student object
+     * 
+     * @param reader the reader at the object
+     * @return the student
+     * @throws IOException if the value cannot be read
+     */
+    protected static Student readStudent(JsonReader reader) throws IOException {
+        Student.Builder student = new Student.Builder().employments(new ArrayList<Employment>())
+                .educations(new ArrayList<Education>()).technicalSkills(new ArrayList<String>());
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+            case JsonDataLabels.USER_ID:
+                student.id(UUID.fromString(reader.nextString()));
+                break;
+            case JsonDataLabels.USER_USERNAME:
+                student.username(nextString(reader));
+                break;
+            case JsonDataLabels.USER_PASSWORD:
+                student.password(nextString(reader));
+                break;
+            case JsonDataLabels.USER_EMAIL:
+                student.email(nextString(reader));
+                break;
+            case JsonDataLabels.USER_FIRSTNAME:
+                student.firstName(nextString(reader));
+                break;
+            case JsonDataLabels.USER_LASTNAME:
+                student.lastName(nextString(reader));
+                break;
+            case JsonDataLabels.USER_APPROVED:
+                student.approved(reader.nextBoolean());
+                break;
+            case JsonDataLabels.STUDENT_MAJOR:
+                student.major(parseMajor(reader.nextString()));
+                break;
+            case JsonDataLabels.STUDENT_CREATEDRESUME:
+                student.createdResume(reader.nextBoolean());
+                break;
+            case JsonDataLabels.STUDENT_AVERAGERATING:
+                student.averageRating(reader.nextDouble());
+                break;
+            case JsonDataLabels.REMOVED:
+                student.removed(reader.nextBoolean());
+                break;
+            case JsonDataLabels.STUDENT_SKILLS:
+                student.technicalSkills(nextStringList(reader));
+                break;
+            case JsonDataLabels.STUDENT_EMPLOYMENTS:
+                student.employments(readEmployments(reader));
+                break;
+            case JsonDataLabels.STUDENT_EDUCATIONS:
+                student.educations(readEducations(reader));
+                break;
+            default:
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return student.build();
+    }
+
+    /**
+     * Reads a student's employments array
+     * 
+     * @param reader the reader at the array
+     * @return ArrayList of employments
+     * @throws IOException if the value cannot be read
+     */
+    protected static ArrayList<Employment> readEmployments(JsonReader reader) throws IOException {
+        ArrayList<Employment> employments = new ArrayList<Employment>();
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return employments;
+        }
+        reader.beginArray();
+        while (reader.hasNext()) {
+            Employment.Builder employment = new Employment.Builder().details(new ArrayList<String>());
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                case JsonDataLabels.STUDENT_EMPLOYMENT_COMPANY:
+                    employment.company(nextString(reader));
+                    break;
+                case JsonDataLabels.STUDENT_EMPLOYMENT_TITLE:
+                    employment.title(nextString(reader));
+                    break;
+                case JsonDataLabels.STUDENT_EMPLOYMENT_DATES:
+                    employment.dates(nextString(reader));
+                    break;
+                case JsonDataLabels.STUDENT_EMPLOYMENT_DETAILS:
+                    employment.details(nextStringList(reader));
+                    break;
+                default:
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            employments.add(employment.build());
+        }
+        reader.endArray();
+        return employments;
+    }
+
+    /**
+     * Reads a student's educations array
+     * 
+     * @param reader the reader at the array
+     * @return ArrayList of educations
+     * @throws IOException if the value cannot be read
+     */
+    protected static ArrayList<Education> readEducations(JsonReader reader) throws IOException {
+        ArrayList<Education> educations = new ArrayList<Education>();
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return educations;
+        }
+        reader.beginArray();
+        while (reader.hasNext()) {
+            Education.Builder education = new Education.Builder();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                case JsonDataLabels.STUDENT_EDUCATION_PLACE:
+                    education.place(nextString(reader));
+                    break;
+                case JsonDataLabels.STUDENT_EDUCATION_GPA:
+                    education.gpa(reader.nextDouble());
+                    break;
+                case JsonDataLabels.STUDENT_EDUCATION_GRADDATE:
+                    education.gradDate(nextString(reader));
+                    break;
+                default:
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            educations.add(education.build());
+        }
+        reader.endArray();
+        return educations;
+    }
+
+    /**
+     * Reads the employers from the JSON file and returns them in an ArrayList.
+     * 
+     * @return ArrayList of employers
+     */
+    @Override
+    protected ArrayList<Employer> readEmployers() {
+        return readEmployers(employerFilePath);
+    }
+
+    /**
+     * Reads the employers from a JSON file and returns them in an ArrayList.
+     * 
+     * @param filePath the file to read
+     * @return ArrayList of employers
+     */
+    protected ArrayList<Employer> readEmployers(String filePath) {
+        ArrayList<Employer> employerList = new ArrayList<Employer>();
+        try (JsonReader reader = open(filePath)) {
+            if (isNullFile(reader))
+                return employerList;
+            reader.beginArray();
+            while (reader.hasNext()) {
+                Employer.Builder employer = new Employer.Builder();
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    switch (reader.nextName()) {
+                    case JsonDataLabels.USER_ID:
+                        employer.id(UUID.fromString(reader.nextString()));
+                        break;
+                    case JsonDataLabels.USER_USERNAME:
+                        employer.username(nextString(reader));
+                        break;
+                    case JsonDataLabels.USER_PASSWORD:
+                        employer.password(nextString(reader));
+                        break;
+                    case JsonDataLabels.USER_EMAIL:
+                        employer.email(nextString(reader));
+                        break;
+                    case JsonDataLabels.USER_FIRSTNAME:
+                        employer.firstName(nextString(reader));
+                        break;
+                    case JsonDataLabels.USER_LASTNAME:
+                        employer.lastName(nextString(reader));
+                        break;
+                    case JsonDataLabels.USER_APPROVED:
+                        employer.approved(reader.nextBoolean());
+                        break;
+                    case JsonDataLabels.EMPLOYER_COMPANY:
+                        employer.company(nextString(reader));
+                        break;
+                    case JsonDataLabels.EMPLOYER_AVERAGERATING:
+                        employer.averageRating(reader.nextDouble());
+                        break;
+                    case JsonDataLabels.REMOVED:
+                        employer.removed(reader.nextBoolean());
+                        break;
+                    default:
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+                employerList.add(employer.build());
+            }
+            reader.endArray();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return employerList;
+    }
+
+    /**
+     * Reads the professors from the JSON file and returns them in an ArrayList.
+     * 
+     * @return ArrayList of professors
+     */
+    @Override
+    protected ArrayList<Professor> readProfessors() {
+        return readProfessors(professorFilePath);
+    }
+
+    /**
+     * Reads the professors from a JSON file and returns them in an ArrayList.
+     * 
+     * @param filePath the file to read
+     * @return ArrayList of professors
+     */
+    protected ArrayList<Professor> readProfessors(String filePath) {
+        ArrayList<Professor> professorList = new ArrayList<Professor>();
+        try (JsonReader reader = open(filePath)) {
+            if (isNullFile(reader))
+                return professorList;
+            reader.beginArray();
+            while (reader.hasNext()) {
+                Professor.Builder professor = new Professor.Builder();
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    switch (reader.nextName()) {
+                    case JsonDataLabels.USER_ID:
+                        professor.id(UUID.fromString(reader.nextString()));
+                        break;
+                    case JsonDataLabels.USER_USERNAME:
+                        professor.username(nextString(reader));
+                        break;
+                    case JsonDataLabels.USER_PASSWORD:
+                        professor.password(nextString(reader));
+                        break;
+                    case JsonDataLabels.USER_EMAIL:
+                        professor.email(nextString(reader));
+                        break;
+                    case JsonDataLabels.USER_FIRSTNAME:
+                        professor.firstName(nextString(reader));
+                        break;
+                    case JsonDataLabels.USER_LASTNAME:
+                        professor.lastName(nextString(reader));
+                        break;
+                    case JsonDataLabels.USER_APPROVED:
+                        professor.approved(reader.nextBoolean());
+                        break;
+                    case JsonDataLabels.REMOVED:
+                        professor.removed(reader.nextBoolean());
+                        break;
+                    default:
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+                professorList.add(professor.build());
+            }
+            reader.endArray();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return professorList;
+    }
+
+    /**
+     * Reads the reviews from the JSON file and returns them in an ArrayList.
+     * 
+     * @return ArrayList of reviews
+     */
+    @Override
+    protected ArrayList<Review> readReviews() {
+        return readReviews(reviewFilePath);
+    }
+
+    /**
+     * Reads the reviews from a JSON file and returns them in an ArrayList.
+     * 
+     * @param filePath the file to read
+     * @return ArrayList of reviews
+     */
+    protected ArrayList<Review> readReviews(String filePath) {
+        ArrayList<Review> reviewList = new ArrayList<Review>();
+        try (JsonReader reader = open(filePath)) {
+            if (isNullFile(reader))
+                return reviewList;
+            reader.beginArray();
+            while (reader.hasNext()) {
+                Review.Builder review = new Review.Builder();
+                User reviewer = null;
+                User reviewee = null;
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    switch (reader.nextName()) {
+                    case JsonDataLabels.REVIEW_ID:
+                        review.id(UUID.fromString(reader.nextString()));
+                        break;
+                    case JsonDataLabels.REVIEW_REVIEWER:
+                        reviewer = dataBlob.getUserById(UUID.fromString(reader.nextString()));
+                        break;
+                    case JsonDataLabels.REVIEW_REVIEWEE:
+                        reviewee = dataBlob.getUserById(UUID.fromString(reader.nextString()));
+                        break;
+                    case JsonDataLabels.REVIEW_RATING:
+                        review.rating(reader.nextInt());
+                        break;
+                    case JsonDataLabels.REVIEW_COMMENT:
+                        review.comment(nextString(reader));
+                        break;
+                    case JsonDataLabels.REMOVED:
+                        review.removed(reader.nextBoolean());
+                        break;
+                    default:
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+                if (reviewee == null) {
+                    throw new Exception("Student not found");
+                }
+                if (reviewer == null) {
+                    throw new Exception("Reviewer not found");
+                }
+                reviewList.add(review.reviewer(reviewer).reviewee(reviewee).build());
+            }
+            reader.endArray();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return reviewList;
+    }
+
+    /**
+     * Reads the job postings from the JSON file and returns them in an ArrayList.
+     * 
+     * @return ArrayList of job postings
+     */
+    @Override
+    protected ArrayList<JobPosting> readJobPostings() {
+        return readJobPostings(jobPostingFilePath);
+    }
+
+    /**
+     * Reads the job postings from a JSON file and returns them in an ArrayList.
+     * 
+     * @param filePath the file to read
+     * @return ArrayList of job postings
+     */
+    protected ArrayList<JobPosting> readJobPostings(String filePath) {
+        ArrayList<JobPosting> jobPostingList = new ArrayList<JobPosting>();
+        try (JsonReader reader = open(filePath)) {
+            if (isNullFile(reader))
+                return jobPostingList;
+            reader.beginArray();
+            while (reader.hasNext()) {
+                JobPosting.Builder jobPosting = new JobPosting.Builder().status(JobPostingStatus.NA);
+                Employer employer = null;
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    switch (reader.nextName()) {
+                    case JsonDataLabels.JOBPOSTING_ID:
+                        jobPosting.id(UUID.fromString(reader.nextString()));
+                        break;
+                    case JsonDataLabels.JOBPOSTING_EMPLOYER:
+                        employer = (Employer) dataBlob.getUserById(UUID.fromString(reader.nextString()));
+                        break;
+                    case JsonDataLabels.JOBPOSTING_TITLE:
+                        jobPosting.jobTitle(nextString(reader));
+                        break;
+                    case JsonDataLabels.JOBPOSTING_DESCRIPTION:
+                        jobPosting.description(nextString(reader));
+                        break;
+                    case JsonDataLabels.JOBPOSTING_REQUIREMENTS:
+                        jobPosting.requirements(nextStringList(reader));
+                        break;
+                    case JsonDataLabels.JOBPOSTING_HOURLYWAGE:
+                        jobPosting.hourlyWage(reader.nextDouble());
+                        break;
+                    case JsonDataLabels.JOBPOSTING_STATUS:
+                        jobPosting.status(parseStatus(reader.nextString()));
+                        break;
+                    case JsonDataLabels.JOBPOSTING_APPLICANTS:
+                        jobPosting.applicants(readApplicants(reader));
+                        break;
+                    case JsonDataLabels.REMOVED:
+                        jobPosting.removed(reader.nextBoolean());
+                        break;
+                    default:
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+                if (employer == null) {
+                    throw new Exception("Employer not found");
+                }
+                jobPostingList.add(jobPosting.employer(employer).build());
+            }
+            reader.endArray();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return jobPostingList;
+    }
+
+    /**
+     * Reads a posting's applicant ids and looks up each student
+     * 
+     * @param reader the reader at the array
+     * @return ArrayList of the applicants
+     * @throws Exception if an applicant does not exist
+     */
+    private ArrayList<Student> readApplicants(JsonReader reader) throws Exception {
+        ArrayList<Student> applicants = new ArrayList<Student>();
+        for (String id : nextStringList(reader)) {
+            User applicant = dataBlob.getUserById(UUID.fromString(id));
+            if (applicant == null) {
+                throw new Exception("Student not found");
+            }
+            applicants.add((Student) applicant);
+        }
+        return applicants;
+    }
+}
@@ -0,0 +1,156 @@
+package database;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.gson.stream.JsonReader;
+
+import dataTypes.Education;
+import dataTypes.Employment;
+import dataTypes.RawJson;
+import dataTypes.Student;
+import enums.JsonDataLabels;
+
+/**
+ * MappedJsonDataReader class subclass of JsonStreamDataReader reads the same
+ * JSON files, but only scans the students file at startup. Each student is
+ * built from its id, names and approval, and the rest of it is decoded from the
+ * mapped file the first time it is used, so only the students that are touched
+ * take up the memory of a full resume. Even then the employments, educations
+ * and skills stay as raw JSON until they are used themselves, and
+ * JsonDataWriter writes students and sections that were never used back
+ * unchanged
+ */
+public class MappedJsonDataReader extends JsonStreamDataReader {
+    private static final Set<String> STUDENT_KEYS = Set.of(JsonDataLabels.USER_ID, JsonDataLabels.USER_USERNAME,
+            JsonDataLabels.USER_PASSWORD, JsonDataLabels.USER_EMAIL, JsonDataLabels.USER_FIRSTNAME,
+            JsonDataLabels.USER_LASTNAME, JsonDataLabels.USER_APPROVED, JsonDataLabels.REMOVED);
+    private static final Set<String> RESUME_KEYS = Set.of(JsonDataLabels.STUDENT_MAJOR,
+            JsonDataLabels.STUDENT_CREATEDRESUME, JsonDataLabels.STUDENT_AVERAGERATING);
+    private static final Set<String> SECTION_KEYS = Set.of(JsonDataLabels.STUDENT_EMPLOYMENTS,
+            JsonDataLabels.STUDENT_EDUCATIONS, JsonDataLabels.STUDENT_SKILLS);
+
+    private AtomicInteger decoded;
+
+    /**
+     * Construtor method
+     * 
+     * @param adminFilePath      where the admins are stored
+     * @param studentFilePath    where the students are stored
+     * @param employerFilePath   where the employers are stored
+     * @param professorFilePath  where the professors are stored
+     * @param reviewFilePath     where the reviews are stored
+     * @param jobPostingFilePath where the job postings are stored
+     */
+    public MappedJsonDataReader(String adminFilePath, String studentFilePath, String employerFilePath,
+            String professorFilePath, String reviewFilePath, String jobPostingFilePath) {
+        super(adminFilePath, studentFilePath, employerFilePath, professorFilePath, reviewFilePath,
+                jobPostingFilePath);
+        this.decoded = new AtomicInteger();
+    }
+
+    /**
+     * Scans the students file and returns a student for each object in it, with
+     * the rest of each student decoded when it is first needed
+     * 
+     * @return ArrayList of students
+     */
+    @Override
+    protected ArrayList<Student> readStudents() {
+        ArrayList<Student> studentList = new ArrayList<Student>();
+        try {
+            JsonRecordIndex index = JsonRecordIndex.map(studentFilePath, STUDENT_KEYS);
+            for (int i = 0; i < index.size(); i++) {
+                HashMap<String, String> fields = index.takeFields(i);
+                JsonRecordIndex.Range record = index.range(i); // not the index, so it can be dropped
+                Student.Builder student = new Student.Builder().username(fields.get(JsonDataLabels.USER_USERNAME))
+                        .password(fields.get(JsonDataLabels.USER_PASSWORD))
+                        .email(fields.get(JsonDataLabels.USER_EMAIL))
+                        .firstName(fields.get(JsonDataLabels.USER_FIRSTNAME))
+                        .lastName(fields.get(JsonDataLabels.USER_LASTNAME))
+                        .approved(Boolean.parseBoolean(fields.get(JsonDataLabels.USER_APPROVED)))
+                        .removed(Boolean.parseBoolean(fields.get(JsonDataLabels.REMOVED)))
+                        .loader(() -> decode(record)).rawRecord(record::text);
+                if (fields.get(JsonDataLabels.USER_ID) != null)
+                    student.id(UUID.fromString(fields.get(JsonDataLabels.USER_ID)));
+                studentList.add(student.build());
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return studentList;
+    }
+
+    /**
+     * Decodes the major, resume flag and rating of one student from its bytes in
+     * the mapped file, keeping its resume sections as raw JSON
+     * 
+     * @param record where the student is in the mapped file
+     * @return the student's decoded fields
+     */
+    private Student decode(JsonRecordIndex.Range record) {
+        decoded.incrementAndGet();
+        try {
+            HashMap<String, String> values = JsonRecordIndex.scanObject(record.text(), RESUME_KEYS,
+                    SECTION_KEYS);
+            Student.Builder student = new Student.Builder().employments(new ArrayList<Employment>())
+                    .educations(new ArrayList<Education>()).technicalSkills(new ArrayList<String>());
+            if (values.get(JsonDataLabels.STUDENT_MAJOR) != null)
+                student.major(parseMajor(values.get(JsonDataLabels.STUDENT_MAJOR)));
+            if (values.get(JsonDataLabels.STUDENT_AVERAGERATING) != null)
+                student.averageRating(Double.parseDouble(values.get(JsonDataLabels.STUDENT_AVERAGERATING)));
+            student.createdResume(Boolean.parseBoolean(values.get(JsonDataLabels.STUDENT_CREATEDRESUME)));
+            if (values.containsKey(JsonDataLabels.STUDENT_EMPLOYMENTS))
+                student.rawEmployments(raw(values.get(JsonDataLabels.STUDENT_EMPLOYMENTS),
+                        JsonStreamDataReader::readEmployments));
+            if (values.containsKey(JsonDataLabels.STUDENT_EDUCATIONS))
+                student.rawEducations(raw(values.get(JsonDataLabels.STUDENT_EDUCATIONS),
+                        JsonStreamDataReader::readEducations));
+            if (values.containsKey(JsonDataLabels.STUDENT_SKILLS))
+                student.rawTechnicalSkills(raw(values.get(JsonDataLabels.STUDENT_SKILLS),
+                        JsonStreamDataReader::nextStringList));
+            return student.build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads one section of a student from a token stream
+     */
+    private interface SectionReader<T> {
+        T read(JsonReader reader) throws IOException;
+    }
+
+    /**
+     * Wraps the JSON text of a resume section so it is read when first used
+     * 
+     * @param json    the text of the section
+     * @param section reads the section
+     * @return the section, not decoded yet
+     */
+    private static <T> RawJson<T> raw(String json, SectionReader<T> section) {
+        return new RawJson<T>(json, text -> {
+            try (JsonReader reader = new JsonReader(new StringReader(text))) {
+                return section.read(reader);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Gets how many students have been fully decoded since they were read
+     * 
+     * @return the number of decoded students
+     */
+    public int getDecodedCount() {
+        return decoded.get();
+    }
+}
@@ -0,0 +1,832 @@
+package database;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+import dataTypes.Admin;
+import dataTypes.DataBlob;
+import dataTypes.Education;
+import dataTypes.Employer;
+import dataTypes.Employment;
+import dataTypes.JobPosting;
+import dataTypes.Professor;
+import dataTypes.Review;
+import dataTypes.Student;
+import dataTypes.User;
+import enums.JobPostingStatus;
+import enums.Major;
+import utilities.Logger;
+
+/**
+ * Append only log of the changes made to the Database since the data files were
+ * last written. Every record is framed as its length, a CRC32 of its bytes and
+ * the bytes themselves, so a record torn by a crash is found and dropped when
+ * the log is replayed.
+ *
+ * Appends use group commit: the thread that gets to the file first writes and
+ * fsyncs every record waiting at that moment, and the threads that queued behind
+ * it return without syncing again once their record is covered. The Database
+ * queues its records while it holds its write lock and syncs them once it has
+ * let go, so sessions wait for the disk together instead of one at a time.
+ */
+public class MutationLog {
+    private static final byte ADD_USER = 1;
+    private static final byte ADD_POSTING = 2;
+    private static final byte ADD_APPLICANT = 3;
+    private static final byte ADD_REVIEW = 4;
+    private static final byte POSTING_STATUS = 5;
+    private static final byte USER_APPROVAL = 6;
+    private static final byte REMOVE_USER = 7;
+    private static final byte REMOVE_POSTING = 8;
+    private static final byte REMOVE_REVIEW = 9;
+
+    private static final byte STUDENT = 0;
+    private static final byte EMPLOYER = 1;
+    private static final byte PROFESSOR = 2;
+    private static final byte ADMIN = 3;
+
+    private static final int HEADER_LENGTH = 8; // record length and CRC32
+
+    private Path path;
+    private FileChannel channel;
+    private ByteArrayOutputStream pending; // framed records not yet written
+    private long appended; // number of records appended
+    private long synced; // number of records written and fsynced
+    private long appendedBytes; // bytes appended since the log was created, including the ones cut off
+    private long base; // bytes cut off the front of the file by checkpoints
+    private final Object commitLock = new Object();
+
+    /**
+     * Constructor
+     *
+     * @param filePath where the log is stored
+     */
+    public MutationLog(String filePath) {
+        this.path = Paths.get(filePath);
+        this.pending = new ByteArrayOutputStream();
+    }
+
+    /**
+     * Records that a user was added and waits until it is on disk
+     *
+     * @param user the user that was added
+     */
+    public void logAddUser(User user) {
+        sync(queueAddUser(user));
+    }
+
+    /**
+     * Queues a record that a user was added, sync puts it on disk
+     *
+     * @param user the user that was added
+     * @return the number of the record, 0 if nothing was queued
+     */
+    long queueAddUser(User user) {
+        if (user == null || user.getId() == null)
+            return 0;
+        return append(ADD_USER, out -> writeUser(out, user));
+    }
+
+    /**
+     * Records that a posting was added and waits until it is on disk
+     *
+     * @param posting the posting that was added
+     */
+    public void logAddPosting(JobPosting posting) {
+        sync(queueAddPosting(posting));
+    }
+
+    /**
+     * Queues a record that a posting was added, sync puts it on disk
+     *
+     * @param posting the posting that was added
+     * @return the number of the record, 0 if nothing was queued
+     */
+    long queueAddPosting(JobPosting posting) {
+        if (posting == null || posting.getId() == null)
+            return 0;
+        return append(ADD_POSTING, out -> writePosting(out, posting));
+    }
+
+    /**
+     * Records that a student applied to a posting and waits until it is on disk
+     *
+     * @param posting   the posting applied to
+     * @param applicant the student who applied
+     */
+    public void logAddApplicant(JobPosting posting, Student applicant) {
+        sync(queueAddApplicant(posting, applicant));
+    }
+
+    /**
+     * Queues a record that a student applied to a posting, sync puts it on disk
+     *
+     * @param posting   the posting applied to
+     * @param applicant the student who applied
+     * @return the number of the record, 0 if nothing was queued
+     */
+    long queueAddApplicant(JobPosting posting, Student applicant) {
+        if (applicant == null)
+            return 0;
+        return append(ADD_APPLICANT, out -> {
+            writeId(out, posting.getId());
+            writeId(out, applicant.getId());
+        });
+    }
+
+    /**
+     * Records that a review was added and waits until it is on disk
+     *
+     * @param review the review that was added
+     */
+    public void logAddReview(Review review) {
+        sync(queueAddReview(review));
+    }
+
+    /**
+     * Queues a record that a review was added, sync puts it on disk
+     *
+     * @param review the review that was added
+     * @return the number of the record, 0 if nothing was queued
+     */
+    long queueAddReview(Review review) {
+        if (review == null || review.getId() == null)
+            return 0;
+        return append(ADD_REVIEW, out -> writeReview(out, review));
+    }
+
+    /**
+     * Records that the new status of a posting and waits until it is on disk
+     *
+     * @param posting the posting whose status changed
+     */
+    public void logStatus(JobPosting posting) {
+        sync(queueStatus(posting));
+    }
+
+    /**
+     * Queues a record that the new status of a posting, sync puts it on disk
+     *
+     * @param posting the posting whose status changed
+     * @return the number of the record, 0 if nothing was queued
+     */
+    long queueStatus(JobPosting posting) {
+        return append(POSTING_STATUS, out -> {
+            writeId(out, posting.getId());
+            writeString(out, posting.getStatus() == null ? null : posting.getStatus().name());
+        });
+    }
+
+    /**
+     * Records that a user was approved or unapproved and waits until it is on disk
+     *
+     * @param user the user whose approval changed
+     */
+    public void logApproval(User user) {
+        sync(queueApproval(user));
+    }
+
+    /**
+     * Queues a record that a user was approved or unapproved, sync puts it on disk
+     *
+     * @param user the user whose approval changed
+     * @return the number of the record, 0 if nothing was queued
+     */
+    long queueApproval(User user) {
+        return append(USER_APPROVAL, out -> {
+            writeId(out, user.getId());
+            out.writeBoolean(user.isApproved());
+        });
+    }
+
+    /**
+     * Records that a user was removed and waits until it is on disk
+     *
+     * @param user the user that was removed
+     */
+    public void logRemoveUser(User user) {
+        sync(queueRemoveUser(user));
+    }
+
+    /**
+     * Queues a record that a user was removed, sync puts it on disk
+     *
+     * @param user the user that was removed
+     * @return the number of the record, 0 if nothing was queued
+     */
+    long queueRemoveUser(User user) {
+        return append(REMOVE_USER, out -> writeId(out, user.getId()));
+    }
+
+    /**
+     * Records that a posting was removed and waits until it is on disk
+     *
+     * @param posting the posting that was removed
+     */
+    public void logRemovePosting(JobPosting posting) {
+        sync(queueRemovePosting(posting));
+    }
+
+    /**
+     * Queues a record that a posting was removed, sync puts it on disk
+     *
+     * @param posting the posting that was removed
+     * @return the number of the record, 0 if nothing was queued
+     */
+    long queueRemovePosting(JobPosting posting) {
+        return append(REMOVE_POSTING, out -> writeId(out, posting.getId()));
+    }
+
+    /**
+     * Records that a review was removed and waits until it is on disk
+     *
+     * @param review the review that was removed
+     */
+    public void logRemoveReview(Review review) {
+        sync(queueRemoveReview(review));
+    }
+
+    /**
+     * Queues a record that a review was removed, sync puts it on disk
+     *
+     * @param review the review that was removed
+     * @return the number of the record, 0 if nothing was queued
+     */
+    long queueRemoveReview(Review review) {
+        return append(REMOVE_REVIEW, out -> writeId(out, review.getId()));
+    }
+
+    /**
+     * Applies every record in the log to data that was read from the last saved
+     * files. Records for things the data already has are skipped, so replaying a
+     * log that was already saved does not add anything twice. A torn record at the
+     * end of the log is cut off.
+     *
+     * @param blob the data to apply the records to
+     * @return the number of records that were read
+     */
+    public int replay(DataBlob blob) {
+        synchronized (commitLock) {
+            try {
+                if (!Files.exists(path))
+                    return 0;
+                byte[] bytes = Files.readAllBytes(path);
+                Replay replay = new Replay(blob);
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                int records = 0;
+                while (buffer.remaining() >= HEADER_LENGTH) {
+                    int start = buffer.position();
+                    int length = buffer.getInt();
+                    int crc = buffer.getInt();
+                    if (length <= 0 || length > buffer.remaining()) {
+                        buffer.position(start);
+                        break;
+                    }
+                    CRC32 check = new CRC32();
+                    check.update(bytes, buffer.position(), length);
+                    if ((int) check.getValue() != crc) {
+                        buffer.position(start);
+                        break;
+                    }
+                    replay.apply(new DataInputStream(new ByteArrayInputStream(bytes, buffer.position(), length)));
+                    buffer.position(buffer.position() + length);
+                    records++;
+                }
+                if (buffer.position() < bytes.length) {
+                    Logger.getInstance().log("Dropping " + (bytes.length - buffer.position())
+                            + " bytes of torn records from " + path);
+                    FileChannel file = open();
+                    file.truncate(buffer.position());
+                    file.position(buffer.position());
+                    file.force(true);
+                    synchronized (this) {
+                        appendedBytes = base + buffer.position();
+                    }
+                }
+                Logger.getInstance().log("Replayed " + records + " records from " + path);
+                return records;
+            } catch (IOException e) {
+                e.printStackTrace();
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Gets the position of the end of the log, to pass to checkpoint once the
+     * changes logged so far are saved
+     *
+     * @return the position after the last appended record
+     */
+    public long mark() {
+        try {
+            synchronized (this) {
+                open();
+                return appendedBytes;
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            return 0;
+        }
+    }
+
+    /**
+     * Empties the log once everything in it has been saved to the data files
+     */
+    public void checkpoint() {
+        checkpoint(mark());
+    }
+
+    /**
+     * Drops the records before a mark once they have been saved to the data files.
+     * Records appended after the mark are copied to a new file that replaces the
+     * log in one rename, so a crash leaves either the old log or the new one
+     *
+     * @param mark the position from mark() when the saved data was captured
+     */
+    public void checkpoint(long mark) {
+        synchronized (commitLock) {
+            try {
+                writePending();
+                FileChannel file = open();
+                long cut = mark - base;
+                long size = file.size();
+                if (cut <= 0)
+                    return;
+                if (cut >= size) {
+                    file.truncate(0);
+                    file.position(0);
+                    file.force(true);
+                    base += size;
+                    return;
+                }
+
+                ByteBuffer tail = ByteBuffer.allocate((int) (size - cut));
+                while (tail.hasRemaining() && file.read(tail, cut + tail.position()) >= 0)
+                    ;
+                tail.flip();
+                Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+                try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+                    while (tail.hasRemaining())
+                        out.write(tail);
+                    out.force(true);
+                }
+                synchronized (this) {
+                    file.close();
+                    channel = null;
+                    Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    base += cut;
+                    open();
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Writes any pending records and closes the log file
+     */
+    public void close() {
+        synchronized (commitLock) {
+            try {
+                writePending();
+                synchronized (this) {
+                    if (channel != null)
+                        channel.close();
+                    channel = null;
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Writes the fields of one record
+     */
+    private interface RecordBody {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Makes sure a queued record and every record before it are on disk
+     *
+     * @param sequence the number queue gave the record, 0 for none
+     */
+    public void sync(long sequence) {
+        if (sequence <= 0)
+            return;
+        try {
+            commit(sequence);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Encodes a record and adds it to the pending records
+     *
+     * @param type the kind of record
+     * @param body writes the fields of the record
+     * @return the number of the record, 0 if it could not be encoded
+     */
+    private long append(byte type, RecordBody body) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(type);
+            body.write(out);
+            byte[] record = bytes.toByteArray();
+            CRC32 crc = new CRC32();
+            crc.update(record);
+
+            long sequence;
+            synchronized (this) {
+                open();
+                DataOutputStream frame = new DataOutputStream(pending);
+                frame.writeInt(record.length);
+                frame.writeInt((int) crc.getValue());
+                frame.write(record);
+                sequence = ++appended;
+                appendedBytes += HEADER_LENGTH + record.length;
+            }
+            return sequence;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return 0;
+        }
+    }
+
+    /**
+     * Makes sure a record is on disk. If another thread already synced it this
+     * returns right away, otherwise this thread writes and syncs every pending
+     * record at once
+     *
+     * @param sequence the number of the record that has to be on disk
+     */
+    private void commit(long sequence) throws IOException {
+        synchronized (commitLock) {
+            if (synced < sequence)
+                writePending();
+        }
+    }
+
+    /**
+     * Writes and syncs every pending record. The caller holds commitLock
+     */
+    private void writePending() throws IOException {
+        byte[] batch;
+        long upTo;
+        FileChannel file;
+        synchronized (this) {
+            batch = pending.toByteArray();
+            pending.reset();
+            upTo = appended;
+            file = open();
+        }
+        if (batch.length == 0)
+            return;
+        ByteBuffer buffer = ByteBuffer.wrap(batch);
+        while (buffer.hasRemaining())
+            file.write(buffer);
+        file.force(false);
+        synced = upTo;
+    }
+
+    /**
+     * Opens the log file for appending if it is not open yet
+     *
+     * @return the open file
+     */
+    private synchronized FileChannel open() throws IOException {
+        if (channel == null) {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            channel.position(channel.size());
+            appendedBytes = base + channel.size() + pending.size();
+        }
+        return channel;
+    }
+
+    private static void writeString(DataOutputStream out, String string) throws IOException {
+        out.writeBoolean(string != null);
+        if (string != null)
+            out.writeUTF(string);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeStrings(DataOutputStream out, ArrayList<String> strings) throws IOException {
+        out.writeInt(strings == null ? -1 : strings.size());
+        if (strings != null)
+            for (String string : strings)
+                writeString(out, string);
+    }
+
+    private static ArrayList<String> readStrings(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        if (size < 0)
+            return null;
+        ArrayList<String> strings = new ArrayList<String>(size);
+        for (int i = 0; i < size; i++)
+            strings.add(readString(in));
+        return strings;
+    }
+
+    private static void writeId(DataOutputStream out, UUID id) throws IOException {
+        out.writeBoolean(id != null);
+        if (id != null) {
+            out.writeLong(id.getMostSignificantBits());
+            out.writeLong(id.getLeastSignificantBits());
+        }
+    }
+
+    private static UUID readId(DataInputStream in) throws IOException {
+        return in.readBoolean() ? new UUID(in.readLong(), in.readLong()) : null;
+    }
+
+    /**
+     * Writes every field of a user, starting with which kind of user it is
+     *
+     * @param out  the record to write to
+     * @param user the user to write
+     */
+    private static void writeUser(DataOutputStream out, User user) throws IOException {
+        if (user instanceof Student)
+            out.writeByte(STUDENT);
+        else if (user instanceof Employer)
+            out.writeByte(EMPLOYER);
+        else if (user instanceof Professor)
+            out.writeByte(PROFESSOR);
+        else if (user instanceof Admin)
+            out.writeByte(ADMIN);
+        else
+            throw new IllegalArgumentException("User type not supported");
+
+        writeId(out, user.getId());
+        writeString(out, user.getUsername());
+        writeString(out, user.getPassword());
+        writeString(out, user.getEmail());
+        writeString(out, user.getFirstName());
+        writeString(out, user.getLastName());
+        out.writeBoolean(user.isApproved());
+        out.writeBoolean(user.isRemoved());
+
+        if (user instanceof Student) {
+            Student student = (Student) user;
+            writeString(out, student.getMajor() == null ? null : student.getMajor().name());
+            out.writeBoolean(student.hasCreatedResume());
+            out.writeDouble(student.getAverageReview());
+            writeStrings(out, student.getTechnicalSkills());
+            ArrayList<Employment> employments = student.getEmployments();
+            out.writeInt(employments == null ? -1 : employments.size());
+            if (employments != null) {
+                for (Employment employment : employments) {
+                    writeString(out, employment.getCompany());
+                    writeString(out, employment.getTitle());
+                    writeString(out, employment.getDates());
+                    writeStrings(out, employment.getDetails());
+                }
+            }
+            ArrayList<Education> educations = student.getEducations();
+            out.writeInt(educations == null ? -1 : educations.size());
+            if (educations != null) {
+                for (Education education : educations) {
+                    writeString(out, education.getPlace());
+                    out.writeDouble(education.getGpa());
+                    writeString(out, education.getGradDate());
+                }
+            }
+        } else if (user instanceof Employer) {
+            Employer employer = (Employer) user;
+            writeString(out, employer.getCompany());
+            out.writeDouble(employer.getAverageRating());
+        }
+    }
+
+    /**
+     * Reads a user written by writeUser
+     *
+     * @param in the record to read from
+     * @return the user
+     */
+    private static User readUser(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        UUID id = readId(in);
+        String username = readString(in);
+        String password = readString(in);
+        String email = readString(in);
+        String firstName = readString(in);
+        String lastName = readString(in);
+        boolean approved = in.readBoolean();
+        boolean removed = in.readBoolean();
+
+        switch (type) {
+        case STUDENT:
+            String major = readString(in);
+            boolean createdResume = in.readBoolean();
+            double averageRating = in.readDouble();
+            ArrayList<String> skills = readStrings(in);
+            ArrayList<Employment> employments = null;
+            int employmentCount = in.readInt();
+            if (employmentCount >= 0) {
+                employments = new ArrayList<Employment>(employmentCount);
+                for (int i = 0; i < employmentCount; i++) {
+                    employments.add(new Employment.Builder().company(readString(in)).title(readString(in))
+                            .dates(readString(in)).details(readStrings(in)).build());
+                }
+            }
+            ArrayList<Education> educations = null;
+            int educationCount = in.readInt();
+            if (educationCount >= 0) {
+                educations = new ArrayList<Education>(educationCount);
+                for (int i = 0; i < educationCount; i++) {
+                    educations.add(new Education.Builder().place(readString(in)).gpa(in.readDouble())
+                            .gradDate(readString(in)).build());
+                }
+            }
+            return new Student.Builder().id(id).username(username).password(password).email(email)
+                    .firstName(firstName).lastName(lastName).approved(approved)
+                    .major(major == null ? null : Major.valueOf(major)).createdResume(createdResume)
+                    .employments(employments).educations(educations).technicalSkills(skills)
+                    .averageRating(averageRating).removed(removed).build();
+        case EMPLOYER:
+            return new Employer.Builder().id(id).username(username).password(password).email(email)
+                    .firstName(firstName).lastName(lastName).approved(approved).company(readString(in))
+                    .averageRating(in.readDouble()).removed(removed).build();
+        case PROFESSOR:
+            return new Professor.Builder().id(id).username(username).password(password).email(email)
+                    .firstName(firstName).lastName(lastName).approved(approved).removed(removed).build();
+        case ADMIN:
+            return new Admin.Builder().id(id).username(username).password(password).email(email)
+                    .firstName(firstName).lastName(lastName).approved(approved).build();
+        default:
+            throw new IOException("Unknown user type " + type);
+        }
+    }
+
+    private static void writePosting(DataOutputStream out, JobPosting posting) throws IOException {
+        writeId(out, posting.getId());
+        writeId(out, posting.getEmployer() == null ? null : posting.getEmployer().getId());
+        writeString(out, posting.getJobTitle());
+        writeString(out, posting.getDescription());
+        writeStrings(out, posting.getRequirements());
+        out.writeDouble(posting.getWage());
+        writeString(out, posting.getStatus() == null ? null : posting.getStatus().name());
+        ArrayList<Student> applicants = posting.getApplicants();
+        out.writeInt(applicants == null ? -1 : applicants.size());
+        if (applicants != null)
+            for (Student applicant : applicants)
+                writeId(out, applicant == null ? null : applicant.getId());
+        out.writeBoolean(posting.isRemoved());
+    }
+
+    private static void writeReview(DataOutputStream out, Review review) throws IOException {
+        writeId(out, review.getId());
+        writeId(out, review.getReviewer() == null ? null : review.getReviewer().getId());
+        writeId(out, review.getReviewee() == null ? null : review.getReviewee().getId());
+        out.writeInt(review.getRating());
+        writeString(out, review.getComment());
+        out.writeBoolean(review.isRemoved());
+    }
+
+    /**
+     * Applies records to the data read from the files, finding postings and
+     * reviews by id as it goes
+     */
+    private static class Replay {
+        private DataBlob blob;
+        private HashMap<UUID, JobPosting> postingsById;
+        private HashMap<UUID, Review> reviewsById;
+
+        private Replay(DataBlob blob) {
+            this.blob = blob;
+            postingsById = new HashMap<UUID, JobPosting>();
+            for (JobPosting posting : blob.getJobPostings())
+                postingsById.put(posting.getId(), posting);
+            reviewsById = new HashMap<UUID, Review>();
+            for (Review review : blob.getReviews())
+                reviewsById.put(review.getId(), review);
+        }
+
+        /**
+         * Applies one record
+         *
+         * @param in the fields of the record
+         */
+        private void apply(DataInputStream in) throws IOException {
+            byte type = in.readByte();
+            switch (type) {
+            case ADD_USER:
+                User user = readUser(in);
+                if (blob.getUserById(user.getId()) == null)
+                    blob.addUser(user);
+                break;
+            case ADD_POSTING:
+                addPosting(in);
+                break;
+            case ADD_APPLICANT:
+                JobPosting posting = postingsById.get(readId(in));
+                User applicant = blob.getUserById(readId(in));
+                if (posting != null && applicant instanceof Student)
+                    posting.addApplicant((Student) applicant);
+                break;
+            case ADD_REVIEW:
+                addReview(in);
+                break;
+            case POSTING_STATUS:
+                JobPosting changed = postingsById.get(readId(in));
+                String status = readString(in);
+                if (changed != null)
+                    changed.setStatus(status == null ? null : JobPostingStatus.valueOf(status));
+                break;
+            case USER_APPROVAL:
+                User approved = blob.getUserById(readId(in));
+                boolean isApproved = in.readBoolean();
+                if (approved != null)
+                    approved.setApproved(isApproved);
+                break;
+            case REMOVE_USER:
+                User removedUser = blob.getUserById(readId(in));
+                if (removedUser != null)
+                    removedUser.setRemoved(true);
+                break;
+            case REMOVE_POSTING:
+                JobPosting removedPosting = postingsById.get(readId(in));
+                if (removedPosting != null)
+                    removedPosting.setRemoved(true);
+                break;
+            case REMOVE_REVIEW:
+                Review removedReview = reviewsById.get(readId(in));
+                if (removedReview != null)
+                    removedReview.setRemoved(true);
+                break;
+            default:
+                throw new IOException("Unknown record type " + type);
+            }
+        }
+
+        private void addPosting(DataInputStream in) throws IOException {
+            UUID id = readId(in);
+            User employer = blob.getUserById(readId(in));
+            String jobTitle = readString(in);
+            String description = readString(in);
+            ArrayList<String> requirements = readStrings(in);
+            double hourlyWage = in.readDouble();
+            String status = readString(in);
+            ArrayList<Student> applicants = null;
+            int applicantCount = in.readInt();
+            if (applicantCount >= 0) {
+                applicants = new ArrayList<Student>(applicantCount);
+                for (int i = 0; i < applicantCount; i++) {
+                    User applicant = blob.getUserById(readId(in));
+                    if (applicant instanceof Student)
+                        applicants.add((Student) applicant);
+                }
+            }
+            boolean removed = in.readBoolean();
+            if (postingsById.containsKey(id))
+                return;
+            JobPosting posting = new JobPosting.Builder().id(id)
+                    .employer(employer instanceof Employer ? (Employer) employer : null).jobTitle(jobTitle)
+                    .description(description).requirements(requirements).hourlyWage(hourlyWage)
+                    .status(status == null ? null : JobPostingStatus.valueOf(status)).applicants(applicants)
+                    .removed(removed).build();
+            blob.addJobPosting(posting);
+            postingsById.put(id, posting);
+        }
+
+        private void addReview(DataInputStream in) throws IOException {
+            UUID id = readId(in);
+            User reviewer = blob.getUserById(readId(in));
+            User reviewee = blob.getUserById(readId(in));
+            int rating = in.readInt();
+            String comment = readString(in);
+            boolean removed = in.readBoolean();
+            if (reviewsById.containsKey(id))
+                return;
+            Review review = new Review.Builder().id(id).reviewer(reviewer).reviewee(reviewee).rating(rating)
+                    .comment(comment).removed(removed).build();
+            blob.addReview(review);
+            reviewsById.put(id, review);
+        }
+    }
+}
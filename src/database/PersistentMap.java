@@ -0,0 +1,342 @@
+package database;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+/**
+ * PersistentMap is a hash map that is never changed once it is made. Putting or
+ * removing a key gives back a new map that shares everything but the path to
+ * that key with the old one, so a change costs a few small array copies however
+ * big the map is, and a View can keep the old map without copying it
+ *
+ * Keys may not be null
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public final class PersistentMap<K, V> {
+    private static final PersistentMap<?, ?> EMPTY = new PersistentMap<Object, Object>(null, 0);
+    private static final Object NOT_FOUND = new Object();
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private final Node root; // null when the map is empty
+    private final int size;
+
+    private PersistentMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Gets the empty map
+     *
+     * @param <K> the type of the keys
+     * @param <V> the type of the values
+     * @return a map with no keys
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentMap<K, V> empty() {
+        return (PersistentMap<K, V>) EMPTY;
+    }
+
+    /**
+     * Get method for the number of keys
+     *
+     * @return how many keys are in the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the map has no keys
+     *
+     * @return true if it is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets the value of a key
+     *
+     * @param key the key to look up
+     * @return its value, or null if the key is not in the map
+     */
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        if (root == null || key == null)
+            return null;
+        Object value = root.find(0, hash(key), key);
+        return value == NOT_FOUND ? null : (V) value;
+    }
+
+    /**
+     * Checks if a key is in the map
+     *
+     * @param key the key to look for
+     * @return true if the map has it
+     */
+    public boolean containsKey(Object key) {
+        return root != null && key != null && root.find(0, hash(key), key) != NOT_FOUND;
+    }
+
+    /**
+     * Gets a map with a key set to a value
+     *
+     * @param key   the key, not null
+     * @param value its value
+     * @return the new map, or this one if the key already had that value
+     */
+    public PersistentMap<K, V> plus(K key, V value) {
+        boolean[] added = new boolean[1];
+        Node node = root == null ? BitmapNode.EMPTY : root;
+        Node changed = node.put(0, hash(key), key, value, added);
+        if (changed == root)
+            return this;
+        return new PersistentMap<K, V>(changed, added[0] ? size + 1 : size);
+    }
+
+    /**
+     * Gets a map with a key set to a value, unless it already has the key
+     *
+     * @param key   the key, not null
+     * @param value its value
+     * @return the new map, or this one if the key was already there
+     */
+    public PersistentMap<K, V> plusIfAbsent(K key, V value) {
+        return containsKey(key) ? this : plus(key, value);
+    }
+
+    /**
+     * Gets a map without a key
+     *
+     * @param key the key to take out
+     * @return the new map, or this one if the key was not there
+     */
+    public PersistentMap<K, V> minus(Object key) {
+        if (root == null || key == null)
+            return this;
+        Node changed = root.remove(0, hash(key), key);
+        if (changed == root)
+            return this;
+        return changed == null ? empty() : new PersistentMap<K, V>(changed, size - 1);
+    }
+
+    /**
+     * Calls an action with every key and value in the map, in no set order
+     *
+     * @param action what to call
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        if (root != null)
+            root.forEach((BiConsumer<Object, Object>) action);
+    }
+
+    private static int hash(Object key) {
+        int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * A node of the trie. Nodes are never changed, the methods that change one
+     * give back a new node, or the same node when nothing changed
+     */
+    private interface Node {
+        Object find(int shift, int hash, Object key);
+
+        Node put(int shift, int hash, Object key, Object value, boolean[] added);
+
+        Node remove(int shift, int hash, Object key); // null when the node is left empty
+
+        void forEach(BiConsumer<Object, Object> action);
+    }
+
+    /**
+     * A node with up to 32 slots, one for each value of the next 5 bits of the
+     * hash. Only the slots in use are stored, the bitmap says which ones they
+     * are. Each slot is a key and its value, or a null key and a node below
+     */
+    private static final class BitmapNode implements Node {
+        static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        private final int bitmap;
+        private final Object[] slots;
+
+        private BitmapNode(int bitmap, Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+        private int index(int bit) {
+            return 2 * Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        public Object find(int shift, int hash, Object key) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((bitmap & bit) == 0)
+                return NOT_FOUND;
+            int index = index(bit);
+            Object slotKey = slots[index];
+            if (slotKey == null)
+                return ((Node) slots[index + 1]).find(shift + BITS, hash, key);
+            return key.equals(slotKey) ? slots[index + 1] : NOT_FOUND;
+        }
+
+        @Override
+        public Node put(int shift, int hash, Object key, Object value, boolean[] added) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            int index = index(bit);
+            if ((bitmap & bit) == 0) {
+                Object[] changed = new Object[slots.length + 2];
+                System.arraycopy(slots, 0, changed, 0, index);
+                changed[index] = key;
+                changed[index + 1] = value;
+                System.arraycopy(slots, index, changed, index + 2, slots.length - index);
+                added[0] = true;
+                return new BitmapNode(bitmap | bit, changed);
+            }
+            Object slotKey = slots[index];
+            Object slotValue = slots[index + 1];
+            if (slotKey == null) {
+                Node below = (Node) slotValue;
+                Node changed = below.put(shift + BITS, hash, key, value, added);
+                return changed == below ? this : with(index + 1, changed);
+            }
+            if (key.equals(slotKey))
+                return slotValue == value ? this : with(index + 1, value);
+            added[0] = true;
+            Node below = pair(shift + BITS, slotKey, slotValue, hash, key, value);
+            Object[] changed = slots.clone();
+            changed[index] = null;
+            changed[index + 1] = below;
+            return new BitmapNode(bitmap, changed);
+        }
+
+        @Override
+        public Node remove(int shift, int hash, Object key) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((bitmap & bit) == 0)
+                return this;
+            int index = index(bit);
+            Object slotKey = slots[index];
+            if (slotKey == null) {
+                Node below = (Node) slots[index + 1];
+                Node changed = below.remove(shift + BITS, hash, key);
+                if (changed == below)
+                    return this;
+                if (changed != null)
+                    return with(index + 1, changed);
+            } else if (!key.equals(slotKey)) {
+                return this;
+            }
+            if (bitmap == bit)
+                return null;
+            Object[] changed = new Object[slots.length - 2];
+            System.arraycopy(slots, 0, changed, 0, index);
+            System.arraycopy(slots, index + 2, changed, index, slots.length - index - 2);
+            return new BitmapNode(bitmap & ~bit, changed);
+        }
+
+        @Override
+        public void forEach(BiConsumer<Object, Object> action) {
+            for (int i = 0; i < slots.length; i += 2) {
+                if (slots[i] == null)
+                    ((Node) slots[i + 1]).forEach(action);
+                else
+                    action.accept(slots[i], slots[i + 1]);
+            }
+        }
+
+        private BitmapNode with(int index, Object value) {
+            Object[] changed = slots.clone();
+            changed[index] = value;
+            return new BitmapNode(bitmap, changed);
+        }
+
+        /**
+         * Makes the node below a slot that two keys now share
+         */
+        private static Node pair(int shift, Object key1, Object value1, int hash2, Object key2, Object value2) {
+            int hash1 = hash(key1);
+            if (hash1 == hash2)
+                return new CollisionNode(hash1, new Object[] { key1, value1, key2, value2 });
+            boolean[] added = new boolean[1];
+            return EMPTY.put(shift, hash1, key1, value1, added).put(shift, hash2, key2, value2, added);
+        }
+    }
+
+    /**
+     * A node for keys whose whole hashes are the same, kept as a plain list of
+     * keys and values
+     */
+    private static final class CollisionNode implements Node {
+        private final int hash;
+        private final Object[] slots;
+
+        private CollisionNode(int hash, Object[] slots) {
+            this.hash = hash;
+            this.slots = slots;
+        }
+
+        private int index(Object key) {
+            for (int i = 0; i < slots.length; i += 2)
+                if (key.equals(slots[i]))
+                    return i;
+            return -1;
+        }
+
+        @Override
+        public Object find(int shift, int hash, Object key) {
+            if (hash != this.hash)
+                return NOT_FOUND;
+            int index = index(key);
+            return index < 0 ? NOT_FOUND : slots[index + 1];
+        }
+
+        @Override
+        public Node put(int shift, int hash, Object key, Object value, boolean[] added) {
+            if (hash != this.hash) {
+                BitmapNode above = new BitmapNode(1 << ((this.hash >>> shift) & MASK), new Object[] { null, this });
+                return above.put(shift, hash, key, value, added);
+            }
+            int index = index(key);
+            if (index >= 0) {
+                if (slots[index + 1] == value)
+                    return this;
+                Object[] changed = slots.clone();
+                changed[index + 1] = value;
+                return new CollisionNode(hash, changed);
+            }
+            Object[] changed = Arrays.copyOf(slots, slots.length + 2);
+            changed[slots.length] = key;
+            changed[slots.length + 1] = value;
+            added[0] = true;
+            return new CollisionNode(hash, changed);
+        }
+
+        @Override
+        public Node remove(int shift, int hash, Object key) {
+            if (hash != this.hash)
+                return this;
+            int index = index(key);
+            if (index < 0)
+                return this;
+            if (slots.length == 2)
+                return null;
+            Object[] changed = new Object[slots.length - 2];
+            System.arraycopy(slots, 0, changed, 0, index);
+            System.arraycopy(slots, index + 2, changed, index, slots.length - index - 2);
+            return new CollisionNode(hash, changed);
+        }
+
+        @Override
+        public void forEach(BiConsumer<Object, Object> action) {
+            for (int i = 0; i < slots.length; i += 2)
+                action.accept(slots[i], slots[i + 1]);
+        }
+    }
+}
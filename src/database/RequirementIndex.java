@@ -0,0 +1,213 @@
+package database;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import dataTypes.JobPosting;
+
+/**
+ * Inverted index from the words in a posting's requirements to the postings
+ * that use them
+ * 
+ * The maps inside are PersistentMaps held in one root. A change builds a new
+ * root that shares everything but the terms it touched and swaps it in with a
+ * compare-and-set, trying again if another posting's change got in first. So
+ * changes for different postings do not wait on each other, a search reads one
+ * root and sees each change whole, and a copy costs nothing
+ */
+public class RequirementIndex {
+    private final AtomicReference<Root> root;
+
+    /**
+     * Constructor creates an empty index
+     */
+    public RequirementIndex() {
+        root = new AtomicReference<Root>(Root.EMPTY);
+    }
+
+    /**
+     * Copy constructor, the copy can be changed without changing the original
+     * 
+     * @param other the index to copy
+     */
+    public RequirementIndex(RequirementIndex other) {
+        root = new AtomicReference<Root>(other.root.get());
+    }
+
+    /**
+     * Splits text into lowercase search terms. Letters, digits, '+' and '#' are
+     * kept together so requirements like "C++" and "C#" stay searchable
+     * 
+     * @param text the text to split
+     * @return ArrayList of the terms in the text
+     */
+    public static ArrayList<String> tokenize(String text) {
+        ArrayList<String> terms = new ArrayList<String>();
+        if (text == null)
+            return terms;
+        for (String term : text.toLowerCase().split("[^a-z0-9+#]+")) {
+            if (!term.isEmpty())
+                terms.add(term);
+        }
+        return terms;
+    }
+
+    /**
+     * Empties the index
+     */
+    public void clear() {
+        root.set(Root.EMPTY);
+    }
+
+    /**
+     * Adds a posting and the terms of its requirements to the index
+     * 
+     * @param posting the posting to add
+     */
+    public void add(JobPosting posting) {
+        if (posting == null || posting.getId() == null)
+            return;
+        Set<String> terms = terms(posting);
+        root.updateAndGet(current -> current.without(posting.getId()).with(posting, terms));
+    }
+
+    /**
+     * Takes a posting and all of its terms out of the index
+     * 
+     * @param posting the posting to take out
+     */
+    public void remove(JobPosting posting) {
+        if (posting == null || posting.getId() == null)
+            return;
+        root.updateAndGet(current -> current.without(posting.getId()));
+    }
+
+    /**
+     * Re-reads the requirements of a posting that is already in the index. Only
+     * the terms that were added or dropped are changed, and the posting moves to
+     * the end of the result order as if it was added again. Postings that were
+     * never added are ignored
+     * 
+     * @param posting the posting whose requirements changed
+     */
+    public void update(JobPosting posting) {
+        if (posting == null || posting.getId() == null)
+            return;
+        Set<String> terms = terms(posting);
+        root.updateAndGet(current -> current.termsByPosting.containsKey(posting.getId())
+                ? current.with(posting, terms)
+                : current);
+    }
+
+    /**
+     * Finds the postings whose requirements contain every word of the keywords
+     * 
+     * @param keywords the words to search for
+     * @return ArrayList of the matching postings
+     */
+    public ArrayList<JobPosting> search(String keywords) {
+        Root root = this.root.get();
+        ArrayList<JobPosting> matches = new ArrayList<JobPosting>();
+        ArrayList<String> terms = tokenize(keywords);
+        if (terms.isEmpty())
+            return matches;
+
+        // start from the rarest term so the intersection stays small
+        PersistentMap<UUID, JobPosting> smallest = null;
+        for (String term : terms) {
+            PersistentMap<UUID, JobPosting> postings = root.postingsByTerm.get(term);
+            if (postings == null)
+                return matches;
+            if (smallest == null || postings.size() < smallest.size())
+                smallest = postings;
+        }
+        smallest.forEach((id, posting) -> {
+            if (root.termsByPosting.get(id).containsAll(terms))
+                matches.add(posting);
+        });
+        matches.sort(Comparator.comparing(posting -> root.order.get(posting.getId())));
+        return matches;
+    }
+
+    /**
+     * Gets the terms of a posting's requirements
+     * 
+     * @param posting the posting
+     * @return the set of its terms, which is not changed afterwards
+     */
+    private static Set<String> terms(JobPosting posting) {
+        HashSet<String> terms = new HashSet<String>();
+        if (posting.getRequirements() != null) {
+            for (String requirement : posting.getRequirements())
+                terms.addAll(tokenize(requirement));
+        }
+        return Collections.unmodifiableSet(terms);
+    }
+
+    /**
+     * One version of the whole index. Nothing in it is changed, the methods give
+     * back a new Root
+     */
+    private static final class Root {
+        static final Root EMPTY = new Root(PersistentMap.empty(), PersistentMap.empty(), PersistentMap.empty(), 0);
+
+        final PersistentMap<String, PersistentMap<UUID, JobPosting>> postingsByTerm;
+        final PersistentMap<UUID, Set<String>> termsByPosting; // the sets are never changed
+        final PersistentMap<UUID, Integer> order; // keeps results in the order postings were last added
+        final int nextOrder;
+
+        private Root(PersistentMap<String, PersistentMap<UUID, JobPosting>> postingsByTerm,
+                PersistentMap<UUID, Set<String>> termsByPosting, PersistentMap<UUID, Integer> order, int nextOrder) {
+            this.postingsByTerm = postingsByTerm;
+            this.termsByPosting = termsByPosting;
+            this.order = order;
+            this.nextOrder = nextOrder;
+        }
+
+        /**
+         * Gets a root with a posting's terms set, touching only the terms that
+         * differ from the ones it had
+         */
+        Root with(JobPosting posting, Set<String> terms) {
+            UUID id = posting.getId();
+            PersistentMap<String, PersistentMap<UUID, JobPosting>> byTerm = postingsByTerm;
+            Set<String> oldTerms = termsByPosting.get(id);
+            if (oldTerms != null) {
+                for (String term : oldTerms)
+                    if (!terms.contains(term))
+                        byTerm = removeTerm(byTerm, term, id);
+            }
+            for (String term : terms) {
+                PersistentMap<UUID, JobPosting> postings = byTerm.get(term);
+                if (postings == null)
+                    postings = PersistentMap.empty();
+                byTerm = byTerm.plus(term, postings.plus(id, posting));
+            }
+            return new Root(byTerm, termsByPosting.plus(id, terms), order.plus(id, nextOrder), nextOrder + 1);
+        }
+
+        /**
+         * Gets a root without a posting
+         */
+        Root without(UUID id) {
+            Set<String> terms = termsByPosting.get(id);
+            if (terms == null)
+                return this;
+            PersistentMap<String, PersistentMap<UUID, JobPosting>> byTerm = postingsByTerm;
+            for (String term : terms)
+                byTerm = removeTerm(byTerm, term, id);
+            return new Root(byTerm, termsByPosting.minus(id), order.minus(id), nextOrder);
+        }
+
+        private static PersistentMap<String, PersistentMap<UUID, JobPosting>> removeTerm(
+                PersistentMap<String, PersistentMap<UUID, JobPosting>> byTerm, String term, UUID id) {
+            PersistentMap<UUID, JobPosting> postings = byTerm.get(term).minus(id);
+            return postings.isEmpty() ? byTerm.minus(term) : byTerm.plus(term, postings);
+        }
+    }
+}
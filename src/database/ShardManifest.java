@@ -0,0 +1,122 @@
+package database;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.UUID;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Layout of the sharded data folder written by ShardedDataWriter and read by
+ * ShardedDataReader.
+ *
+ * Records are spread over shard folders by the hash of their id, and every
+ * shard folder holds the same six JSON files as the data folder, each with only
+ * the records of that shard. Manifest.json lists the shard folders in order.
+ */
+final class ShardManifest {
+    static final String MANIFEST = "Manifest.json";
+    static final String ADMINS = "Administrators.json";
+    static final String STUDENTS = "Students.json";
+    static final String EMPLOYERS = "Employers.json";
+    static final String PROFESSORS = "Professors.json";
+    static final String REVIEWS = "Reviews.json";
+    static final String POSTINGS = "JobPostings.json";
+    static final String[] FILES = { ADMINS, STUDENTS, EMPLOYERS, PROFESSORS, REVIEWS, POSTINGS };
+
+    private static final int VERSION = 1;
+    private static final String VERSION_LABEL = "version";
+    private static final String SHARDS_LABEL = "shards";
+
+    private ShardManifest() {
+    }
+
+    /**
+     * Gets the shard a record is stored in
+     *
+     * @param id         the id of the record
+     * @param shardCount how many shards there are
+     * @return the position of the shard
+     */
+    static int shardOf(UUID id, int shardCount) {
+        return Math.floorMod(id.hashCode(), shardCount);
+    }
+
+    /**
+     * Gets the name of a shard folder
+     *
+     * @param shard the position of the shard
+     * @return the folder name
+     */
+    static String shardName(int shard) {
+        return String.format("shard-%02d", shard);
+    }
+
+    /**
+     * Reads the shard folders listed in a manifest
+     *
+     * @param manifest the manifest file
+     * @return the shard folder names in order, or null if there is no manifest
+     * @throws IOException if the manifest cannot be read
+     */
+    static ArrayList<String> read(Path manifest) throws IOException {
+        if (!Files.exists(manifest))
+            return null;
+        ArrayList<String> shards = new ArrayList<String>();
+        try (Reader file = Files.newBufferedReader(manifest, StandardCharsets.UTF_8);
+                JsonReader reader = new JsonReader(file)) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                case VERSION_LABEL:
+                    int version = reader.nextInt();
+                    if (version != VERSION)
+                        throw new IOException("Unsupported manifest version " + version);
+                    break;
+                case SHARDS_LABEL:
+                    reader.beginArray();
+                    while (reader.hasNext())
+                        shards.add(reader.nextString());
+                    reader.endArray();
+                    break;
+                default:
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        return shards;
+    }
+
+    /**
+     * Writes a manifest and syncs it to disk
+     *
+     * @param manifest   the file to write
+     * @param shardCount how many shards there are
+     * @throws IOException if the file cannot be written
+     */
+    static void write(Path manifest, int shardCount) throws IOException {
+        try (FileChannel channel = FileChannel.open(manifest, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+                JsonWriter out = new JsonWriter(Channels.newWriter(channel, StandardCharsets.UTF_8))) {
+            out.setIndent("  ");
+            out.beginObject();
+            out.name(VERSION_LABEL).value(VERSION);
+            out.name(SHARDS_LABEL).beginArray();
+            for (int shard = 0; shard < shardCount; shard++)
+                out.value(shardName(shard));
+            out.endArray();
+            out.endObject();
+            out.flush();
+            channel.force(true);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package database;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import dataTypes.Admin;
+import dataTypes.DataBlob;
+import dataTypes.Employer;
+import dataTypes.JobPosting;
+import dataTypes.Professor;
+import dataTypes.Review;
+import dataTypes.Student;
+
+/**
+ * ShardedDataReader class subclass of JsonStreamDataReader reads the shard
+ * folders written by ShardedDataWriter. Each collection's shard files are read
+ * in parallel and joined in shard order, so the records come back grouped by
+ * shard instead of in the order they were added
+ */
+public class ShardedDataReader extends JsonStreamDataReader {
+    private Path directory;
+    private ArrayList<String> shards;
+
+    /**
+     * Constructor
+     *
+     * @param directory the folder the shards and manifest are stored in
+     */
+    public ShardedDataReader(String directory) {
+        // the paths only place the commit marker, the files are read from the shard folders
+        super(Paths.get(directory, ShardManifest.ADMINS).toString(),
+                Paths.get(directory, ShardManifest.STUDENTS).toString(),
+                Paths.get(directory, ShardManifest.EMPLOYERS).toString(),
+                Paths.get(directory, ShardManifest.PROFESSORS).toString(),
+                Paths.get(directory, ShardManifest.REVIEWS).toString(),
+                Paths.get(directory, ShardManifest.POSTINGS).toString());
+        this.directory = Paths.get(directory).toAbsolutePath();
+        this.shards = new ArrayList<String>();
+    }
+
+    /**
+     * Finishes an interrupted save, reads the manifest and then every shard. A
+     * folder without a manifest reads as empty
+     *
+     * @return DataBlob what is read from the shards
+     */
+    @Override
+    public DataBlob read() {
+        Path manifest = directory.resolve(ShardManifest.MANIFEST);
+        Path marker = AtomicFileSet.markerNextTo(manifest.toString());
+        AtomicFileSet.recover(marker, manifest.toString());
+        shards = new ArrayList<String>();
+        try {
+            ArrayList<String> listed = ShardManifest.read(manifest);
+            if (listed != null)
+                shards = listed;
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+
+        ArrayList<String> files = new ArrayList<String>();
+        for (String shard : shards)
+            for (String file : ShardManifest.FILES)
+                files.add(directory.resolve(shard).resolve(file).toString());
+        AtomicFileSet.recover(marker, files.toArray(new String[0]));
+        return super.read();
+    }
+
+    /**
+     * Reads one file from every shard at once and joins them in shard order.
+     * Shards that do not have the file yet are skipped
+     *
+     * @param fileName the file to read in each shard
+     * @param read     reads one file
+     * @return the records of every shard
+     */
+    private <T> ArrayList<T> readShards(String fileName, Function<String, ArrayList<T>> read) {
+        List<ArrayList<T>> parts = shards.parallelStream().map(shard -> directory.resolve(shard).resolve(fileName))
+                .map(file -> Files.exists(file) ? read.apply(file.toString()) : new ArrayList<T>())
+                .collect(Collectors.toList());
+        ArrayList<T> records = new ArrayList<T>();
+        for (ArrayList<T> part : parts)
+            records.addAll(part);
+        return records;
+    }
+
+    @Override
+    protected ArrayList<Admin> readAdministrators() {
+        return readShards(ShardManifest.ADMINS, this::readAdministrators);
+    }
+
+    @Override
+    protected ArrayList<Student> readStudents() {
+        return readShards(ShardManifest.STUDENTS, this::readStudents);
+    }
+
+    @Override
+    protected ArrayList<Employer> readEmployers() {
+        return readShards(ShardManifest.EMPLOYERS, this::readEmployers);
+    }
+
+    @Override
+    protected ArrayList<Professor> readProfessors() {
+        return readShards(ShardManifest.PROFESSORS, this::readProfessors);
+    }
+
+    @Override
+    protected ArrayList<Review> readReviews() {
+        return readShards(ShardManifest.REVIEWS, this::readReviews);
+    }
+
+    @Override
+    protected ArrayList<JobPosting> readJobPostings() {
+        return readShards(ShardManifest.POSTINGS, this::readJobPostings);
+    }
+}
@@ -0,0 +1,236 @@
+package database;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import dataTypes.Admin;
+import dataTypes.DataBlob;
+import dataTypes.Employer;
+import dataTypes.JobPosting;
+import dataTypes.Professor;
+import dataTypes.Review;
+import dataTypes.Student;
+import dataTypes.User;
+import enums.DataCollection;
+
+/**
+ * ShardedDataWriter class subclass of DataWriter spreads the records over shard
+ * folders by the hash of their id, as described in ShardManifest. When the
+ * Database says which records changed, only the files of the shards holding
+ * them are rewritten, so a save costs the size of a shard instead of the size
+ * of a collection
+ */
+public class ShardedDataWriter extends DataWriter {
+    private Path directory;
+    private int shardCount;
+    private JsonDataWriter[] shards;
+
+    /**
+     * Constructor
+     *
+     * @param directory  the folder the shards and manifest are stored in
+     * @param shardCount how many shards to spread the records over
+     */
+    public ShardedDataWriter(String directory, int shardCount) {
+        if (shardCount < 1)
+            throw new IllegalArgumentException("There must be at least one shard");
+        this.directory = Paths.get(directory).toAbsolutePath();
+        this.shardCount = shardCount;
+        this.shards = new JsonDataWriter[shardCount];
+        for (int shard = 0; shard < shardCount; shard++) {
+            Path folder = this.directory.resolve(ShardManifest.shardName(shard));
+            shards[shard] = new JsonDataWriter(folder.resolve(ShardManifest.ADMINS).toString(),
+                    folder.resolve(ShardManifest.STUDENTS).toString(),
+                    folder.resolve(ShardManifest.EMPLOYERS).toString(),
+                    folder.resolve(ShardManifest.PROFESSORS).toString(),
+                    folder.resolve(ShardManifest.REVIEWS).toString(),
+                    folder.resolve(ShardManifest.POSTINGS).toString());
+        }
+    }
+
+    /**
+     * Writes every shard
+     *
+     * @param data the data to write
+     */
+    public void write(DataBlob data) {
+        write(data.getUsers(), data.getReviews(), data.getJobPostings());
+    }
+
+    /**
+     * Writes every shard
+     *
+     * @param users    the users to write
+     * @param reviews  the reviews to write
+     * @param postings the postings to write
+     */
+    public void write(ArrayList<User> users, ArrayList<Review> reviews, ArrayList<JobPosting> postings) {
+        write(users, reviews, postings, EnumSet.allOf(DataCollection.class), null);
+    }
+
+    /**
+     * Writes the changed collections in every shard
+     *
+     * @param users    the users to write
+     * @param reviews  the reviews to write
+     * @param postings the postings to write
+     * @param changed  the collections whose files are rewritten
+     */
+    @Override
+    public void write(ArrayList<User> users, ArrayList<Review> reviews, ArrayList<JobPosting> postings,
+            Set<DataCollection> changed) {
+        write(users, reviews, postings, changed, null);
+    }
+
+    /**
+     * Writes the files of the changed collections in the shards that hold a
+     * changed record. A changed id that is no longer in the lists had its record
+     * taken out, so its shard is rewritten for every changed collection. All the
+     * files and the manifest are replaced as one group
+     *
+     * @param users          the users to write
+     * @param reviews        the reviews to write
+     * @param postings       the postings to write
+     * @param changed        the collections whose files are rewritten
+     * @param changedRecords the ids of the records that changed, or null to
+     *                       rewrite every shard
+     */
+    @Override
+    public void write(ArrayList<User> users, ArrayList<Review> reviews, ArrayList<JobPosting> postings,
+            Set<DataCollection> changed, Set<UUID> changedRecords) {
+        boolean everyShard = changedRecords == null || !manifestMatches();
+        HashSet<UUID> missing = everyShard ? new HashSet<UUID>() : new HashSet<UUID>(changedRecords);
+        ArrayList<EnumSet<DataCollection>> dirtyShards = new ArrayList<EnumSet<DataCollection>>();
+        ArrayList<ArrayList<User>> shardUsers = new ArrayList<ArrayList<User>>();
+        ArrayList<ArrayList<Review>> shardReviews = new ArrayList<ArrayList<Review>>();
+        ArrayList<ArrayList<JobPosting>> shardPostings = new ArrayList<ArrayList<JobPosting>>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            EnumSet<DataCollection> dirty = EnumSet.noneOf(DataCollection.class);
+            if (everyShard)
+                dirty.addAll(changed);
+            dirtyShards.add(dirty);
+            shardUsers.add(new ArrayList<User>());
+            shardReviews.add(new ArrayList<Review>());
+            shardPostings.add(new ArrayList<JobPosting>());
+        }
+
+        if (users != null) {
+            for (User user : users) {
+                int shard = ShardManifest.shardOf(user.getId(), shardCount);
+                shardUsers.get(shard).add(user);
+                if (missing.remove(user.getId()))
+                    dirtyShards.get(shard).add(collectionOf(user));
+            }
+        }
+        if (reviews != null) {
+            for (Review review : reviews) {
+                int shard = ShardManifest.shardOf(review.getId(), shardCount);
+                shardReviews.get(shard).add(review);
+                if (missing.remove(review.getId()))
+                    dirtyShards.get(shard).add(DataCollection.REVIEWS);
+            }
+        }
+        if (postings != null) {
+            for (JobPosting posting : postings) {
+                int shard = ShardManifest.shardOf(posting.getId(), shardCount);
+                shardPostings.get(shard).add(posting);
+                if (missing.remove(posting.getId()))
+                    dirtyShards.get(shard).add(DataCollection.POSTINGS);
+            }
+        }
+        for (UUID id : missing)
+            dirtyShards.get(ShardManifest.shardOf(id, shardCount)).addAll(changed);
+
+        Path manifest = directory.resolve(ShardManifest.MANIFEST);
+        AtomicFileSet files = new AtomicFileSet(AtomicFileSet.markerNextTo(manifest.toString()));
+        boolean committed = false;
+        try {
+            for (int shard = 0; shard < shardCount; shard++) {
+                EnumSet<DataCollection> dirty = dirtyShards.get(shard);
+                dirty.retainAll(changed);
+                if (dirty.isEmpty())
+                    continue;
+                Files.createDirectories(directory.resolve(ShardManifest.shardName(shard)));
+                shards[shard].stage(shardUsers.get(shard), shardReviews.get(shard), shardPostings.get(shard), dirty,
+                        files);
+            }
+            if (everyShard)
+                ShardManifest.write(files.stage(manifest.toString()), shardCount);
+            files.commit();
+            committed = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (!committed)
+                files.abort();
+        }
+    }
+
+    /**
+     * Checks if the manifest on disk has the shards this writer uses
+     *
+     * @return true if there is a manifest with the same number of shards
+     */
+    private boolean manifestMatches() {
+        try {
+            ArrayList<String> listed = ShardManifest.read(directory.resolve(ShardManifest.MANIFEST));
+            return listed != null && listed.size() == shardCount;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Gets the collection a user is saved in
+     *
+     * @param user the user
+     * @return the user's collection
+     */
+    private static DataCollection collectionOf(User user) {
+        if (user instanceof Student)
+            return DataCollection.STUDENTS;
+        if (user instanceof Employer)
+            return DataCollection.EMPLOYERS;
+        if (user instanceof Professor)
+            return DataCollection.PROFESSORS;
+        if (user instanceof Admin)
+            return DataCollection.ADMINS;
+        throw new IllegalArgumentException("User type not supported");
+    }
+
+    /**
+     * Rewrites the users in every shard
+     *
+     * @param users the users to write
+     */
+    public void writeUsers(ArrayList<User> users) {
+        write(users, null, null, EnumSet.of(DataCollection.STUDENTS, DataCollection.EMPLOYERS,
+                DataCollection.PROFESSORS, DataCollection.ADMINS), null);
+    }
+
+    /**
+     * Rewrites the postings in every shard
+     *
+     * @param postings the postings to write
+     */
+    public void writeJobPostings(ArrayList<JobPosting> postings) {
+        write(null, null, postings, EnumSet.of(DataCollection.POSTINGS), null);
+    }
+
+    /**
+     * Rewrites the reviews in every shard
+     *
+     * @param reviews the reviews to write
+     */
+    public void writeReviews(ArrayList<Review> reviews) {
+        write(null, reviews, null, EnumSet.of(DataCollection.REVIEWS), null);
+    }
+}
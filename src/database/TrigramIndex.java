@@ -0,0 +1,248 @@
+package database;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import dataTypes.JobPosting;
+
+/**
+ * Substring index over posting requirements. Every three character piece of a
+ * lowercased requirement points to the postings that contain it, so a query
+ * only has to check the postings that share all of its pieces
+ * 
+ * The maps inside are PersistentMaps held in one root. A change builds a new
+ * root that shares everything but the trigrams it touched and swaps it in with
+ * a compare-and-set, trying again if another posting's change got in first. So
+ * changes for different postings do not wait on each other, a search reads one
+ * root and sees each change whole, and a copy costs nothing
+ */
+public class TrigramIndex {
+    private static final int GRAM_LENGTH = 3;
+
+    private final AtomicReference<Root> root;
+
+    /**
+     * Constructor creates an empty index
+     */
+    public TrigramIndex() {
+        root = new AtomicReference<Root>(Root.EMPTY);
+    }
+
+    /**
+     * Copy constructor, the copy can be changed without changing the original
+     * 
+     * @param other the index to copy
+     */
+    public TrigramIndex(TrigramIndex other) {
+        root = new AtomicReference<Root>(other.root.get());
+    }
+
+    /**
+     * Empties the index
+     */
+    public void clear() {
+        root.set(Root.EMPTY);
+    }
+
+    /**
+     * Adds a posting and the trigrams of its requirements to the index
+     * 
+     * @param posting the posting to add
+     */
+    public void add(JobPosting posting) {
+        if (posting == null || posting.getId() == null)
+            return;
+        Set<String> grams = grams(posting);
+        root.updateAndGet(current -> current.with(posting, grams));
+    }
+
+    /**
+     * Takes a posting and all of its trigrams out of the index
+     * 
+     * @param posting the posting to take out
+     */
+    public void remove(JobPosting posting) {
+        if (posting == null || posting.getId() == null)
+            return;
+        root.updateAndGet(current -> current.without(posting.getId()));
+    }
+
+    /**
+     * Re-reads the requirements of a posting that is already in the index. Only
+     * the trigrams that were added or dropped are changed, and the posting keeps
+     * its place in the result order. Postings that were never added are ignored
+     * 
+     * @param posting the posting whose requirements changed
+     */
+    public void update(JobPosting posting) {
+        if (posting == null || posting.getId() == null)
+            return;
+        Set<String> grams = grams(posting);
+        root.updateAndGet(current -> current.gramsByPosting.containsKey(posting.getId())
+                ? current.with(posting, grams)
+                : current);
+    }
+
+    /**
+     * Finds the postings with a requirement that contains the query, ignoring case.
+     * This gives the same results as checking every requirement with
+     * String.contains
+     * 
+     * @param query the text to look for
+     * @return ArrayList of the matching postings in the order they were added
+     */
+    public ArrayList<JobPosting> search(String query) {
+        Root root = this.root.get();
+        String needle = query.toLowerCase();
+        ArrayList<JobPosting> matches = new ArrayList<JobPosting>();
+        for (JobPosting posting : candidates(root, needle)) {
+            if (posting.getRequirements() == null)
+                continue;
+            for (String requirement : posting.getRequirements()) {
+                if (requirement != null && requirement.toLowerCase().contains(needle)) {
+                    matches.add(posting);
+                    break;
+                }
+            }
+        }
+        matches.sort(Comparator.comparing(posting -> root.order.get(posting.getId())));
+        return matches;
+    }
+
+    /**
+     * Gets the postings that have every trigram of the query. Queries that are too
+     * short to have a trigram can match anything, so every posting is a candidate
+     * 
+     * @param root   the version of the index to look in
+     * @param needle the lowercased query
+     * @return the postings that might match
+     */
+    private static ArrayList<JobPosting> candidates(Root root, String needle) {
+        HashSet<String> grams = new HashSet<String>();
+        addGrams(needle, grams);
+        ArrayList<JobPosting> result = new ArrayList<JobPosting>();
+        if (grams.isEmpty()) {
+            root.postingsById.forEach((id, posting) -> result.add(posting));
+            return result;
+        }
+
+        // start from the rarest trigram so the intersection stays small
+        PersistentMap<UUID, JobPosting> smallest = null;
+        for (String gram : grams) {
+            PersistentMap<UUID, JobPosting> postings = root.postingsByGram.get(gram);
+            if (postings == null)
+                return result;
+            if (smallest == null || postings.size() < smallest.size())
+                smallest = postings;
+        }
+        smallest.forEach((id, posting) -> {
+            if (root.gramsByPosting.get(id).containsAll(grams))
+                result.add(posting);
+        });
+        return result;
+    }
+
+    /**
+     * Gets the trigrams of a posting's requirements
+     * 
+     * @param posting the posting
+     * @return the set of its trigrams, which is not changed afterwards
+     */
+    private static Set<String> grams(JobPosting posting) {
+        HashSet<String> grams = new HashSet<String>();
+        if (posting.getRequirements() != null) {
+            for (String requirement : posting.getRequirements()) {
+                if (requirement != null)
+                    addGrams(requirement.toLowerCase(), grams);
+            }
+        }
+        return Collections.unmodifiableSet(grams);
+    }
+
+    /**
+     * Adds every trigram of the text to a set
+     * 
+     * @param text  the text to split
+     * @param grams the set to add to
+     */
+    private static void addGrams(String text, HashSet<String> grams) {
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++)
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+    }
+
+    /**
+     * One version of the whole index. Nothing in it is changed, the methods give
+     * back a new Root
+     */
+    private static final class Root {
+        static final Root EMPTY = new Root(PersistentMap.empty(), PersistentMap.empty(), PersistentMap.empty(),
+                PersistentMap.empty(), 0);
+
+        final PersistentMap<String, PersistentMap<UUID, JobPosting>> postingsByGram;
+        final PersistentMap<UUID, Set<String>> gramsByPosting; // the sets are never changed
+        final PersistentMap<UUID, JobPosting> postingsById;
+        final PersistentMap<UUID, Integer> order; // keeps results in the order postings were added
+        final int nextOrder;
+
+        private Root(PersistentMap<String, PersistentMap<UUID, JobPosting>> postingsByGram,
+                PersistentMap<UUID, Set<String>> gramsByPosting, PersistentMap<UUID, JobPosting> postingsById,
+                PersistentMap<UUID, Integer> order, int nextOrder) {
+            this.postingsByGram = postingsByGram;
+            this.gramsByPosting = gramsByPosting;
+            this.postingsById = postingsById;
+            this.order = order;
+            this.nextOrder = nextOrder;
+        }
+
+        /**
+         * Gets a root with a posting's trigrams set, touching only the trigrams
+         * that differ from the ones it had. A posting that was already added keeps
+         * its place in the order
+         */
+        Root with(JobPosting posting, Set<String> grams) {
+            UUID id = posting.getId();
+            PersistentMap<String, PersistentMap<UUID, JobPosting>> byGram = removeGrams(postingsByGram, id, grams);
+            for (String gram : grams) {
+                PersistentMap<UUID, JobPosting> postings = byGram.get(gram);
+                if (postings == null)
+                    postings = PersistentMap.empty();
+                byGram = byGram.plus(gram, postings.plus(id, posting));
+            }
+            boolean ordered = order.containsKey(id);
+            return new Root(byGram, gramsByPosting.plus(id, grams), postingsById.plus(id, posting),
+                    ordered ? order : order.plus(id, nextOrder), ordered ? nextOrder : nextOrder + 1);
+        }
+
+        /**
+         * Gets a root without a posting
+         */
+        Root without(UUID id) {
+            if (!postingsById.containsKey(id) && !gramsByPosting.containsKey(id))
+                return this;
+            return new Root(removeGrams(postingsByGram, id, Collections.emptySet()), gramsByPosting.minus(id),
+                    postingsById.minus(id), order.minus(id), nextOrder);
+        }
+
+        /**
+         * Takes a posting out of the lists of the trigrams it had and no longer has
+         */
+        private PersistentMap<String, PersistentMap<UUID, JobPosting>> removeGrams(
+                PersistentMap<String, PersistentMap<UUID, JobPosting>> byGram, UUID id, Set<String> keep) {
+            Set<String> oldGrams = gramsByPosting.get(id);
+            if (oldGrams == null)
+                return byGram;
+            for (String gram : oldGrams) {
+                if (keep.contains(gram))
+                    continue;
+                PersistentMap<UUID, JobPosting> postings = byGram.get(gram).minus(id);
+                byGram = postings.isEmpty() ? byGram.minus(gram) : byGram.plus(gram, postings);
+            }
+            return byGram;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package enums;
+
+/**
+ * DataCollection enum the groups of records that are each saved to their own
+ * file
+ */
+public enum DataCollection {
+    STUDENTS, EMPLOYERS, PROFESSORS, ADMINS, REVIEWS, POSTINGS;
+}
@@ -0,0 +1,8 @@
+package enums;
+
+/**
+ * UpdateResult enum what happened to a compare-and-set update in the Database
+ */
+public enum UpdateResult {
+    APPLIED, CONFLICT, MISSING;
+}
@@ -0,0 +1,98 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import dataTypes.ApplicantSet;
+import dataTypes.JobPosting;
+import dataTypes.Student;
+
+public class ApplicantSetTest {
+    private static final int THREADS = 16;
+    private static final int STUDENTS = 200;
+
+    private static Student student(UUID id, String username) {
+        return new Student.Builder().id(id).username(username).firstName("first").lastName("last").build();
+    }
+
+    @Test
+    public void keepsApplicationOrderAndSkipsRepeats() {
+        Student first = student(UUID.randomUUID(), "first");
+        Student second = student(UUID.randomUUID(), "second");
+        Student sameAsFirst = student(first.getId(), "copy");
+        ApplicantSet applicants = new ApplicantSet();
+
+        assertTrue(applicants.add(first));
+        assertTrue(applicants.add(second));
+        assertFalse(applicants.add(sameAsFirst));
+        assertFalse(applicants.add(null));
+        assertEquals(2, applicants.size());
+        assertTrue(applicants.contains(sameAsFirst));
+        assertEquals(first, applicants.toList().get(0));
+        assertEquals(second, applicants.toList().get(1));
+    }
+
+    @Test
+    public void postingIgnoresRepeatedApplications() {
+        Student student = student(UUID.randomUUID(), "student");
+        JobPosting posting = new JobPosting.Builder().jobTitle("Repeat").build();
+        assertTrue(posting.addApplicant(student));
+        assertFalse(posting.addApplicant(student));
+        assertEquals(1, posting.getApplicants().size());
+        assertTrue(posting.hasApplicant(student));
+    }
+
+    @Test
+    public void applicationRushOnOnePosting() throws InterruptedException {
+        ArrayList<Student> students = new ArrayList<Student>();
+        for (int i = 0; i < STUDENTS; i++)
+            students.add(student(UUID.randomUUID(), "rush" + i));
+        JobPosting posting = new JobPosting.Builder().jobTitle("Rush").build();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger added = new AtomicInteger();
+        ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<Throwable>();
+        for (int t = 0; t < THREADS; t++) {
+            ArrayList<Student> mine = new ArrayList<Student>(students);
+            Collections.shuffle(mine, new Random(t));
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    for (Student student : mine)
+                        if (posting.addApplicant(student))
+                            added.incrementAndGet();
+                } catch (Throwable e) {
+                    errors.add(e);
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+
+        assertTrue(errors.isEmpty(), () -> "first error: " + errors.peek());
+        assertEquals(STUDENTS, added.get());
+        ArrayList<Student> applicants = posting.getApplicants();
+        assertEquals(STUDENTS, applicants.size());
+        HashSet<UUID> ids = new HashSet<UUID>();
+        for (Student applicant : applicants)
+            ids.add(applicant.getId());
+        assertEquals(STUDENTS, ids.size());
+        for (Student student : students)
+            assertTrue(posting.hasApplicant(student));
+    }
+}
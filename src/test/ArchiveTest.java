@@ -0,0 +1,190 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import dataTypes.Employer;
+import dataTypes.JobPosting;
+import dataTypes.User;
+import database.Archive;
+import database.Database;
+import database.JsonDataReader;
+import database.JsonDataWriter;
+import enums.DataCollection;
+
+public class ArchiveTest {
+    private Path dir;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("archive");
+        JsonDataWriter writer = new JsonDataWriter(file("Administrators.json"), file("Students.json"),
+                file("Employers.json"), file("Professors.json"), file("Reviews.json"), file("JobPostings.json"));
+        writer.write(new JsonDataReader("data/Administrators.json", "data/Students.json", "data/Employers.json",
+                "data/Professors.json", "data/Reviews.json", "data/JobPostings.json").read());
+        Database.getInstance().setDataReader(new JsonDataReader(file("Administrators.json"), file("Students.json"),
+                file("Employers.json"), file("Professors.json"), file("Reviews.json"), file("JobPostings.json")));
+        Database.getInstance().setDataWriter(writer);
+        reload();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Database.getInstance().setArchive(null);
+        Database.getInstance().setDataWriter(null);
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toArray(Path[]::new))
+                Files.delete(file);
+        }
+    }
+
+    private String file(String name) {
+        return dir.resolve(name).toString();
+    }
+
+    /**
+     * Reads the data files again with a new archive, the way the next run would
+     *
+     * @return the new archive
+     */
+    private Archive reload() {
+        Archive archive = new Archive(dir.resolve("archive").toString());
+        Database.getInstance().setArchive(archive);
+        Database.getInstance().loadFromFile();
+        return archive;
+    }
+
+    @Test
+    public void compactWithNothingRemovedDoesNotTouchTheArchive() {
+        Archive archive = reload();
+        for (JobPosting posting : Database.getInstance().getJobPostings())
+            assertFalse(posting.isRemoved());
+        assertEquals(0, Database.getInstance().compact());
+        assertFalse(archive.isLoaded());
+        assertFalse(Files.exists(dir.resolve("archive")));
+    }
+
+    @Test
+    public void compactMovesRemovedPostingsToTheArchive() {
+        JobPosting posting = Database.getInstance().getPostings().get(0);
+        UUID id = posting.getId();
+        int count = Database.getInstance().getJobPostings().size();
+        Database.getInstance().removePosting(posting);
+
+        assertEquals(1, Database.getInstance().compact());
+        Database.getInstance().writeToFile();
+        assertEquals(count - 1, Database.getInstance().getJobPostings().size());
+
+        Archive archive = reload();
+        assertEquals(count - 1, Database.getInstance().getJobPostings().size());
+        assertFalse(archive.isLoaded());
+        Database.getInstance().getPostings();
+        assertFalse(archive.isLoaded());
+
+        assertEquals(1, Database.getInstance().getRemovedPostings().size());
+        assertEquals(id, Database.getInstance().getRemovedPostings().get(0).getId());
+        assertTrue(archive.isLoaded());
+        assertEquals(posting.getEmployer().getId(),
+                Database.getInstance().getRemovedPostings().get(0).getEmployer().getId());
+    }
+
+    @Test
+    public void archivedUsernameIsStillTaken() {
+        Employer employer = new Employer.Builder().username("archivedEmployer").password("pw")
+                .email("archived@example.com").firstName("Archived").lastName("Employer").company("Gone").build();
+        Database.getInstance().addUser(employer);
+        Database.getInstance().removeUser(employer);
+        int count = Database.getInstance().getUsers().size();
+
+        assertEquals(1, Database.getInstance().compact());
+        Database.getInstance().writeToFile();
+        Archive archive = reload();
+        assertEquals(count - 1, Database.getInstance().getUsers().size());
+
+        User found = Database.getInstance().findByUsername("ArchivedEmployer");
+        assertNotNull(found);
+        assertEquals(employer.getId(), found.getId());
+        assertSame(found, Database.getInstance().getUserByEmail("archived@example.com"));
+        assertEquals(count - 1, Database.getInstance().getUsers().size());
+        assertTrue(archive.getUsers().contains(found));
+        assertFalse(Database.getInstance().isDirty(DataCollection.EMPLOYERS));
+    }
+
+    @Test
+    public void missedLookupsOnlyReadTheKeys() {
+        Employer employer = new Employer.Builder().username("keysOnly").password("pw").email("keys@example.com")
+                .firstName("Keys").lastName("Only").company("Gone").build();
+        Database.getInstance().addUser(employer);
+        Database.getInstance().removeUser(employer);
+        assertEquals(1, Database.getInstance().compact());
+        Database.getInstance().writeToFile();
+        Archive archive = reload();
+
+        assertNull(Database.getInstance().findByUsername("nobodyHere"));
+        assertNull(Database.getInstance().getUserByEmail("nobody@example.com"));
+        assertNull(Database.getInstance().findByName("Nobody Here"));
+        assertFalse(archive.isLoaded());
+        assertFalse(Database.getInstance().isDirty(DataCollection.EMPLOYERS));
+    }
+
+    @Test
+    public void restoreBringsAnArchivedUserBack() {
+        Employer employer = new Employer.Builder().username("comingBack").password("pw").email("back@example.com")
+                .firstName("Coming").lastName("Back").company("Gone").build();
+        Database.getInstance().addUser(employer);
+        Database.getInstance().removeUser(employer);
+        int count = Database.getInstance().getUsers().size();
+        assertEquals(1, Database.getInstance().compact());
+        Database.getInstance().writeToFile();
+        Archive archive = reload();
+
+        User found = Database.getInstance().findByUsername("comingBack");
+        assertTrue(Database.getInstance().restoreUser(found));
+        assertEquals(count, Database.getInstance().getUsers().size());
+        assertFalse(archive.getUsers().contains(found));
+        assertTrue(Database.getInstance().isDirty(DataCollection.EMPLOYERS));
+        assertSame(found, Database.getInstance().findByUsername("comingBack"));
+        assertFalse(Database.getInstance().restoreUser(found));
+    }
+
+    @Test
+    public void restoringOneUserKeepsAKeyItSharedFindable() {
+        Employer first = new Employer.Builder().username("sharedFirst").password("pw").email("first@example.com")
+                .firstName("Shared").lastName("Name").company("Gone").build();
+        Employer second = new Employer.Builder().username("sharedSecond").password("pw").email("second@example.com")
+                .firstName("Shared").lastName("Name").company("Gone").build();
+        Database.getInstance().addUser(first);
+        Database.getInstance().addUser(second);
+        Database.getInstance().removeUser(first);
+        Database.getInstance().removeUser(second);
+        assertEquals(2, Database.getInstance().compact());
+        Database.getInstance().writeToFile();
+        Archive archive = reload();
+
+        UUID named = archive.findByName("Shared Name");
+        String username = named.equals(first.getId()) ? "sharedFirst" : "sharedSecond";
+        UUID other = named.equals(first.getId()) ? second.getId() : first.getId();
+        assertTrue(Database.getInstance().restoreUser(Database.getInstance().findByUsername(username)));
+        assertEquals(other, archive.findByName("Shared Name"));
+    }
+
+    @Test
+    public void usersStillReferencedStayInTheDataFiles() {
+        JobPosting posting = Database.getInstance().getPostings().get(0);
+        Employer employer = posting.getEmployer();
+        Database.getInstance().removeUser(employer);
+
+        assertEquals(0, Database.getInstance().compact());
+        assertTrue(Database.getInstance().getUsers().contains(employer));
+    }
+}
@@ -0,0 +1,88 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+import database.AtomicFileSet;
+
+public class AtomicFileSetTest {
+    private Path dir;
+    private Path first;
+    private Path second;
+    private Path marker;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("atomic");
+        first = dir.resolve("First.json");
+        second = dir.resolve("Second.json");
+        Files.writeString(first, "old first");
+        Files.writeString(second, "old second");
+        marker = AtomicFileSet.markerNextTo(first.toString());
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        for (Path file : Files.list(dir).toArray(Path[]::new))
+            Files.delete(file);
+        Files.delete(dir);
+    }
+
+    @Test
+    public void commitReplacesEveryFile() throws IOException {
+        AtomicFileSet files = new AtomicFileSet(marker);
+        Files.writeString(files.stage(first.toString()), "new first");
+        Files.writeString(files.stage(second.toString()), "new second");
+        files.commit();
+
+        assertEquals("new first", Files.readString(first));
+        assertEquals("new second", Files.readString(second));
+        assertEquals(2, Files.list(dir).count());
+    }
+
+    @Test
+    public void stagingTheSameFileTwiceKeepsTheLastWrite() throws IOException {
+        AtomicFileSet files = new AtomicFileSet(marker);
+        Files.writeString(files.stage(first.toString()), "one");
+        Files.writeString(files.stage(first.toString()), "two");
+        files.commit();
+        assertEquals("two", Files.readString(first));
+    }
+
+    @Test
+    public void recoverWithoutMarkerKeepsOldFiles() throws IOException {
+        AtomicFileSet files = new AtomicFileSet(marker);
+        Files.writeString(files.stage(first.toString()), "new first");
+        Files.writeString(files.stage(second.toString()), "half writ");
+
+        AtomicFileSet.recover(marker, first.toString(), second.toString());
+        assertEquals("old first", Files.readString(first));
+        assertEquals("old second", Files.readString(second));
+        assertEquals(2, Files.list(dir).count());
+    }
+
+    @Test
+    public void recoverWithMarkerFinishesTheSave() throws IOException {
+        Path firstTemp = dir.resolve("First.json.tmp");
+        Path secondTemp = dir.resolve("Second.json.tmp");
+        Files.writeString(firstTemp, "new first");
+        Files.writeString(secondTemp, "new second");
+        // the first rename happened before the crash
+        Files.move(firstTemp, first, StandardCopyOption.REPLACE_EXISTING);
+        Files.write(marker, List.of(firstTemp + "\t" + first, secondTemp + "\t" + second));
+
+        AtomicFileSet.recover(marker, first.toString(), second.toString());
+        assertEquals("new first", Files.readString(first));
+        assertEquals("new second", Files.readString(second));
+        assertFalse(Files.exists(marker));
+    }
+}
@@ -0,0 +1,160 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import dataTypes.Student;
+import dataTypes.User;
+import database.Autosaver;
+import database.Database;
+import database.JsonDataReader;
+import database.JsonDataWriter;
+import database.MutationLog;
+import enums.Major;
+
+public class AutosaverTest {
+    private Path dir;
+    private MutationLog log;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("autosave");
+        log = new MutationLog(dir.resolve("Mutations.log").toString());
+        Database.getInstance().setDataReader(new JsonDataReader("data/Administrators.json", "data/Students.json",
+                "data/Employers.json", "data/Professors.json", "data/Reviews.json", "data/JobPostings.json"));
+        Database.getInstance().setDataWriter(new JsonDataWriter(dir.resolve("Administrators.json").toString(),
+                dir.resolve("Students.json").toString(), dir.resolve("Employers.json").toString(),
+                dir.resolve("Professors.json").toString(), dir.resolve("Reviews.json").toString(),
+                dir.resolve("JobPostings.json").toString()));
+        Database.getInstance().setMutationLog(log);
+        Database.getInstance().loadFromFile();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Database.getInstance().setMutationLog(null);
+        Database.getInstance().setDataWriter(null);
+        log.close();
+        for (Path file : Files.list(dir).toArray(Path[]::new))
+            Files.delete(file);
+        Files.delete(dir);
+    }
+
+    @Test
+    public void autosaveWritesChangedFiles() throws IOException {
+        Autosaver autosaver = new Autosaver(Database.getInstance(), 60000);
+        Student student = Database.getInstance().getStudents().get(0);
+        student.setApproved(!student.isApproved());
+        assertTrue(Files.size(dir.resolve("Mutations.log")) > 0);
+
+        autosaver.autosave();
+        assertTrue(Files.exists(dir.resolve("Students.json")));
+        assertFalse(Files.exists(dir.resolve("Employers.json")));
+        assertEquals(1, autosaver.getSaveCount());
+        assertEquals(0, autosaver.getLostWorkWindowMillis());
+        assertEquals(0, Files.size(dir.resolve("Mutations.log")));
+    }
+
+    @Test
+    public void autosaveWithNoChangesWritesNothing() {
+        Autosaver autosaver = new Autosaver(Database.getInstance(), 60000);
+        autosaver.autosave();
+        assertEquals(0, autosaver.getSaveCount());
+        assertFalse(Files.exists(dir.resolve("Students.json")));
+    }
+
+    @Test
+    public void savesInBackground() throws InterruptedException {
+        Autosaver autosaver = new Autosaver(Database.getInstance(), 20);
+        autosaver.start();
+        Database.getInstance().getPostings().get(0).setWage(1234);
+        for (int i = 0; i < 250 && autosaver.getSaveCount() == 0; i++)
+            Thread.sleep(20);
+        autosaver.stop();
+        assertEquals(1, autosaver.getSaveCount());
+        assertTrue(Files.exists(dir.resolve("JobPostings.json")));
+    }
+
+    @Test
+    public void saveBetweenLoggingAndChangedKeepsTheChange() throws IOException {
+        Autosaver autosaver = new Autosaver(Database.getInstance(), 60000);
+        AtomicBoolean saveFirst = new AtomicBoolean(false);
+        // the save runs after the setter logged its record but before its own changed()
+        Student student = new Student(UUID.randomUUID(), "between", "pw", "between@email.sc.edu", "Be", "Tween",
+                false, Major.COMPUTER_SCIENCE, false, new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), 0,
+                false) {
+            @Override
+            protected void changed() {
+                if (saveFirst.getAndSet(false))
+                    autosaver.autosave();
+                super.changed();
+            }
+        };
+        Database.getInstance().addUser(student);
+        autosaver.autosave();
+
+        Database.getInstance().getPostings().get(0).setWage(4321);
+        saveFirst.set(true);
+        student.setApproved(true);
+        assertFalse(saveFirst.get());
+
+        // the save checkpointed the approval record, so the file must have the approval
+        User saved = new JsonDataReader("data/Administrators.json", dir.resolve("Students.json").toString(),
+                "data/Employers.json", "data/Professors.json", "data/Reviews.json", "data/JobPostings.json").read()
+                .getUserById(student.getId());
+        assertNotNull(saved);
+        assertTrue(saved.isApproved());
+    }
+
+    @Test
+    public void resumeEditDuringAutosaveIsNotWritten() throws IOException {
+        Autosaver autosaver = new Autosaver(Database.getInstance(), 60000);
+        AtomicBoolean editWhileWriting = new AtomicBoolean(false);
+        Student[] holder = new Student[1];
+        // the student edits their skills while the save is writing them out
+        ArrayList<String> skills = new ArrayList<String>() {
+            @Override
+            public Iterator<String> iterator() {
+                Iterator<String> iterator = super.iterator();
+                if (editWhileWriting.getAndSet(false))
+                    holder[0].addTechincalSkill("python");
+                return iterator;
+            }
+        };
+        skills.add("java");
+        Student student = new Student(UUID.randomUUID(), "resume", "pw", "resume@email.sc.edu", "Re", "Sume",
+                false, Major.COMPUTER_SCIENCE, true, new ArrayList<>(), new ArrayList<>(), skills, 0, false);
+        holder[0] = student;
+        Database.getInstance().addUser(student);
+
+        editWhileWriting.set(true);
+        autosaver.autosave();
+        assertFalse(editWhileWriting.get());
+        assertEquals(1, autosaver.getSaveCount());
+        assertEquals(List.of("java", "python"), student.getTechnicalSkills());
+        assertEquals(List.of("java"), readSkills(student.getId()));
+
+        // the edit is still marked and goes out with the next save
+        autosaver.autosave();
+        assertEquals(2, autosaver.getSaveCount());
+        assertEquals(List.of("java", "python"), readSkills(student.getId()));
+    }
+
+    private ArrayList<String> readSkills(UUID id) {
+        return ((Student) new JsonDataReader("data/Administrators.json", dir.resolve("Students.json").toString(),
+                "data/Employers.json", "data/Professors.json", "data/Reviews.json", "data/JobPostings.json").read()
+                .getUserById(id)).getTechnicalSkills();
+    }
+}
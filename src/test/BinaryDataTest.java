@@ -0,0 +1,143 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.UUID;
+
+import dataTypes.DataBlob;
+import dataTypes.JobPosting;
+import dataTypes.Review;
+import dataTypes.Student;
+import dataTypes.User;
+import database.BinaryDataReader;
+import database.BinaryDataWriter;
+import database.JsonDataReader;
+
+public class BinaryDataTest {
+    static Path snapshot;
+    static DataBlob expected;
+    static DataBlob actual;
+
+    @BeforeAll
+    public static void convert() throws IOException {
+        snapshot = Files.createTempFile("Snapshot", ".bin");
+        expected = new JsonDataReader("data/Administrators.json", "data/Students.json", "data/Employers.json",
+                "data/Professors.json", "data/Reviews.json", "data/JobPostings.json").read();
+        new BinaryDataWriter(snapshot.toString()).write(expected);
+        actual = new BinaryDataReader(snapshot.toString()).read();
+    }
+
+    @AfterAll
+    public static void tearDown() throws IOException {
+        Files.deleteIfExists(snapshot);
+    }
+
+    @Test
+    public void readsSameUsers() {
+        ArrayList<User> expectedUsers = expected.getUsers();
+        ArrayList<User> actualUsers = actual.getUsers();
+        assertEquals(expectedUsers.size(), actualUsers.size());
+        for (int i = 0; i < expectedUsers.size(); i++) {
+            assertEquals(expectedUsers.get(i).getClass(), actualUsers.get(i).getClass());
+            assertEquals(expectedUsers.get(i).getId(), actualUsers.get(i).getId());
+            assertEquals(expectedUsers.get(i).toString(), actualUsers.get(i).toString());
+            assertEquals(expectedUsers.get(i).getPassword(), actualUsers.get(i).getPassword());
+            assertEquals(expectedUsers.get(i).isApproved(), actualUsers.get(i).isApproved());
+            assertEquals(expectedUsers.get(i).isRemoved(), actualUsers.get(i).isRemoved());
+        }
+    }
+
+    @Test
+    public void readsSameStudentResumes() {
+        for (User user : actual.getUsers()) {
+            if (user instanceof Student) {
+                Student expectedStudent = (Student) expected.getUserById(user.getId());
+                Student actualStudent = (Student) user;
+                assertEquals(expectedStudent.getPrintableResume(), actualStudent.getPrintableResume());
+                assertEquals(expectedStudent.getAverageReview(), actualStudent.getAverageReview());
+                assertEquals(expectedStudent.hasCreatedResume(), actualStudent.hasCreatedResume());
+            }
+        }
+    }
+
+    @Test
+    public void readsSameReviews() {
+        ArrayList<Review> expectedReviews = expected.getReviews();
+        ArrayList<Review> actualReviews = actual.getReviews();
+        assertEquals(expectedReviews.size(), actualReviews.size());
+        for (int i = 0; i < expectedReviews.size(); i++) {
+            assertEquals(expectedReviews.get(i).getId(), actualReviews.get(i).getId());
+            assertEquals(expectedReviews.get(i).toString(), actualReviews.get(i).toString());
+            assertSame(actual.getUserById(actualReviews.get(i).getReviewer().getId()),
+                    actualReviews.get(i).getReviewer());
+        }
+    }
+
+    @Test
+    public void readsSameJobPostings() {
+        ArrayList<JobPosting> expectedPostings = expected.getJobPostings();
+        ArrayList<JobPosting> actualPostings = actual.getJobPostings();
+        assertEquals(expectedPostings.size(), actualPostings.size());
+        for (int i = 0; i < expectedPostings.size(); i++) {
+            JobPosting posting = actualPostings.get(i);
+            assertEquals(expectedPostings.get(i).getId(), posting.getId());
+            assertEquals(expectedPostings.get(i).toString(), posting.toString());
+            assertEquals(expectedPostings.get(i).getApplicants().size(), posting.getApplicants().size());
+            assertEquals(expectedPostings.get(i).isRemoved(), posting.isRemoved());
+            assertSame(actual.getUserById(posting.getEmployer().getId()), posting.getEmployer());
+            for (Student applicant : posting.getApplicants())
+                assertSame(actual.getUserById(applicant.getId()), applicant);
+        }
+    }
+
+    @Test
+    public void repeatedStringsAreStoredOnce() throws IOException {
+        ArrayList<User> users = new ArrayList<User>();
+        for (int i = 0; i < 2; i++) {
+            ArrayList<String> skills = new ArrayList<String>();
+            skills.add(new String("Java"));
+            users.add(new Student.Builder().id(UUID.randomUUID()).username("student" + i).technicalSkills(skills)
+                    .build());
+        }
+        Path copy = Files.createTempFile("Snapshot", ".bin");
+        try {
+            new BinaryDataWriter(copy.toString()).write(users, new ArrayList<Review>(), new ArrayList<JobPosting>());
+            ArrayList<User> read = new BinaryDataReader(copy.toString()).read().getUsers();
+            assertSame(((Student) read.get(0)).getTechnicalSkills().get(0),
+                    ((Student) read.get(1)).getTechnicalSkills().get(0));
+        } finally {
+            Files.deleteIfExists(copy);
+        }
+    }
+
+    @Test
+    public void writeReviewsKeepsTheRest() throws IOException {
+        Path copy = Files.createTempFile("Snapshot", ".bin");
+        try {
+            BinaryDataWriter writer = new BinaryDataWriter(copy.toString());
+            writer.write(expected);
+            writer.writeReviews(new ArrayList<Review>());
+
+            DataBlob read = new BinaryDataReader(copy.toString()).read();
+            assertEquals(0, read.getReviews().size());
+            assertEquals(expected.getUsers().size(), read.getUsers().size());
+            assertEquals(expected.getJobPostings().size(), read.getJobPostings().size());
+        } finally {
+            Files.deleteIfExists(copy);
+        }
+    }
+
+    @Test
+    public void missingSnapshotReadsEmpty() {
+        DataBlob read = new BinaryDataReader(snapshot.toString() + ".missing").read();
+        assertEquals(0, read.getUsers().size());
+    }
+}
@@ -71,6 +71,14 @@ public class DataBlobTest {
         assertTrue(dataBlob.getUsers().contains(user));
     }
     @Test
+    public void getUserById_Test() {
+        DataBlob dataBlob = new DataBlob();
+        Student user = new Student.Builder().username("johnb").firstName("john").lastName("bryan").email("johnb@email.sc.edu").build();
+        dataBlob.addUser(user);
+        assertEquals(user, dataBlob.getUserById(user.getId()));
+        assertNull(dataBlob.getUserById(UUID.randomUUID()));
+    }
+    @Test
     public void addReview_Test() {
         DataBlob dataBlob = new DataBlob();
         Professor user = new Professor.Builder().username("johnb").firstName("john").lastName("bryan").email("johnb@email.sc.edu").build();
@@ -0,0 +1,365 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import dataTypes.Employer;
+import dataTypes.JobPosting;
+import dataTypes.Review;
+import dataTypes.Student;
+import database.Database;
+import database.JsonDataReader;
+import database.MutationLog;
+import enums.JobPostingStatus;
+
+public class DatabaseConcurrencyTest {
+    private static final int WRITERS = 4;
+    private static final int READERS = 4;
+    private static final int POSTINGS_PER_WRITER = 200;
+
+    @BeforeEach
+    public void setUp() {
+        Database.getInstance().setDataReader(new JsonDataReader("data/Administrators.json", "data/Students.json",
+                "data/Employers.json", "data/Professors.json", "data/Reviews.json", "data/JobPostings.json"));
+        Database.getInstance().loadFromFile();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Database.getInstance().loadFromFile();
+    }
+
+    @Test
+    public void concurrentSessionsDoNotLoseUpdates() throws InterruptedException {
+        Database database = Database.getInstance();
+        Employer employer = database.getEmployers().get(0);
+        Review review = database.getReviews().get(0);
+        int postingsBefore = database.getJobPostings().size();
+        int employerPostingsBefore = database.getPostingsByEmployer(employer).size();
+
+        ArrayList<Student> students = new ArrayList<Student>();
+        for (int i = 0; i < WRITERS; i++) {
+            Student student = new Student.Builder().username("stress" + i).password("pw")
+                    .email("stress" + i + "@example.com").firstName("Stress").lastName("Test " + i).build();
+            database.addUser(student);
+            students.add(student);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS + READERS);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch writersDone = new CountDownLatch(WRITERS);
+        ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<Throwable>();
+
+        for (int w = 0; w < WRITERS; w++) {
+            Student student = students.get(w);
+            int writer = w;
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < POSTINGS_PER_WRITER; i++) {
+                        ArrayList<String> requirements = new ArrayList<String>();
+                        requirements.add("stress requirement " + writer);
+                        JobPosting posting = new JobPosting.Builder().employer(employer)
+                                .jobTitle("Stress " + writer + "-" + i).requirements(requirements)
+                                .status(JobPostingStatus.OPEN).applicants(new ArrayList<Student>()).build();
+                        database.addPosting(posting);
+                        posting.addApplicant(student);
+                    }
+                } catch (Throwable e) {
+                    errors.add(e);
+                } finally {
+                    writersDone.countDown();
+                }
+            });
+        }
+        for (int r = 0; r < READERS; r++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    while (writersDone.getCount() > 0) {
+                        for (JobPosting posting : database.getPostingsByEmployer(employer))
+                            assertNotNull(posting.getJobTitle());
+                        database.getOpenPostings();
+                        database.getOpenPostingByRequirement("stress requirement");
+                        database.getReviewsByReviewee(review.getReviewee());
+                        assertNotNull(database.findByUsername(employer.getUsername()));
+                    }
+                } catch (Throwable e) {
+                    errors.add(e);
+                }
+            });
+        }
+
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+        assertTrue(errors.isEmpty(), () -> "first error: " + errors.peek());
+
+        assertEquals(postingsBefore + WRITERS * POSTINGS_PER_WRITER, database.getJobPostings().size());
+        List<JobPosting> employerPostings = database.getPostingsByEmployer(employer);
+        assertEquals(employerPostingsBefore + WRITERS * POSTINGS_PER_WRITER, employerPostings.size());
+        for (Student student : students)
+            assertEquals(POSTINGS_PER_WRITER, database.getPostingsByStudent(student).size());
+        for (int w = 0; w < WRITERS; w++)
+            assertEquals(POSTINGS_PER_WRITER, database.getOpenPostingByRequirement("stress requirement " + w).size());
+    }
+
+    @Test
+    public void getInstanceReturnsOneDatabaseAcrossThreads() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        ConcurrentLinkedQueue<Database> seen = new ConcurrentLinkedQueue<Database>();
+        for (int i = 0; i < 64; i++)
+            pool.execute(() -> seen.add(Database.getInstance()));
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        for (Database database : seen)
+            assertSame(Database.getInstance(), database);
+    }
+
+    @Test
+    public void readsDoNotWaitForWriters() throws Exception {
+        Database database = Database.getInstance();
+        Employer employer = database.getEmployers().get(0);
+        int openBefore = database.getOpenPostings().size();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        // removeIf holds the write lock while it runs the filter
+        Future<?> writer = pool.submit(() -> database.getJobPostings().removeIf(posting -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }));
+        try {
+            assertTrue(entered.await(10, TimeUnit.SECONDS));
+            assertEquals(openBefore, database.getOpenPostings().size());
+            assertNotNull(database.findByUsername(employer.getUsername()));
+            assertFalse(database.getPostingsByEmployer(employer).isEmpty());
+        } finally {
+            release.countDown();
+            writer.get(10, TimeUnit.SECONDS);
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void changesArePublishedAsNewVersions() {
+        Database database = Database.getInstance();
+        Employer employer = database.getEmployers().get(0);
+        ArrayList<JobPosting> open = database.getOpenPostings();
+        long version = database.getVersion();
+
+        JobPosting posting = new JobPosting.Builder().employer(employer).jobTitle("Versioned")
+                .requirements(new ArrayList<String>()).applicants(new ArrayList<Student>()).build();
+        database.addPosting(posting);
+        assertEquals(version + 1, database.getVersion());
+        assertEquals(open.size() + 1, database.getOpenPostings().size());
+        assertTrue(database.getPostingsByEmployer(employer).contains(posting));
+        assertFalse(open.contains(posting));
+
+        version = database.getVersion();
+        posting.setWage(99);
+        assertEquals(version, database.getVersion());
+        // requirement edits go straight into the live indexes, no new version
+        posting.addRequirement("versioned skill");
+        assertEquals(version, database.getVersion());
+        assertTrue(database.getOpenPostingsByKeyword("versioned").contains(posting));
+    }
+
+    @Test
+    public void logSyncDoesNotHoldTheDatabaseLock() throws Exception {
+        Database database = Database.getInstance();
+        Path logFile = Files.createTempFile("mutations", ".log");
+        CountDownLatch syncing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean first = new AtomicBoolean(true);
+        MutationLog log = new MutationLog(logFile.toString()) {
+            @Override
+            public void sync(long sequence) {
+                if (first.getAndSet(false)) {
+                    syncing.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                super.sync(sequence);
+            }
+        };
+        database.setMutationLog(log);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Student slow = new Student.Builder().username("slowDisk").firstName("Slow").lastName("Disk").build();
+            Future<?> writer = pool.submit(() -> database.addUser(slow));
+            assertTrue(syncing.await(10, TimeUnit.SECONDS));
+
+            // the first add is waiting for the disk, a second one still gets the lock
+            Student fast = new Student.Builder().username("fastDisk").firstName("Fast").lastName("Disk").build();
+            database.addUser(fast);
+            assertSame(fast, database.findByUsername("fastDisk"));
+            assertSame(slow, database.findByUsername("slowDisk"));
+            assertFalse(writer.isDone());
+
+            release.countDown();
+            writer.get(10, TimeUnit.SECONDS);
+            assertTrue(Files.size(logFile) > 0);
+        } finally {
+            release.countDown();
+            pool.shutdown();
+            database.setMutationLog(null);
+            log.close();
+            Files.deleteIfExists(logFile);
+        }
+    }
+
+    @Test
+    public void appliesGoOnWhileAnotherApplyIsInTheDatabase() throws Exception {
+        Database database = Database.getInstance();
+        Employer employer = database.getEmployers().get(0);
+        CountDownLatch stalled = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean stall = new AtomicBoolean(false);
+        // the application index hashes the posting while the apply is inside the Database
+        JobPosting slow = new JobPosting(UUID.randomUUID(), employer, "Slow", "slow", new ArrayList<String>(), 10,
+                JobPostingStatus.OPEN, new ArrayList<Student>(), false) {
+            @Override
+            public int hashCode() {
+                if (stall.getAndSet(false)) {
+                    stalled.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.hashCode();
+            }
+        };
+        JobPosting busy = new JobPosting.Builder().employer(employer).jobTitle("Busy")
+                .requirements(new ArrayList<String>()).status(JobPostingStatus.OPEN).build();
+        database.addPosting(slow);
+        database.addPosting(busy);
+        ArrayList<Student> students = new ArrayList<Student>();
+        for (int i = 0; i <= WRITERS * POSTINGS_PER_WRITER; i++) {
+            Student student = new Student.Builder().username("applicant" + i).firstName("Applicant")
+                    .lastName("" + i).build();
+            database.addUser(student);
+            students.add(student);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS + 1);
+        try {
+            stall.set(true);
+            Future<?> stalledApply = pool.submit(() -> slow.addApplicant(students.get(0)));
+            assertTrue(stalled.await(10, TimeUnit.SECONDS));
+
+            ArrayList<Future<?>> applies = new ArrayList<Future<?>>();
+            for (int w = 0; w < WRITERS; w++) {
+                int writer = w;
+                applies.add(pool.submit(() -> {
+                    for (int i = 0; i < POSTINGS_PER_WRITER; i++)
+                        assertTrue(busy.addApplicant(students.get(1 + writer * POSTINGS_PER_WRITER + i)));
+                }));
+            }
+            for (Future<?> apply : applies)
+                apply.get(10, TimeUnit.SECONDS);
+            assertFalse(stalledApply.isDone());
+            assertEquals(WRITERS * POSTINGS_PER_WRITER, busy.getApplicants().size());
+            for (int i = 1; i < students.size(); i++)
+                assertTrue(database.getPostingsByStudent(students.get(i)).contains(busy));
+
+            release.countDown();
+            stalledApply.get(10, TimeUnit.SECONDS);
+            assertTrue(database.getPostingsByStudent(students.get(0)).contains(slow));
+        } finally {
+            release.countDown();
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void postingEditsGoOnWhileAnotherPostingIsInTheDatabase() throws Exception {
+        Database database = Database.getInstance();
+        Employer employer = database.getEmployers().get(0);
+        Employer other = database.getEmployers().get(1);
+        CountDownLatch stalled = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean stall = new AtomicBoolean(false);
+        // the requirement index reads the requirements while the edit is inside the Database
+        JobPosting slow = new JobPosting(UUID.randomUUID(), employer, "Slow", "slow", new ArrayList<String>(), 10,
+                JobPostingStatus.OPEN, new ArrayList<Student>(), false) {
+            @Override
+            public ArrayList<String> getRequirements() {
+                if (stall.getAndSet(false)) {
+                    stalled.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.getRequirements();
+            }
+        };
+        // the other posting must not share the slow one's posting lock
+        UUID busyId = UUID.randomUUID();
+        while (stripe(busyId) == stripe(slow.getId()))
+            busyId = UUID.randomUUID();
+        JobPosting busy = new JobPosting(busyId, employer, "Busy", "busy", new ArrayList<String>(), 10,
+                JobPostingStatus.OPEN, new ArrayList<Student>(), false);
+        database.addPosting(slow);
+        database.addPosting(busy);
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            stall.set(true);
+            Future<?> stalledEdit = pool.submit(() -> slow.addRequirement("stalled skill"));
+            assertTrue(stalled.await(10, TimeUnit.SECONDS));
+
+            pool.submit(() -> {
+                busy.addRequirement("unstalled skill");
+                busy.setEmployer(other);
+                busy.setStatus(JobPostingStatus.CLOSED);
+            }).get(10, TimeUnit.SECONDS);
+            assertFalse(stalledEdit.isDone());
+            assertTrue(database.getOpenPostingsByKeyword("unstalled").contains(busy));
+            assertTrue(database.getOpenPostingByRequirement("unstalled").contains(busy));
+            assertTrue(database.getPostingsByEmployer(other).contains(busy));
+            assertFalse(database.getPostingsByEmployer(employer).contains(busy));
+
+            release.countDown();
+            stalledEdit.get(10, TimeUnit.SECONDS);
+            assertTrue(database.getOpenPostingsByKeyword("stalled").contains(slow));
+        } finally {
+            release.countDown();
+            pool.shutdown();
+        }
+    }
+
+    private static int stripe(UUID id) {
+        int hash = id.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), 64);
+    }
+}
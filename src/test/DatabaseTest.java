@@ -19,6 +19,7 @@ import dataTypes.User;
 import database.Database;
 import database.JsonDataReader;
 import database.JsonDataWriter;
+import enums.DataCollection;
 import enums.JobPostingStatus;
 import enums.Major;
 
@@ -291,6 +292,18 @@ public class DatabaseTest {
         assertEquals(postings.size(), 0);
     }
 
+    @Test
+    void getPostingByStudentAfterAddApplicant() {
+        Student student = new Student(UUID.randomUUID(), "", "", "", "", "", true, Major.NA, false, null, null, null,
+                0, false);
+        Database.getInstance().addUser(student);
+        JobPosting posting = Database.getInstance().getPostings().get(0);
+        posting.addApplicant(student);
+        ArrayList<JobPosting> postings = Database.getInstance().getPostingsByStudent(student);
+        assertEquals(1, postings.size());
+        assertTrue(Database.getInstance().hasApplied(student, posting));
+    }
+
     @Test
     void getPostingByEmployerThatExists() {
         JobPosting posting = Database.getInstance().getJobPostings().get(0);
@@ -314,6 +327,18 @@ public class DatabaseTest {
         assertEquals(postings.size(), 0);
     }
 
+    @Test
+    void getPostingByEmployerAfterAddAndRemove() {
+        Employer employer = new Employer(UUID.randomUUID(), "", "", "", "", "", true, "", 0, false);
+        Database.getInstance().addUser(employer);
+        JobPosting posting = new JobPosting.Builder().employer(employer).jobTitle("Test").build();
+        Database.getInstance().addPosting(posting);
+        assertEquals(1, Database.getInstance().getPostingsByEmployer(employer).size());
+        Database.getInstance().removePosting(posting);
+        assertEquals(1, Database.getInstance().getPostingsByEmployer(employer).size());
+        assertTrue(Database.getInstance().getPostingsByEmployer(employer).get(0).isRemoved());
+    }
+
     @Test
     void getPostingByRequirementThatExists() {
         ArrayList<JobPosting> postings = Database.getInstance().getOpenPostingByRequirement("javascript");
@@ -326,6 +351,27 @@ public class DatabaseTest {
         assertEquals(postings.size(), 0);
     }
 
+    @Test
+    void getPostingByKeywordThatExists() {
+        ArrayList<JobPosting> postings = Database.getInstance().getOpenPostingsByKeyword("JavaScript");
+        assertNotEquals(postings.size(), 0);
+    }
+
+    @Test
+    void getPostingByKeywordMatchesWholeWords() {
+        assertEquals(0, Database.getInstance().getOpenPostingsByKeyword("avascrip").size());
+    }
+
+    @Test
+    void getPostingByKeywordAfterAddRequirement() {
+        JobPosting posting = Database.getInstance().getPostings().get(0);
+        posting.addRequirement("Experience with Fortran77");
+        ArrayList<JobPosting> postings = Database.getInstance().getOpenPostingsByKeyword("fortran77 experience");
+        assertEquals(1, postings.size());
+        posting.removeRequriement("Experience with Fortran77");
+        assertEquals(0, Database.getInstance().getOpenPostingsByKeyword("fortran77").size());
+    }
+
     @Test
     void getRemovedPostings() {
         JobPosting removedPosting = new JobPosting(UUID.randomUUID(), null, "", "", null, 0, JobPostingStatus.OPEN,
@@ -430,6 +476,21 @@ public class DatabaseTest {
         assertEquals(reviews.size(), 0);
     }
 
+    @Test
+    void getReviewsAfterAddReview() {
+        User reviewer = Database.getInstance().getUsers().get(0);
+        User reviewee = Database.getInstance().getUsers().get(1);
+        Review review = new Review(UUID.randomUUID(), reviewer, reviewee, 5, "", false);
+        Database.getInstance().addReview(review);
+        assertTrue(Database.getInstance().getReviewsByReviewer(reviewer).contains(review));
+        assertTrue(Database.getInstance().getReviewsByReviewee(reviewee).contains(review));
+        assertNotNull(Database.getInstance().getReviewByRevieweeAndReviewer(reviewer.getUsername(),
+                reviewee.getUsername()));
+        Database.getInstance().removeReveiw(review);
+        assertFalse(Database.getInstance().getReviewsByReviewer(reviewer).contains(review));
+        assertFalse(Database.getInstance().getReviewsByReviewee(reviewee).contains(review));
+    }
+
     @Test
     void getRemovedReviews() {
         Review removedReview = new Review(UUID.randomUUID(), null, null, 0, "", true);
@@ -528,6 +589,21 @@ public class DatabaseTest {
         assertEquals(user, Database.getInstance().findByUsername(username));
     }
 
+    @Test
+    void findUserByUsernameIgnoresCase() {
+        User user = Database.getInstance().getUsers().get(0);
+        String username = user.getUsername().toUpperCase();
+        assertEquals(user, Database.getInstance().findByUsername(username));
+    }
+
+    @Test
+    void findUserByUsernameAfterAddUser() {
+        User user = new Student(UUID.randomUUID(), "newStudentUser", "", "", "", "", true, Major.NA, false, null, null,
+                null, 0, false);
+        Database.getInstance().addUser(user);
+        assertEquals(user, Database.getInstance().findByUsername("newstudentuser"));
+    }
+
     @Test
     void findUserByUsernameThatDoesNotExist() {
         assertNull(Database.getInstance().findByUsername(""));
@@ -552,10 +628,62 @@ public class DatabaseTest {
         assertEquals(user, Database.getInstance().getUserByEmail(email));
     }
 
+    @Test
+    void findUserByNameIgnoresCase() {
+        User user = Database.getInstance().getUsers().get(0);
+        String name = user.getFullName().toUpperCase();
+        assertEquals(user, Database.getInstance().findByName(name));
+    }
+
+    @Test
+    void findUserByEmailAfterSetEmail() {
+        Employer employer = new Employer(UUID.randomUUID(), "emailChange", "", "old@email.sc.edu", "", "", true, "",
+                0, false);
+        Database.getInstance().addUser(employer);
+        employer.setEmail("new@email.sc.edu");
+        assertNull(Database.getInstance().getUserByEmail("old@email.sc.edu"));
+        assertEquals(employer, Database.getInstance().getUserByEmail("NEW@email.sc.edu"));
+    }
+
+    @Test
+    void setUsernameOfUserNotInDatabase() {
+        Employer employer = new Employer(UUID.randomUUID(), "ghostOld", "", "ghost@email.sc.edu", "", "", true, "",
+                0, false);
+        employer.setUsername("ghostNew");
+        assertNull(Database.getInstance().findByUsername("ghostNew"));
+    }
+
+    @Test
+    void setEmailOfUserNotInDatabase() {
+        Employer employer = new Employer(UUID.randomUUID(), "ghostEmail", "", "ghostOld@email.sc.edu", "", "", true,
+                "", 0, false);
+        employer.setEmail("ghostNew@email.sc.edu");
+        assertNull(Database.getInstance().getUserByEmail("ghostNew@email.sc.edu"));
+    }
+
     @Test
     void findUserByEmailThatDoesNotExist() {
         assertNull(Database.getInstance().getUserByEmail(""));
     }
     // end testing find user methods
 
+
+    @Test
+    void approvingStudentOnlyMarksStudentsDirty() {
+        Student student = Database.getInstance().getStudents().get(0);
+        assertFalse(Database.getInstance().isDirty(DataCollection.STUDENTS));
+        student.setApproved(true);
+        assertTrue(Database.getInstance().isDirty(DataCollection.STUDENTS));
+        assertFalse(Database.getInstance().isDirty(DataCollection.EMPLOYERS));
+        assertFalse(Database.getInstance().isDirty(DataCollection.POSTINGS));
+    }
+
+    @Test
+    void settingWageMarksPostingsDirty() {
+        JobPosting posting = Database.getInstance().getPostings().get(0);
+        posting.setWage(posting.getWage() + 1);
+        assertTrue(Database.getInstance().isDirty(DataCollection.POSTINGS));
+        assertFalse(Database.getInstance().isDirty(DataCollection.REVIEWS));
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumSet;
+
+import dataTypes.DataBlob;
+import database.JsonDataReader;
+import database.JsonDataWriter;
+import enums.DataCollection;
+
+public class JsonDataWriterTest {
+    private static final String[] FILES = { "Administrators.json", "Students.json", "Employers.json",
+            "Professors.json", "Reviews.json", "JobPostings.json" };
+
+    private static DataBlob readData() {
+        return new JsonDataReader("data/Administrators.json", "data/Students.json", "data/Employers.json",
+                "data/Professors.json", "data/Reviews.json", "data/JobPostings.json").read();
+    }
+
+    private static JsonDataWriter writerFor(Path dir) {
+        return new JsonDataWriter(dir.resolve(FILES[0]).toString(), dir.resolve(FILES[1]).toString(),
+                dir.resolve(FILES[2]).toString(), dir.resolve(FILES[3]).toString(), dir.resolve(FILES[4]).toString(),
+                dir.resolve(FILES[5]).toString());
+    }
+
+    @Test
+    public void rewritesDataFilesUnchanged() throws IOException {
+        DataBlob data = readData();
+        Path dir = Files.createTempDirectory("writer");
+        writerFor(dir).write(data);
+
+        for (String file : FILES) {
+            assertEquals(Files.readString(Paths.get("data", file)), Files.readString(dir.resolve(file)), file);
+            Files.delete(dir.resolve(file));
+        }
+        Files.delete(dir);
+    }
+
+    @Test
+    public void writesOnlyChangedCollections() throws IOException {
+        DataBlob data = readData();
+        Path dir = Files.createTempDirectory("writer");
+        writerFor(dir).write(data.getUsers(), data.getReviews(), data.getJobPostings(),
+                EnumSet.of(DataCollection.EMPLOYERS, DataCollection.REVIEWS));
+
+        assertTrue(Files.exists(dir.resolve("Employers.json")));
+        assertTrue(Files.exists(dir.resolve("Reviews.json")));
+        assertFalse(Files.exists(dir.resolve("Students.json")));
+        assertFalse(Files.exists(dir.resolve("JobPostings.json")));
+        Files.delete(dir.resolve("Employers.json"));
+        Files.delete(dir.resolve("Reviews.json"));
+        Files.delete(dir);
+    }
+}
@@ -0,0 +1,91 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import dataTypes.DataBlob;
+import dataTypes.JobPosting;
+import dataTypes.Review;
+import dataTypes.Student;
+import dataTypes.User;
+import database.JsonDataReader;
+import database.JsonStreamDataReader;
+
+public class JsonStreamReaderTest {
+    static DataBlob expected;
+    static DataBlob actual;
+
+    @BeforeAll
+    public static void readBoth() {
+        expected = new JsonDataReader("data/Administrators.json", "data/Students.json", "data/Employers.json",
+                "data/Professors.json", "data/Reviews.json", "data/JobPostings.json").read();
+        actual = new JsonStreamDataReader("data/Administrators.json", "data/Students.json", "data/Employers.json",
+                "data/Professors.json", "data/Reviews.json", "data/JobPostings.json").read();
+    }
+
+    @Test
+    public void recordsReadTimes() {
+        JsonDataReader reader = new JsonDataReader("data/Administrators.json", "data/Students.json",
+                "data/Employers.json", "data/Professors.json", "data/Reviews.json", "data/JobPostings.json");
+        reader.read();
+        assertEquals(6, reader.getReadTimes().size());
+        assertTrue(reader.getReadTimes().containsKey("data/Students.json"));
+    }
+
+    @Test
+    public void readsSameUsers() {
+        ArrayList<User> expectedUsers = expected.getUsers();
+        ArrayList<User> actualUsers = actual.getUsers();
+        assertEquals(expectedUsers.size(), actualUsers.size());
+        for (int i = 0; i < expectedUsers.size(); i++) {
+            assertEquals(expectedUsers.get(i).getClass(), actualUsers.get(i).getClass());
+            assertEquals(expectedUsers.get(i).getId(), actualUsers.get(i).getId());
+            assertEquals(expectedUsers.get(i).toString(), actualUsers.get(i).toString());
+            assertEquals(expectedUsers.get(i).isApproved(), actualUsers.get(i).isApproved());
+            assertEquals(expectedUsers.get(i).isRemoved(), actualUsers.get(i).isRemoved());
+        }
+    }
+
+    @Test
+    public void readsSameStudentResumes() {
+        for (User user : actual.getUsers()) {
+            if (user instanceof Student) {
+                Student expectedStudent = (Student) expected.getUserById(user.getId());
+                Student actualStudent = (Student) user;
+                assertEquals(expectedStudent.getPrintableResume(), actualStudent.getPrintableResume());
+                assertEquals(expectedStudent.getAverageReview(), actualStudent.getAverageReview());
+                assertEquals(expectedStudent.hasCreatedResume(), actualStudent.hasCreatedResume());
+            }
+        }
+    }
+
+    @Test
+    public void readsSameReviews() {
+        ArrayList<Review> expectedReviews = expected.getReviews();
+        ArrayList<Review> actualReviews = actual.getReviews();
+        assertEquals(expectedReviews.size(), actualReviews.size());
+        for (int i = 0; i < expectedReviews.size(); i++) {
+            assertEquals(expectedReviews.get(i).getId(), actualReviews.get(i).getId());
+            assertEquals(expectedReviews.get(i).toString(), actualReviews.get(i).toString());
+            assertSame(actual.getUserById(actualReviews.get(i).getReviewer().getId()),
+                    actualReviews.get(i).getReviewer());
+        }
+    }
+
+    @Test
+    public void readsSameJobPostings() {
+        ArrayList<JobPosting> expectedPostings = expected.getJobPostings();
+        ArrayList<JobPosting> actualPostings = actual.getJobPostings();
+        assertEquals(expectedPostings.size(), actualPostings.size());
+        for (int i = 0; i < expectedPostings.size(); i++) {
+            assertEquals(expectedPostings.get(i).getId(), actualPostings.get(i).getId());
+            assertEquals(expectedPostings.get(i).toString(), actualPostings.get(i).toString());
+            assertEquals(expectedPostings.get(i).getApplicants().size(), actualPostings.get(i).getApplicants().size());
+            assertEquals(expectedPostings.get(i).isRemoved(), actualPostings.get(i).isRemoved());
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+
+import dataTypes.DataBlob;
+import dataTypes.Student;
+import dataTypes.User;
+import database.JsonDataReader;
+import database.JsonDataWriter;
+import database.MappedJsonDataReader;
+
+public class MappedJsonReaderTest {
+    DataBlob expected;
+    DataBlob actual;
+    MappedJsonDataReader reader;
+
+    @BeforeEach
+    public void readBoth() {
+        expected = new JsonDataReader("data/Administrators.json", "data/Students.json", "data/Employers.json",
+                "data/Professors.json", "data/Reviews.json", "data/JobPostings.json").read();
+        reader = new MappedJsonDataReader("data/Administrators.json", "data/Students.json", "data/Employers.json",
+                "data/Professors.json", "data/Reviews.json", "data/JobPostings.json");
+        actual = reader.read();
+    }
+
+    @Test
+    public void readingDecodesNoStudents() {
+        assertTrue(actual.getUsers().stream().anyMatch(user -> user instanceof Student));
+        for (User user : actual.getUsers()) {
+            User expectedUser = expected.getUserById(user.getId());
+            assertEquals(expectedUser.getUsername(), user.getUsername());
+            assertEquals(expectedUser.getPassword(), user.getPassword());
+            assertEquals(expectedUser.getEmail(), user.getEmail());
+            assertEquals(expectedUser.getFullName(), user.getFullName());
+            assertEquals(expectedUser.isApproved(), user.isApproved());
+        }
+        assertEquals(0, reader.getDecodedCount());
+    }
+
+    @Test
+    public void decodesOnlyTouchedStudents() {
+        Student touched = null;
+        for (User user : actual.getUsers())
+            if (user instanceof Student && touched == null)
+                touched = (Student) user;
+
+        Student expectedStudent = (Student) expected.getUserById(touched.getId());
+        assertEquals(expectedStudent.getPrintableResume(), touched.getPrintableResume());
+        assertEquals(expectedStudent.hasCreatedResume(), touched.hasCreatedResume());
+        assertEquals(expectedStudent.getAverageReview(), touched.getAverageReview());
+        assertEquals(1, reader.getDecodedCount());
+        touched.getTechnicalSkills();
+        assertEquals(1, reader.getDecodedCount());
+    }
+
+    @Test
+    public void readsSameStudentsInOrder() {
+        ArrayList<User> expectedUsers = expected.getUsers();
+        ArrayList<User> actualUsers = actual.getUsers();
+        assertEquals(expectedUsers.size(), actualUsers.size());
+        for (int i = 0; i < expectedUsers.size(); i++) {
+            assertEquals(expectedUsers.get(i).getId(), actualUsers.get(i).getId());
+            assertEquals(expectedUsers.get(i).toString(), actualUsers.get(i).toString());
+        }
+        assertSame(actual.getUserById(actual.getJobPostings().get(0).getApplicants().get(0).getId()),
+                actual.getJobPostings().get(0).getApplicants().get(0));
+    }
+
+    @Test
+    public void sectionsStayRawUntilUsed() {
+        Student student = firstStudentWithResume(actual);
+        student.getMajor();
+        assertNotNull(student.getRawEmployments());
+        assertNotNull(student.getRawEducations());
+        assertNotNull(student.getRawTechnicalSkills());
+
+        Student expectedStudent = (Student) expected.getUserById(student.getId());
+        assertEquals(expectedStudent.getEmployments().size(), student.getEmployments().size());
+        assertNull(student.getRawEmployments());
+        assertNotNull(student.getRawEducations());
+        assertNotNull(student.getRawTechnicalSkills());
+    }
+
+    @Test
+    public void writesUntouchedSectionsUnchanged() throws IOException {
+        String[] files = { "Administrators.json", "Students.json", "Employers.json", "Professors.json",
+                "Reviews.json", "JobPostings.json" };
+        Path in = Files.createTempDirectory("mapped");
+        Path out = Files.createTempDirectory("mapped");
+        for (String file : files)
+            Files.copy(Paths.get("data", file), in.resolve(file));
+        // a section written by hand, which the writer would never format this way
+        String students = Files.readString(in.resolve("Students.json")).replaceFirst(
+                "\"skills\": \\[\\s*\"C\\+\\+\",\\s*\"Java\",",
+                "\"skills\": [\"C++\",\"Java\",");
+        assertNotEquals(Files.readString(in.resolve("Students.json")), students);
+        Files.writeString(in.resolve("Students.json"), students);
+
+        MappedJsonDataReader mapped = new MappedJsonDataReader(in.resolve(files[0]).toString(),
+                in.resolve(files[1]).toString(), in.resolve(files[2]).toString(), in.resolve(files[3]).toString(),
+                in.resolve(files[4]).toString(), in.resolve(files[5]).toString());
+        DataBlob data = mapped.read();
+        JsonDataWriter writer = new JsonDataWriter(out.resolve(files[0]).toString(),
+                out.resolve(files[1]).toString(), out.resolve(files[2]).toString(), out.resolve(files[3]).toString(),
+                out.resolve(files[4]).toString(), out.resolve(files[5]).toString());
+        writer.write(data);
+        assertEquals(students, Files.readString(out.resolve("Students.json")));
+        assertEquals(0, mapped.getDecodedCount());
+
+        firstStudentWithResume(data).getTechnicalSkills();
+        writer.write(data);
+        assertEquals(Files.readString(Paths.get("data", "Students.json")),
+                Files.readString(out.resolve("Students.json")));
+
+        // a student changed since it was read is written from its fields instead
+        Student approved = (Student) data.getUsers().stream().filter(user -> user instanceof Student)
+                .reduce((first, second) -> second).get();
+        approved.setApproved(!approved.isApproved());
+        writer.write(data);
+        assertEquals(approved.isApproved(), new JsonDataReader(out.resolve(files[0]).toString(), out.resolve(files[1]).toString(),
+                out.resolve(files[2]).toString(), out.resolve(files[3]).toString(), out.resolve(files[4]).toString(),
+                out.resolve(files[5]).toString()).read().getUserById(approved.getId()).isApproved());
+
+        for (String file : files) {
+            Files.delete(in.resolve(file));
+            Files.delete(out.resolve(file));
+        }
+        Files.delete(in);
+        Files.delete(out);
+    }
+
+    private static Student firstStudentWithResume(DataBlob data) {
+        for (User user : data.getUsers())
+            if (user instanceof Student && ((Student) user).hasCreatedResume())
+                return (Student) user;
+        return null;
+    }
+}
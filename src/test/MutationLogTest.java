@@ -0,0 +1,133 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.UUID;
+
+import dataTypes.DataBlob;
+import dataTypes.JobPosting;
+import dataTypes.Review;
+import dataTypes.Student;
+import dataTypes.User;
+import database.JsonDataReader;
+import database.MutationLog;
+import enums.JobPostingStatus;
+import enums.Major;
+
+public class MutationLogTest {
+    private Path logFile;
+    private MutationLog log;
+
+    private static DataBlob readData() {
+        return new JsonDataReader("data/Administrators.json", "data/Students.json", "data/Employers.json",
+                "data/Professors.json", "data/Reviews.json", "data/JobPostings.json").read();
+    }
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        logFile = Files.createTempFile("mutations", ".log");
+        log = new MutationLog(logFile.toString());
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        log.close();
+        Files.deleteIfExists(logFile);
+    }
+
+    private Student newStudent() {
+        ArrayList<String> skills = new ArrayList<String>();
+        skills.add("Java");
+        return new Student.Builder().id(UUID.randomUUID()).username("walStudent").password("pw")
+                .email("wal@email.sc.edu").firstName("Wal").lastName("Student").approved(false)
+                .major(Major.COMPUTER_SCIENCE).createdResume(true).technicalSkills(skills)
+                .employments(new ArrayList<>()).educations(new ArrayList<>()).build();
+    }
+
+    @Test
+    public void replayAppliesLoggedChanges() {
+        DataBlob before = readData();
+        Student student = newStudent();
+        JobPosting posting = before.getJobPostings().get(0);
+        User removed = before.getUsers().get(0);
+        log.logAddUser(student);
+        log.logAddApplicant(posting, student);
+        posting.setStatus(JobPostingStatus.CLOSED);
+        log.logStatus(posting);
+        log.logRemoveUser(removed);
+
+        DataBlob after = readData();
+        assertEquals(4, log.replay(after));
+
+        Student replayed = (Student) after.getUserById(student.getId());
+        assertNotNull(replayed);
+        assertEquals(student.getPrintableResume(), replayed.getPrintableResume());
+        assertEquals(Major.COMPUTER_SCIENCE, replayed.getMajor());
+        JobPosting replayedPosting = after.getJobPostings().get(0);
+        assertTrue(replayedPosting.getApplicants().contains(replayed));
+        assertEquals(JobPostingStatus.CLOSED, replayedPosting.getStatus());
+        assertTrue(after.getUserById(removed.getId()).isRemoved());
+    }
+
+    @Test
+    public void replayTwiceDoesNotDuplicate() {
+        DataBlob data = readData();
+        Student student = newStudent();
+        log.logAddUser(student);
+        Review review = new Review.Builder().reviewer(data.getUsers().get(0)).reviewee(data.getUsers().get(1))
+                .rating(4).comment("ok").build();
+        log.logAddReview(review);
+
+        int users = data.getUsers().size();
+        int reviews = data.getReviews().size();
+        log.replay(data);
+        log.replay(data);
+        assertEquals(users + 1, data.getUsers().size());
+        assertEquals(reviews + 1, data.getReviews().size());
+    }
+
+    @Test
+    public void tornRecordIsDropped() throws IOException {
+        log.logAddUser(newStudent());
+        long goodLength = Files.size(logFile);
+        Files.write(logFile, new byte[] { 0, 0, 0, 40, 1, 2, 3 }, StandardOpenOption.APPEND);
+
+        assertEquals(1, log.replay(readData()));
+        assertEquals(goodLength, Files.size(logFile));
+    }
+
+    @Test
+    public void checkpointEmptiesLog() throws IOException {
+        log.logAddUser(newStudent());
+        assertTrue(Files.size(logFile) > 0);
+        log.checkpoint();
+        assertEquals(0, Files.size(logFile));
+        assertEquals(0, log.replay(readData()));
+    }
+
+    @Test
+    public void checkpointKeepsRecordsAfterMark() {
+        DataBlob data = readData();
+        Student first = newStudent();
+        log.logAddUser(first);
+        long mark = log.mark();
+        JobPosting posting = data.getJobPostings().get(0);
+        posting.setStatus(JobPostingStatus.PENDING);
+        log.logStatus(posting);
+        log.checkpoint(mark);
+
+        DataBlob after = readData();
+        assertEquals(1, log.replay(after));
+        assertNull(after.getUserById(first.getId()));
+        assertEquals(JobPostingStatus.PENDING, after.getJobPostings().get(0).getStatus());
+    }
+}
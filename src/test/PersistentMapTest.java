@@ -0,0 +1,149 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Random;
+
+import database.PersistentMap;
+
+public class PersistentMapTest {
+    private static final int KEYS = 300;
+
+    /**
+     * A key with a chosen hash, so tests can make keys share a whole hash or only
+     * its first few bits
+     */
+    private static final class Key {
+        final int id;
+        final int hash;
+
+        Key(int id, int hash) {
+            this.id = id;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key && ((Key) other).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return "Key" + id;
+        }
+    }
+
+    // every fourth key shares one hash, the rest share their low bits and differ deeper down
+    private static Key key(int id) {
+        return new Key(id, id % 4 == 0 ? 7 : id << 10);
+    }
+
+    @Test
+    public void matchesHashMapUnderRandomChanges() {
+        Random random = new Random(2024);
+        PersistentMap<Key, Integer> map = PersistentMap.empty();
+        HashMap<Key, Integer> expected = new HashMap<Key, Integer>();
+        ArrayList<PersistentMap<Key, Integer>> versions = new ArrayList<PersistentMap<Key, Integer>>();
+        ArrayList<HashMap<Key, Integer>> expectedVersions = new ArrayList<HashMap<Key, Integer>>();
+
+        for (int i = 0; i < 20000; i++) {
+            Key key = key(random.nextInt(KEYS));
+            if (random.nextInt(3) == 0) {
+                map = map.minus(key);
+                expected.remove(key);
+            } else {
+                int value = random.nextInt(5);
+                map = map.plus(key, value);
+                expected.put(key, value);
+            }
+            assertEquals(expected.size(), map.size());
+            assertEquals(expected.isEmpty(), map.isEmpty());
+            if (i % 1000 == 0) {
+                assertSameContents(expected, map);
+                versions.add(map);
+                expectedVersions.add(new HashMap<Key, Integer>(expected));
+            }
+        }
+        assertSameContents(expected, map);
+        // the changes made after a version was kept did not touch it
+        for (int i = 0; i < versions.size(); i++)
+            assertSameContents(expectedVersions.get(i), versions.get(i));
+    }
+
+    @Test
+    public void removingEveryKeyLeavesTheEmptyMap() {
+        PersistentMap<Key, Integer> map = PersistentMap.empty();
+        for (int id = 0; id < KEYS; id++)
+            map = map.plus(key(id), id);
+        assertEquals(KEYS, map.size());
+        for (int id = KEYS - 1; id >= 0; id--) {
+            map = map.minus(key(id));
+            assertEquals(id, map.size());
+            assertFalse(map.containsKey(key(id)));
+        }
+        assertTrue(map.isEmpty());
+        assertSame(PersistentMap.empty(), map);
+    }
+
+    @Test
+    public void collidingKeysAreKeptApart() {
+        Key first = key(4);
+        Key second = key(8);
+        Key other = key(1);
+        assertEquals(first.hashCode(), second.hashCode());
+
+        PersistentMap<Key, String> map = PersistentMap.<Key, String>empty().plus(first, "first").plus(second,
+                "second");
+        assertEquals(2, map.size());
+        assertEquals("first", map.get(first));
+        assertEquals("second", map.get(second));
+        assertNull(map.get(key(12)));
+
+        PersistentMap<Key, String> withOther = map.plus(other, "other");
+        assertEquals(3, withOther.size());
+        assertEquals("other", withOther.get(other));
+        assertEquals("first", withOther.get(first));
+
+        PersistentMap<Key, String> withoutFirst = withOther.minus(first);
+        assertEquals(2, withoutFirst.size());
+        assertNull(withoutFirst.get(first));
+        assertEquals("second", withoutFirst.get(second));
+        assertSame(PersistentMap.empty(), withoutFirst.minus(second).minus(other));
+        assertEquals("first", map.get(first));
+    }
+
+    @Test
+    public void unchangedMapsAreReturnedAsIs() {
+        String value = "value";
+        PersistentMap<Key, String> map = PersistentMap.<Key, String>empty().plus(key(1), value).plus(key(4), value)
+                .plus(key(8), value);
+        assertSame(map, map.plus(key(1), value));
+        assertSame(map, map.plus(key(8), value));
+        assertSame(map, map.plusIfAbsent(key(4), "other"));
+        assertSame(map, map.minus(key(2)));
+        assertSame(map, map.minus(key(12)));
+        assertNotSame(map, map.plus(key(8), "other"));
+        assertEquals(3, map.plus(key(8), "other").size());
+    }
+
+    private static <K, V> void assertSameContents(HashMap<K, V> expected, PersistentMap<K, V> map) {
+        assertEquals(expected.size(), map.size());
+        for (int id = 0; id < KEYS; id++) {
+            Key key = key(id);
+            assertEquals(expected.containsKey(key), map.containsKey(key));
+            assertEquals(expected.get(key), map.get(key));
+        }
+        HashMap<K, V> seen = new HashMap<K, V>();
+        map.forEach((key, value) -> assertNull(seen.put(key, value)));
+        assertEquals(expected, seen);
+    }
+}
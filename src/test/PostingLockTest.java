@@ -0,0 +1,140 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import dataTypes.Employer;
+import dataTypes.JobPosting;
+import database.Database;
+import enums.JobPostingStatus;
+import utilities.StripedLock;
+
+public class PostingLockTest {
+    private static final int EMPLOYERS = 8;
+    private static final int EDITS = 200;
+
+    @Test
+    public void sameIdGetsSameLockAndIdsSpreadOut() {
+        StripedLock locks = new StripedLock(16);
+        UUID id = UUID.randomUUID();
+        assertSame(locks.get(id), locks.get(UUID.fromString(id.toString())));
+        HashSet<ReentrantLock> used = new HashSet<ReentrantLock>();
+        for (int i = 0; i < 1000; i++)
+            used.add(locks.get(UUID.randomUUID()));
+        assertEquals(16, used.size());
+        assertThrows(IllegalArgumentException.class, () -> new StripedLock(0));
+    }
+
+    @Test
+    public void concurrentEditsToOnePostingAreNotLost() throws InterruptedException {
+        Employer employer = new Employer.Builder().username("locks").firstName("first").lastName("last").build();
+        JobPosting posting = new JobPosting.Builder().employer(employer).jobTitle("Locked")
+                .requirements(new ArrayList<String>()).status(JobPostingStatus.OPEN).build();
+
+        ExecutorService pool = Executors.newFixedThreadPool(EMPLOYERS);
+        CountDownLatch start = new CountDownLatch(1);
+        ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<Throwable>();
+        for (int e = 0; e < EMPLOYERS; e++) {
+            int editor = e;
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < EDITS; i++) {
+                        employer.addPostingRequirement(posting, "skill " + editor + "-" + i);
+                        employer.editPostingWage(posting, editor * EDITS + i);
+                        employer.editDescription(posting, "description " + editor);
+                        for (String requirement : posting.getRequirements())
+                            assertNotNull(requirement);
+                    }
+                    employer.removePostingRequirement(posting, "skill " + editor + "-0");
+                } catch (Throwable t) {
+                    errors.add(t);
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+
+        assertTrue(errors.isEmpty(), () -> "first error: " + errors.peek());
+        assertEquals(EMPLOYERS * (EDITS - 1), posting.getRequirements().size());
+        assertEquals(EMPLOYERS * (EDITS - 1), new HashSet<String>(posting.getRequirements()).size());
+        assertTrue(posting.getDescription().startsWith("description "));
+    }
+
+    @Test
+    public void requirementsHandedOutDoNotChangeUnderTheReader() {
+        JobPosting posting = new JobPosting.Builder().jobTitle("Snapshot").requirements(new ArrayList<String>())
+                .build();
+        posting.addRequirement("first");
+        ArrayList<String> seen = posting.getRequirements();
+        posting.addRequirement("second");
+        posting.removeRequriement("first");
+        assertEquals(1, seen.size());
+        assertEquals("first", seen.get(0));
+        assertEquals("second", posting.getRequirements().get(0));
+    }
+
+    @Test
+    public void indexesMatchThePostingAfterConcurrentEdits() throws InterruptedException {
+        Database database = Database.getInstance();
+        Employer employer = new Employer.Builder().username("indexed").firstName("first").lastName("last").build();
+        JobPosting posting = new JobPosting.Builder().employer(employer).jobTitle("Indexed")
+                .requirements(new ArrayList<String>()).status(JobPostingStatus.OPEN).build();
+        database.addPosting(posting);
+
+        ExecutorService pool = Executors.newFixedThreadPool(EMPLOYERS);
+        CountDownLatch start = new CountDownLatch(1);
+        ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<Throwable>();
+        for (int e = 0; e < EMPLOYERS; e++) {
+            int editor = e;
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < EDITS; i++) {
+                        posting.addRequirement(term(editor, i));
+                        if (i % 3 == 2)
+                            posting.removeRequriement(term(editor, i - 1));
+                        if (i % 50 == 49) {
+                            ArrayList<String> replaced = new ArrayList<String>(posting.getRequirements());
+                            replaced.remove(term(editor, i));
+                            posting.setRequirements(replaced);
+                        }
+                    }
+                } catch (Throwable t) {
+                    errors.add(t);
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+        assertTrue(errors.isEmpty(), () -> "first error: " + errors.peek());
+
+        HashSet<String> requirements = new HashSet<String>(posting.getRequirements());
+        for (int e = 0; e < EMPLOYERS; e++) {
+            for (int i = 0; i < EDITS; i++) {
+                String term = term(e, i);
+                boolean has = requirements.contains(term);
+                assertEquals(has, database.getOpenPostingsByKeyword(term).contains(posting), term);
+                assertEquals(has, database.getOpenPostingByRequirement(term).contains(posting), term);
+            }
+        }
+        database.removePosting(posting);
+    }
+
+    private static String term(int editor, int edit) {
+        return "req" + editor + "x" + edit + "end";
+    }
+}
@@ -0,0 +1,109 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import dataTypes.DataBlob;
+import dataTypes.JobPosting;
+import dataTypes.Review;
+import dataTypes.Student;
+import dataTypes.User;
+import database.Database;
+import database.JsonDataReader;
+import database.ShardedDataReader;
+import database.ShardedDataWriter;
+import enums.DataCollection;
+
+public class ShardedStorageTest {
+    private static final int SHARDS = 4;
+    private Path dir;
+    private DataBlob expected;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("shards");
+        expected = new JsonDataReader("data/Administrators.json", "data/Students.json", "data/Employers.json",
+                "data/Professors.json", "data/Reviews.json", "data/JobPostings.json").read();
+        new ShardedDataWriter(dir.toString(), SHARDS).write(expected);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Database.getInstance().setDataWriter(null);
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toArray(Path[]::new))
+                Files.delete(file);
+        }
+    }
+
+    private int shardOf(UUID id) {
+        return Math.floorMod(id.hashCode(), SHARDS);
+    }
+
+    private Path shardFile(int shard, String file) {
+        return dir.resolve(String.format("shard-%02d", shard)).resolve(file);
+    }
+
+    @Test
+    public void readsBackEveryRecord() {
+        DataBlob actual = new ShardedDataReader(dir.toString()).read();
+        assertEquals(expected.getUsers().size(), actual.getUsers().size());
+        for (User user : expected.getUsers())
+            assertEquals(user.toString(), actual.getUserById(user.getId()).toString());
+
+        assertEquals(expected.getReviews().size(), actual.getReviews().size());
+        for (Review review : actual.getReviews())
+            assertSame(actual.getUserById(review.getReviewer().getId()), review.getReviewer());
+
+        assertEquals(expected.getJobPostings().size(), actual.getJobPostings().size());
+        for (JobPosting posting : actual.getJobPostings()) {
+            assertSame(actual.getUserById(posting.getEmployer().getId()), posting.getEmployer());
+            for (Student applicant : posting.getApplicants())
+                assertSame(actual.getUserById(applicant.getId()), applicant);
+        }
+    }
+
+    @Test
+    public void rewritesOnlyShardsWithChangedRecords() throws IOException {
+        for (int shard = 0; shard < SHARDS; shard++)
+            Files.deleteIfExists(shardFile(shard, "Students.json"));
+
+        Student student = null;
+        for (User user : expected.getUsers())
+            if (user instanceof Student)
+                student = (Student) user;
+        new ShardedDataWriter(dir.toString(), SHARDS).write(expected.getUsers(), expected.getReviews(),
+                expected.getJobPostings(), EnumSet.of(DataCollection.STUDENTS), Set.of(student.getId()));
+
+        for (int shard = 0; shard < SHARDS; shard++)
+            assertEquals(shard == shardOf(student.getId()), Files.exists(shardFile(shard, "Students.json")));
+    }
+
+    @Test
+    public void databaseSavesOnlyTheChangedShard() throws IOException {
+        Database.getInstance().setDataReader(new ShardedDataReader(dir.toString()));
+        Database.getInstance().setDataWriter(new ShardedDataWriter(dir.toString(), SHARDS));
+        Database.getInstance().loadFromFile();
+        for (int shard = 0; shard < SHARDS; shard++)
+            Files.deleteIfExists(shardFile(shard, "JobPostings.json"));
+
+        JobPosting posting = Database.getInstance().getPostings().get(0);
+        posting.setWage(posting.getWage() + 1);
+        Database.getInstance().writeToFile();
+
+        for (int shard = 0; shard < SHARDS; shard++)
+            assertEquals(shard == shardOf(posting.getId()), Files.exists(shardFile(shard, "JobPostings.json")));
+    }
+}
@@ -0,0 +1,144 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import dataTypes.JobPosting;
+import database.TrigramIndex;
+
+public class TrigramIndexTest {
+    private static final String[] WORDS = { "Java", "JavaScript", "C++", "C#", "Python", "SQL", "React", "Git",
+            "Linux", "AWS", "Docker", "communication", "teamwork", "Data Structures", "REST APIs", "ava", "Ja" };
+
+    private Random random;
+    private ArrayList<JobPosting> postings;
+    private TrigramIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        random = new Random(247);
+        postings = new ArrayList<JobPosting>();
+        index = new TrigramIndex();
+        for (int i = 0; i < 500; i++) {
+            ArrayList<String> requirements = new ArrayList<String>();
+            int count = random.nextInt(5);
+            for (int j = 0; j < count; j++)
+                requirements.add(randomRequirement());
+            JobPosting posting = new JobPosting.Builder().jobTitle("Job " + i).requirements(requirements).build();
+            postings.add(posting);
+            index.add(posting);
+        }
+    }
+
+    /**
+     * The linear scan that getOpenPostingByRequirement used before the index
+     */
+    private ArrayList<JobPosting> scan(String requirement) {
+        ArrayList<JobPosting> matches = new ArrayList<JobPosting>();
+        for (JobPosting posting : postings) {
+            for (String postDetail : posting.getRequirements()) {
+                if (postDetail.toLowerCase().contains(requirement.toLowerCase())) {
+                    matches.add(posting);
+                    break;
+                }
+            }
+        }
+        return matches;
+    }
+
+    private String randomRequirement() {
+        StringBuilder sb = new StringBuilder();
+        int words = 1 + random.nextInt(3);
+        for (int i = 0; i < words; i++) {
+            if (i > 0)
+                sb.append(' ');
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+
+    private String randomQuery() {
+        String requirement = randomRequirement();
+        int start = random.nextInt(requirement.length());
+        int end = start + random.nextInt(requirement.length() - start + 1);
+        String query = requirement.substring(start, end);
+        return random.nextBoolean() ? query.toUpperCase() : query;
+    }
+
+    @Test
+    public void searchMatchesScan() {
+        for (int i = 0; i < 1000; i++) {
+            String query = randomQuery();
+            assertEquals(scan(query), index.search(query), "query: '" + query + "'");
+        }
+    }
+
+    @Test
+    public void searchMatchesSubstring() {
+        assertEquals(scan("ava"), index.search("ava"));
+        assertFalse(index.search("ava").isEmpty());
+    }
+
+    @Test
+    public void searchWithNoMatch() {
+        assertEquals(0, index.search("7390185972").size());
+    }
+
+    @Test
+    public void searchShortQueries() {
+        assertEquals(scan(""), index.search(""));
+        assertEquals(scan("c"), index.search("c"));
+        assertEquals(scan("c#"), index.search("c#"));
+    }
+
+    @Test
+    public void searchMatchesScanAfterUpdates() {
+        for (int i = 0; i < 200; i++) {
+            JobPosting posting = postings.get(random.nextInt(postings.size()));
+            // edits replace the requirements list, so change a copy and set it
+            ArrayList<String> requirements = new ArrayList<String>(posting.getRequirements());
+            if (random.nextBoolean() || requirements.isEmpty()) {
+                requirements.add(randomRequirement());
+            } else {
+                requirements.remove(random.nextInt(requirements.size()));
+            }
+            posting.setRequirements(requirements);
+            index.update(posting);
+        }
+        for (int i = 0; i < 500; i++) {
+            String query = randomQuery();
+            assertEquals(scan(query), index.search(query), "query: '" + query + "'");
+        }
+    }
+
+    @Test
+    public void removedPostingIsNotFound() {
+        JobPosting posting = index.search("java").get(0);
+        index.remove(posting);
+        postings.remove(posting);
+        assertFalse(index.search("java").contains(posting));
+        assertEquals(scan("java"), index.search("java"));
+    }
+
+    @Test
+    public void copyDoesNotSeeLaterChanges() {
+        TrigramIndex copy = new TrigramIndex(index);
+        ArrayList<JobPosting> before = copy.search("java");
+        for (int i = 0; i < 100; i++)
+            index.remove(postings.remove(random.nextInt(postings.size())));
+        for (int i = 0; i < 100; i++) {
+            ArrayList<String> requirements = new ArrayList<String>();
+            requirements.add(randomRequirement());
+            JobPosting posting = new JobPosting.Builder().jobTitle("New " + i).requirements(requirements).build();
+            postings.add(posting);
+            index.add(posting);
+        }
+        assertEquals(before, copy.search("java"));
+        assertEquals(scan("java"), index.search("java"));
+    }
+}
@@ -0,0 +1,157 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import dataTypes.Employer;
+import dataTypes.JobPosting;
+import dataTypes.Review;
+import dataTypes.User;
+import database.Database;
+import database.JsonDataReader;
+import enums.UpdateResult;
+
+public class VersionTest {
+    private static final int SESSIONS = 8;
+
+    @BeforeEach
+    public void setUp() {
+        Database.getInstance().setDataReader(new JsonDataReader("data/Administrators.json", "data/Students.json",
+                "data/Employers.json", "data/Professors.json", "data/Reviews.json", "data/JobPostings.json"));
+        Database.getInstance().loadFromFile();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Database.getInstance().loadFromFile();
+    }
+
+    @Test
+    public void settersMoveTheVersionOn() {
+        JobPosting posting = Database.getInstance().getPostings().get(0);
+        long version = posting.getVersion();
+        posting.setWage(12);
+        assertTrue(posting.getVersion() > version);
+
+        User user = Database.getInstance().getUsers().get(0);
+        version = user.getVersion();
+        user.setApproved(!user.isApproved());
+        assertTrue(user.getVersion() > version);
+    }
+
+    @Test
+    public void secondAdminWithTheSameVersionGetsAConflict() {
+        Database database = Database.getInstance();
+        User user = database.getUnapprovedUsers().isEmpty() ? database.getStudents().get(0)
+                : database.getUnapprovedUsers().get(0);
+        long read = user.getVersion();
+
+        assertEquals(UpdateResult.APPLIED, database.approveUser(user, read, true));
+        assertEquals(UpdateResult.CONFLICT, database.removeUser(user, read));
+        assertTrue(user.isApproved());
+        assertFalse(user.isRemoved());
+
+        assertEquals(UpdateResult.APPLIED, database.removeUser(user, user.getVersion()));
+        assertTrue(user.isRemoved());
+        assertEquals(UpdateResult.MISSING, database.approveUser(user, user.getVersion(), false));
+        assertEquals(UpdateResult.MISSING, database.removeUser(null, 0));
+    }
+
+    @Test
+    public void removingAReviewChecksItsVersion() {
+        Review review = Database.getInstance().getReviews().get(0);
+        long read = review.getVersion();
+        review.setRating(review.getRating());
+        assertEquals(UpdateResult.CONFLICT, Database.getInstance().removeReveiw(review, read));
+        assertEquals(UpdateResult.APPLIED, Database.getInstance().removeReveiw(review, review.getVersion()));
+        assertTrue(review.isRemoved());
+    }
+
+    @Test
+    public void onlyOneEmployerEditFromAVersionGoesThrough() throws InterruptedException {
+        Database database = Database.getInstance();
+        Employer employer = database.getEmployers().get(0);
+        JobPosting posting = new JobPosting.Builder().employer(employer).jobTitle("Contested")
+                .requirements(new ArrayList<String>()).build();
+        database.addPosting(posting);
+        long read = posting.getVersion();
+
+        ExecutorService pool = Executors.newFixedThreadPool(SESSIONS);
+        CountDownLatch start = new CountDownLatch(1);
+        ConcurrentLinkedQueue<UpdateResult> results = new ConcurrentLinkedQueue<UpdateResult>();
+        for (int s = 0; s < SESSIONS; s++) {
+            int session = s;
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    results.add(database.updatePosting(posting, read, edited -> {
+                        edited.setWage(session);
+                        edited.addRequirement("session " + session);
+                    }));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(SESSIONS, results.size());
+        assertEquals(1, results.stream().filter(result -> result == UpdateResult.APPLIED).count());
+        assertEquals(1, posting.getRequirements().size());
+        assertEquals("session " + (int) posting.getWage(), posting.getRequirements().get(0));
+    }
+
+    @Test
+    public void aVersionReadInTheMiddleOfAnEditIsRejected() throws Exception {
+        Database database = Database.getInstance();
+        JobPosting posting = database.getPostings().get(0);
+        long read = posting.getVersion();
+        CountDownLatch editing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<UpdateResult> first = pool.submit(() -> database.updatePosting(posting, read, edited -> {
+                edited.setWage(1);
+                edited.setDescription("first");
+                editing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                edited.setWage(2);
+            }));
+            assertTrue(editing.await(10, TimeUnit.SECONDS));
+
+            // the setters ran but the edit is not done, no version read now may win
+            long midEdit = posting.getVersion();
+            assertEquals(UpdateResult.CONFLICT, database.updatePosting(posting, midEdit, edited -> edited.setWage(3)));
+            assertEquals(UpdateResult.CONFLICT, database.updatePosting(posting, read, edited -> edited.setWage(3)));
+            assertFalse(first.isDone());
+
+            release.countDown();
+            assertEquals(UpdateResult.APPLIED, first.get(10, TimeUnit.SECONDS));
+            assertEquals(2, posting.getWage());
+            assertTrue(posting.getVersion() > midEdit);
+            assertEquals(UpdateResult.APPLIED,
+                    database.updatePosting(posting, posting.getVersion(), edited -> edited.setWage(4)));
+            assertEquals(4, posting.getWage());
+        } finally {
+            release.countDown();
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package utilities;
+
+import dataTypes.DataBlob;
+import database.BinaryDataWriter;
+import database.JsonStreamDataReader;
+
+/**
+ * Converts the JSON data files into one binary snapshot. Run with no arguments
+ * to convert data/ into data/Snapshot.bin, or pass the folder and the snapshot
+ * path
+ */
+public class BinaryConverter {
+
+    public static void main(String[] args) {
+        String folder = args.length > 0 ? args[0] : "data";
+        String snapshot = args.length > 1 ? args[1] : folder + "/Snapshot.bin";
+
+        DataBlob data = new JsonStreamDataReader(folder + "/Administrators.json", folder + "/Students.json",
+                folder + "/Employers.json", folder + "/Professors.json", folder + "/Reviews.json",
+                folder + "/JobPostings.json").read();
+        new BinaryDataWriter(snapshot).write(data);
+        System.out.println("Wrote " + data.getUsers().size() + " users, " + data.getReviews().size()
+                + " reviews and " + data.getJobPostings().size() + " postings to " + snapshot);
+    }
+}
@@ -0,0 +1,58 @@
+package utilities;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import dataTypes.DataBlob;
+import database.BinaryDataReader;
+import database.BinaryDataWriter;
+import database.DataReader;
+import database.JsonDataReader;
+import database.JsonStreamDataReader;
+
+/**
+ * Times how long each DataReader takes to load the data files. Run with the
+ * number of loads to time, 20 by default, and the median of each is printed
+ */
+public class LoadBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        String[] json = { "data/Administrators.json", "data/Students.json", "data/Employers.json",
+                "data/Professors.json", "data/Reviews.json", "data/JobPostings.json" };
+
+        Path snapshot = Files.createTempFile("Snapshot", ".bin");
+        DataBlob data = new JsonStreamDataReader(json[0], json[1], json[2], json[3], json[4], json[5]).read();
+        new BinaryDataWriter(snapshot.toString()).write(data);
+        System.out.println(data.getUsers().size() + " users, " + data.getReviews().size() + " reviews, "
+                + data.getJobPostings().size() + " postings; snapshot is " + Files.size(snapshot) + " bytes");
+
+        time("JsonDataReader", new JsonDataReader(json[0], json[1], json[2], json[3], json[4], json[5]), runs);
+        time("JsonStreamDataReader", new JsonStreamDataReader(json[0], json[1], json[2], json[3], json[4], json[5]),
+                runs);
+        time("BinaryDataReader", new BinaryDataReader(snapshot.toString()), runs);
+        Files.delete(snapshot);
+    }
+
+    /**
+     * Loads the data with a reader several times and prints the median time
+     *
+     * @param name   what to print the time as
+     * @param reader the reader to time
+     * @param runs   how many loads to time
+     */
+    private static void time(String name, DataReader reader, int runs) {
+        for (int i = 0; i < 5; i++)
+            reader.read(); // warm up
+        long[] times = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            reader.read();
+            times[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(times);
+        System.out.printf("%-22s median %8.3f ms%n", name, times[runs / 2] / 1e6);
+    }
+}
@@ -0,0 +1,39 @@
+package utilities;
+
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * StripedLock hands out one of a fixed number of locks for an id. The same id
+ * always gets the same lock, and different ids usually get different ones, so
+ * edits to different records do not wait on each other without keeping a lock
+ * for every record
+ */
+public class StripedLock {
+    private final ReentrantLock[] stripes;
+
+    /**
+     * Constructor
+     *
+     * @param count how many locks to keep
+     */
+    public StripedLock(int count) {
+        if (count <= 0)
+            throw new IllegalArgumentException("A StripedLock needs at least one stripe");
+        stripes = new ReentrantLock[count];
+        for (int i = 0; i < count; i++)
+            stripes[i] = new ReentrantLock();
+    }
+
+    /**
+     * Get method for the lock of an id
+     *
+     * @param id the id of the record being edited, or null
+     * @return the lock for that id
+     */
+    public ReentrantLock get(UUID id) {
+        int hash = id == null ? 0 : id.hashCode();
+        hash ^= hash >>> 16;
+        return stripes[Math.floorMod(hash, stripes.length)];
+    }
+}